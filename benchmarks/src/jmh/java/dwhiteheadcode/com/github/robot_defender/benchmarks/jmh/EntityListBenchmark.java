@@ -0,0 +1,127 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dwhiteheadcode.com.github.robot_defender.benchmarks.IdleRobotScheduler;
+import dwhiteheadcode.com.github.robot_defender.entities.fortress_wall.FortressWall;
+import dwhiteheadcode.com.github.robot_defender.entities.fortress_wall.ReadOnlyFortressWall;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.ReadOnlyRobot;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngineFactory;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.HeadlessGameOutput;
+import dwhiteheadcode.com.github.robot_defender.misc.Vector2d;
+
+/*
+ * Measures the cost of GameEngine.getRobots() and getPlacedWalls() (which copy the entity lists for the UI),
+ * against the number of robots and walls in the game.
+ *
+ * The arena is filled with 'entityCount' robots and 'entityCount' walls, in a checkerboard pattern. Walls are
+ * placed the way the game places them (by the wall-spawn-consumer thread), so the engine is started while they're
+ * placed, then stopped before measuring.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class EntityListBenchmark
+{
+    private static final long WALL_POLL_MILLIS = 10;
+    private static final int FIRST_ROBOT_ID = 1_000_000; // Placed robots' IDs start here, so they don't clash with the robot spawner's IDs
+
+    @Param({"100", "1000", "10000"})
+    public int entityCount;
+
+    private GameEngine engine;
+
+    @Setup
+    public void setUp() throws InterruptedException
+    {
+        int arenaSize = (int)Math.ceil( Math.sqrt(entityCount * 2.0) ) + 1; // Room for both checkerboards, and the citadel
+        int last = arenaSize - 1;
+        HeadlessGameOutput output = new HeadlessGameOutput();
+
+        engine = GameEngineFactory.instance(output, new IdleRobotScheduler(), GameEngineFactory.MOVEMENT_MODE_DEFAULT,
+            arenaSize, arenaSize, entityCount);
+
+        // Robots are placed before the engine starts. The corners (where robots spawn) are filled first, so the 
+        // robot spawner can't add any robots (or spawn on a wall) while the walls are placed.
+        int robots = 0;
+        int[][] corners = { {0, 0}, {0, last}, {last, last}, {last, 0} };
+        for(int[] corner : corners)
+        {
+            engine.placeRobot(new Robot(FIRST_ROBOT_ID + robots, engine), corner[0], corner[1]);
+            robots++;
+        }
+
+        for(int square = 0; square < arenaSize * arenaSize && robots < entityCount; square++)
+        {
+            int x = square % arenaSize;
+            int y = square / arenaSize;
+
+            if((x + y) % 2 == 0 && isFree(x, y, last) && engine.placeRobot(new Robot(FIRST_ROBOT_ID + robots, engine), x, y))
+            {
+                robots++;
+            }
+        }
+
+        engine.start();
+
+        int walls = 0;
+        for(int square = 0; square < arenaSize * arenaSize && walls < entityCount; square++)
+        {
+            int x = square % arenaSize;
+            int y = square / arenaSize;
+
+            if((x + y) % 2 == 1 && isFree(x, y, last))
+            {
+                engine.putNewWall( new FortressWall(engine, output, new Vector2d(x, y)) );
+                walls++;
+            }
+        }
+
+        while(engine.getPlacedWalls().size() < walls)
+        {
+            Thread.sleep(WALL_POLL_MILLIS);
+        }
+
+        engine.stop();
+    }
+
+    /*
+     * Returns true if (x, y) isn't a corner (already filled with a robot) or the citadel's square.
+     */
+    private boolean isFree(int x, int y, int last)
+    {
+        boolean corner = (x == 0 || x == last) && (y == 0 || y == last);
+        boolean citadel = x == (int)engine.getCitadel().x() && y == (int)engine.getCitadel().y();
+        return !corner && !citadel;
+    }
+
+    @Benchmark
+    public List<ReadOnlyRobot> getRobots()
+    {
+        return engine.getRobots();
+    }
+
+    @Benchmark
+    public List<ReadOnlyFortressWall> getPlacedWalls()
+    {
+        return engine.getPlacedWalls();
+    }
+}
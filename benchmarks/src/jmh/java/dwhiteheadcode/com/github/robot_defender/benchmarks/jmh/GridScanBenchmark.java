@@ -0,0 +1,117 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dwhiteheadcode.com.github.robot_defender.misc.Grid;
+import dwhiteheadcode.com.github.robot_defender.misc.Location;
+
+/*
+ * Measures a scan of every square of the grid, counting the robots and walls, as the engine and renderer do
+ * when they look over the arena. The scan is made through Location views (one per square), and directly with
+ * the Grid's accessors, to show what the views cost.
+ *
+ * A quarter of the squares have robots, and a tenth have walls (placed at random).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class GridScanBenchmark
+{
+    private static final int ROBOT_PERCENT = 25;
+    private static final int WALL_PERCENT = 10;
+
+    @Param({"64", "256", "1024"})
+    public int arenaSize;
+
+    private Grid grid;
+
+    @Setup
+    public void setUp()
+    {
+        grid = new Grid(arenaSize, arenaSize);
+        Random rand = new Random(arenaSize);
+
+        int nextId = 1;
+        for(int y = 0; y < arenaSize; y++)
+        {
+            for(int x = 0; x < arenaSize; x++)
+            {
+                int roll = rand.nextInt(100);
+                if(roll < ROBOT_PERCENT)
+                {
+                    grid.tryOccupy(x, y, nextId);
+                    nextId++;
+                }
+                else if(roll < ROBOT_PERCENT + WALL_PERCENT)
+                {
+                    grid.setWallState(x, y, Grid.INTACT_WALL);
+                }
+            }
+        }
+    }
+
+    /*
+     * Returns the number of robots plus walls, found through a Location for each square.
+     */
+    @Benchmark
+    public int scanLocations()
+    {
+        int count = 0;
+        for(int y = 0; y < arenaSize; y++)
+        {
+            for(int x = 0; x < arenaSize; x++)
+            {
+                Location location = grid.location(x, y);
+                if(location.hasRobot())
+                {
+                    count++;
+                }
+                if(location.hasWall())
+                {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /*
+     * Returns the number of robots plus walls, read directly from the Grid.
+     */
+    @Benchmark
+    public int scanGrid()
+    {
+        int count = 0;
+        for(int y = 0; y < arenaSize; y++)
+        {
+            for(int x = 0; x < arenaSize; x++)
+            {
+                if(grid.getRobotId(x, y) != Grid.NO_ROBOT)
+                {
+                    count++;
+                }
+                if(grid.getWallState(x, y) != Grid.NO_WALL)
+                {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
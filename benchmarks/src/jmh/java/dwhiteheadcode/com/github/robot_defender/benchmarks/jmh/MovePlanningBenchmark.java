@@ -0,0 +1,77 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dwhiteheadcode.com.github.robot_defender.benchmarks.IdleRobotScheduler;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.moves.Direction;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.moves.MovementMode;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngineFactory;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.HeadlessGameOutput;
+
+/*
+ * Measures Robot.planMoves() (which replaced generateMoveOrder() and allMoves()): the cost of a robot deciding
+ * the order to try its moves in, for each MovementMode.
+ *
+ * Robots are placed on a quarter of the squares of an arena (without running them), and plan their moves in
+ * turn, so each call sees a different position and neighbourhood.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class MovePlanningBenchmark
+{
+    private static final int ARENA_SIZE = 100;
+    private static final int ROBOT_SPACING = 2; // Robots are placed on every second (odd) row and column, so not on the citadel
+
+    @Param({"STRAIGHT_LINE", "DISTANCE_FIELD"})
+    public MovementMode movementMode;
+
+    private Robot[] robots;
+    private int next = 0;
+
+    @Setup
+    public void setUp()
+    {
+        GameEngine engine = GameEngineFactory.instance(new HeadlessGameOutput(), new IdleRobotScheduler(),
+            movementMode, ARENA_SIZE, ARENA_SIZE, GameEngineFactory.MAX_WALLS_DEFAULT);
+
+        int robotsPerRow = ARENA_SIZE / ROBOT_SPACING;
+        robots = new Robot[robotsPerRow * robotsPerRow];
+
+        for(int i = 0; i < robots.length; i++)
+        {
+            robots[i] = new Robot(i + 1, engine);
+            engine.placeRobot(robots[i], (i % robotsPerRow) * ROBOT_SPACING + 1, (i / robotsPerRow) * ROBOT_SPACING + 1);
+        }
+    }
+
+    /*
+     * Has the next robot plan its moves. Returns the planned moves (shared by every robot planned on this
+     * thread), so the JIT compiler can't skip the planning.
+     */
+    @Benchmark
+    public Direction[] planMoves()
+    {
+        Robot robot = robots[next];
+        next = (next + 1) % robots.length;
+
+        return robot.planMoves();
+    }
+}
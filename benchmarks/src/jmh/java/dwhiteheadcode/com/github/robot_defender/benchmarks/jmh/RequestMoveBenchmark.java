@@ -0,0 +1,136 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dwhiteheadcode.com.github.robot_defender.benchmarks.IdleRobotScheduler;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.moves.Direction;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngineFactory;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.HeadlessGameOutput;
+
+/*
+ * Measures GameEngine.requestMove() (with the matching moveCompleted()) under 1, 4, 16 and 64 contending threads.
+ *
+ * Each thread moves its own robot up and down between two rows, next to the other threads' robots (so they
+ * share the grid's neighbour flags, as crowded robots do). The robots aren't run by a scheduler: each operation
+ * is one whole move, without the delay a robot waits between moves.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RequestMoveBenchmark
+{
+    private static final int ARENA_SIZE = 100; // Wide enough for a robot per thread, away from the corners and the citadel
+    private static final int FIRST_COLUMN = 2;
+    private static final int TOP_ROW = 2;
+
+    /*
+     * The arena, shared by all threads.
+     */
+    @State(Scope.Benchmark)
+    public static class Arena
+    {
+        private GameEngine engine;
+        private final AtomicInteger nextColumn = new AtomicInteger(FIRST_COLUMN);
+
+        @Setup
+        public void setUp()
+        {
+            engine = GameEngineFactory.instance(new HeadlessGameOutput(), new IdleRobotScheduler(),
+                GameEngineFactory.MOVEMENT_MODE_DEFAULT, ARENA_SIZE, ARENA_SIZE, GameEngineFactory.MAX_WALLS_DEFAULT);
+        }
+    }
+
+    /*
+     * Each thread's robot, and the direction of its next move.
+     */
+    @State(Scope.Thread)
+    public static class Mover
+    {
+        private Robot robot;
+        private Direction nextMove = Direction.DOWN;
+
+        @Setup
+        public void setUp(Arena arena)
+        {
+            int column = arena.nextColumn.getAndIncrement();
+
+            robot = new Robot(column, arena.engine);
+            if(!arena.engine.placeRobot(robot, column, TOP_ROW))
+            {
+                throw new IllegalStateException("Couldn't place a robot at (" + column + ", " + TOP_ROW + ")");
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean oneThread(Arena arena, Mover mover)
+    {
+        return move(arena.engine, mover);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean fourThreads(Arena arena, Mover mover)
+    {
+        return move(arena.engine, mover);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean sixteenThreads(Arena arena, Mover mover)
+    {
+        return move(arena.engine, mover);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean sixtyFourThreads(Arena arena, Mover mover)
+    {
+        return move(arena.engine, mover);
+    }
+
+    /*
+     * Requests the mover's next move, and (if it's approved) completes it straight away, as Robot.act() does
+     * once the move's duration has passed. Returns true if the move was made.
+     */
+    private static boolean move(GameEngine engine, Mover mover)
+    {
+        Robot robot = mover.robot;
+        Direction move = mover.nextMove;
+
+        int startX = robot.getX();
+        int startY = robot.getY();
+
+        if(!engine.requestMove(robot, move))
+        {
+            return false;
+        }
+
+        int endX = startX + move.dx();
+        int endY = startY + move.dy();
+
+        robot.setPosition(endX, endY);
+        engine.moveCompleted(robot, startX, startY, endX, endY);
+
+        mover.nextMove = move.dy() > 0 ? Direction.UP : Direction.DOWN; // Head back
+        return true;
+    }
+}
@@ -0,0 +1,87 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.game_engine.components.SpawnZones;
+import dwhiteheadcode.com.github.robot_defender.misc.Grid;
+import dwhiteheadcode.com.github.robot_defender.misc.Location;
+
+/*
+ * Measures the robot spawn consumer's choice of spawn square (SpawnZones.claim()): picking a corner whose zone
+ * has a free square, and finding and occupying that square.
+ *
+ * The zones are sized for 'waveSize' robots, and 'occupiedPercent' of their squares are occupied (other than the
+ * squares in the corners themselves, so every zone always has a free square). Each claimed square is freed
+ * straight away, so the zones stay the same between operations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class SpawnZoneBenchmark
+{
+    private static final int ARENA_SIZE = 256;
+    private static final int SPAWNING_ROBOT_ID = 1;
+
+    @Param({"1", "1000", "10000"})
+    public int waveSize;
+
+    @Param({"0", "90"})
+    public int occupiedPercent;
+
+    private Grid grid;
+    private SpawnZones spawnZones;
+    private Robot robot;
+    private final Random rand = new Random(0);
+
+    @Setup
+    public void setUp()
+    {
+        grid = new Grid(ARENA_SIZE, ARENA_SIZE);
+        spawnZones = new SpawnZones(grid, waveSize);
+        grid.setOccupancyListener(spawnZones);
+        robot = new Robot(SPAWNING_ROBOT_ID, null); // Never run, so it doesn't need a GameEngine
+
+        int last = ARENA_SIZE - 1;
+        int nextId = SPAWNING_ROBOT_ID + 1;
+        for(int y = 0; y < ARENA_SIZE; y++)
+        {
+            for(int x = 0; x < ARENA_SIZE; x++)
+            {
+                boolean corner = (x == 0 || x == last) && (y == 0 || y == last);
+                if(spawnZones.contains(x, y) && !corner && rand.nextInt(100) < occupiedPercent)
+                {
+                    grid.tryOccupy(x, y, nextId);
+                    nextId++;
+                }
+            }
+        }
+    }
+
+    /*
+     * Claims a spawn square, then frees it again. Returns the claimed Location.
+     */
+    @Benchmark
+    public Location claimSpawnSquare()
+    {
+        Location location = spawnZones.claim(robot, rand);
+        grid.vacate(location.getX(), location.getY(), SPAWNING_ROBOT_ID);
+        return location;
+    }
+}
@@ -0,0 +1,68 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+
+/*
+ * Sets up headless arenas full of robots, for use by the benchmarks.
+ */
+public final class BenchmarkArenas
+{
+    private static final int SQUARES_PER_ROBOT = 4; // The arena is sized so that robots start on 1/4 of its squares
+    private static final int FIRST_ROBOT_ID = 1_000_000; // Placed robots' IDs start here, so they don't clash with the robot spawner's IDs
+
+    private BenchmarkArenas()
+    {
+    }
+
+    /*
+     * Returns the width (and height) of a square arena big enough for 'robotCount' robots
+     */
+    public static int arenaSize(int robotCount)
+    {
+        return Math.max(3, (int)Math.ceil( Math.sqrt((double)robotCount * SQUARES_PER_ROBOT) ));
+    }
+
+    /*
+     * Places robots at distinct random squares of the arena (other than the citadel).
+     */
+    public static void placeRobots(GameEngine engine, int robotCount, int arenaSize)
+    {
+        List<Integer> squares = new ArrayList<>();
+        for(int i = 0; i < arenaSize * arenaSize; i++)
+        {
+            squares.add(i);
+        }
+        Collections.shuffle(squares, new Random(robotCount));
+
+        int citadelX = (int)engine.getCitadel().x();
+        int citadelY = (int)engine.getCitadel().y();
+
+        int placed = 0;
+        for(int square : squares)
+        {
+            if(placed == robotCount)
+            {
+                break;
+            }
+
+            int x = square % arenaSize;
+            int y = square / arenaSize;
+
+            if(x == citadelX && y == citadelY)
+            {
+                continue;
+            }
+
+            if( engine.placeRobot(new Robot(FIRST_ROBOT_ID + placed, engine), x, y) )
+            {
+                placed++;
+            }
+        }
+    }
+}
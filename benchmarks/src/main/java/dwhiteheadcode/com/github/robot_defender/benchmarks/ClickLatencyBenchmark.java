@@ -0,0 +1,101 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngineFactory;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.HeadlessGameOutput;
+import dwhiteheadcode.com.github.robot_defender.game_engine.scheduling.RobotExecutionMode;
+
+/*
+ * Measures how long the UI thread's calls into the engine take while many robots are moving.
+ *
+ * This thread plays the part of the UI thread: once per millisecond, it either "clicks" a square
+ * (GameEngine.squareClicked(), which checks the number of walls), or reads the robots and walls
+ * (as the arena does when it's redrawn). The latency of each call is recorded, and percentiles
+ * are printed at the end.
+ *
+ * Usage:
+ *     ClickLatencyBenchmark [mode] [robot count] [seconds]
+ *         e.g. ClickLatencyBenchmark THREAD_PER_ROBOT 500 10
+ */
+public class ClickLatencyBenchmark
+{
+    private static final String DEFAULT_MODE = "THREAD_PER_ROBOT";
+    private static final String DEFAULT_ROBOT_COUNT = "500";
+    private static final String DEFAULT_SECONDS = "10";
+
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration CALL_INTERVAL = Duration.ofMillis(1);
+
+    public static void main(String[] args) throws InterruptedException
+    {
+        RobotExecutionMode mode = RobotExecutionMode.valueOf( args.length > 0 ? args[0] : DEFAULT_MODE );
+        int robotCount = Integer.parseInt( args.length > 1 ? args[1] : DEFAULT_ROBOT_COUNT );
+        int seconds = Integer.parseInt( args.length > 2 ? args[2] : DEFAULT_SECONDS );
+
+        int arenaSize = BenchmarkArenas.arenaSize(robotCount);
+
+        GameEngine engine = GameEngineFactory.instance(new HeadlessGameOutput(), mode, arenaSize, arenaSize,
+            GameEngineFactory.MAX_WALLS_DEFAULT);
+
+        engine.start();
+        BenchmarkArenas.placeRobots(engine, robotCount, arenaSize);
+
+        Thread.sleep(WARMUP.toMillis());
+
+        int numCalls = (int)(Duration.ofSeconds(seconds).toMillis() / CALL_INTERVAL.toMillis());
+        long[] clickNanos = new long[(numCalls + 1) / 2];
+        long[] readNanos = new long[(numCalls + 1) / 2];
+
+        for(int i = 0; i < numCalls; i++)
+        {
+            long start = System.nanoTime();
+
+            if(i % 2 == 0)
+            {
+                // Click along the top row (robots spawn in the corners, so walls here get hit)
+                engine.squareClicked(i / 2 % arenaSize, 0);
+                clickNanos[i / 2] = System.nanoTime() - start;
+            }
+            else
+            {
+                engine.getRobots();
+                engine.getPlacedWalls();
+                readNanos[i / 2] = System.nanoTime() - start;
+            }
+
+            Thread.sleep(CALL_INTERVAL.toMillis());
+        }
+
+        System.out.println("Java " + System.getProperty("java.version") + ", "
+            + Runtime.getRuntime().availableProcessors() + " processors, " + mode + ", " + robotCount + " robots, "
+            + seconds + "s");
+        System.out.println();
+        System.out.println(String.format("%-26s %8s %10s %10s %10s %10s",
+            "Call", "Count", "p50(us)", "p99(us)", "p99.9(us)", "Max(us)"));
+        printPercentiles("squareClicked", clickNanos);
+        printPercentiles("getRobots+getPlacedWalls", readNanos);
+
+        engine.stop();
+    }
+
+    private static void printPercentiles(String name, long[] nanos)
+    {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+
+        System.out.println(String.format("%-26s %8d %10.1f %10.1f %10.1f %10.1f", name, sorted.length,
+            percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999), sorted[sorted.length - 1] / 1000.0));
+    }
+
+    /*
+     * Returns the given percentile (0 to 1) of 'sorted', in microseconds
+     */
+    private static double percentile(long[] sorted, double percentile)
+    {
+        int index = (int)Math.min( sorted.length - 1, Math.round(percentile * (sorted.length - 1)) );
+        return sorted[index] / 1000.0;
+    }
+}
@@ -0,0 +1,98 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/*
+ * Records the JVM's garbage collection pauses (their number, total and longest duration), from the garbage
+ * collectors' notifications.
+ *
+ * Collectors that report whole concurrent cycles rather than pauses (e.g. "ZGC Cycles" and "Shenandoah Cycles")
+ * are ignored, as their threads run alongside the application's.
+ */
+public class GcPauseRecorder implements NotificationListener
+{
+    private static final String CONCURRENT_CYCLES_SUFFIX = "Cycles";
+
+    private final LongAdder pauses = new LongAdder();
+    private final LongAdder totalPauseMillis = new LongAdder();
+    private final LongAccumulator maxPauseMillis = new LongAccumulator(Math::max, 0);
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+    /*
+     * Starts recording every pause from now on.
+     */
+    public void start()
+    {
+        for(GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            if(collector instanceof NotificationEmitter emitter && !collector.getName().endsWith(CONCURRENT_CYCLES_SUFFIX))
+            {
+                emitter.addNotificationListener(this, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    /*
+     * Stops recording pauses.
+     */
+    public void stop()
+    {
+        for(NotificationEmitter emitter : emitters)
+        {
+            try
+            {
+                emitter.removeNotificationListener(this);
+            }
+            catch(ListenerNotFoundException lNFE)
+            {
+                throw new IllegalStateException("GC notification listener was already removed.", lNFE);
+            }
+        }
+        emitters.clear();
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback)
+    {
+        if(!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()))
+        {
+            return;
+        }
+
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from( (CompositeData)notification.getUserData() );
+        long durationMillis = info.getGcInfo().getDuration();
+
+        pauses.increment();
+        totalPauseMillis.add(durationMillis);
+        maxPauseMillis.accumulate(durationMillis);
+    }
+
+    public long getPauses()
+    {
+        return pauses.sum();
+    }
+
+    public long getTotalPauseMillis()
+    {
+        return totalPauseMillis.sum();
+    }
+
+    public long getMaxPauseMillis()
+    {
+        return maxPauseMillis.get();
+    }
+}
@@ -0,0 +1,29 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.game_engine.scheduling.RobotScheduler;
+
+/*
+ * A RobotScheduler that never runs its robots. Lets benchmarks place robots in an arena (with 
+ * GameEngine.placeRobot()), then drive or measure them directly.
+ */
+public class IdleRobotScheduler implements RobotScheduler
+{
+    @Override
+    public void start(Robot robot)
+    {
+        // Robots are never run
+    }
+
+    @Override
+    public void cancel(Robot robot)
+    {
+        // Robots are never run
+    }
+
+    @Override
+    public void shutdown()
+    {
+        // Nothing to stop
+    }
+}
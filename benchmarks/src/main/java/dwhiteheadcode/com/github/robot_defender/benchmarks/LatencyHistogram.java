@@ -0,0 +1,112 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * A histogram of (non-negative) latencies, that many threads can record into at once without locking.
+ *
+ * Values are counted in buckets that are at most 1/64 (about 1.6%) of their values wide, as in HdrHistogram:
+ * values below SUB_BUCKETS have a bucket each, and each power of 2 above that is split into SUB_BUCKETS / 2
+ * buckets. So the histogram has a fixed size (about 3700 buckets) whatever the values are. Each bucket is a
+ * LongAdder, so threads recording similar values (e.g. robots' moves, which mostly take the same time) don't
+ * contend.
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    private static final int NUM_BUCKETS = SUB_BUCKETS + (Long.SIZE - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[NUM_BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram()
+    {
+        for(int i = 0; i < NUM_BUCKETS; i++)
+        {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /*
+     * Records one value. Negative values (e.g. from a clock adjustment) are recorded as 0.
+     */
+    public void record(long value)
+    {
+        long v = Math.max(0, value);
+
+        buckets[bucketOf(v)].increment();
+        count.increment();
+        max.accumulate(v);
+    }
+
+    public long getCount()
+    {
+        return count.sum();
+    }
+
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /*
+     * Returns the value that 'quantile' (from 0 to 1) of the recorded values are at or below, e.g.
+     * getValueAt(0.99) for the 99th percentile. The result is the top of the value's bucket (so it may be
+     * slightly higher than the actual value), but is never above the maximum recorded value. Returns 0 if
+     * nothing has been recorded.
+     */
+    public long getValueAt(double quantile)
+    {
+        if(quantile < 0.0 || quantile > 1.0)
+        {
+            throw new IllegalArgumentException("Quantile " + quantile + " isn't between 0 and 1.");
+        }
+
+        long total = getCount();
+        long target = Math.max(1, (long)Math.ceil(quantile * total));
+
+        long seen = 0;
+        for(int i = 0; i < NUM_BUCKETS; i++)
+        {
+            seen += buckets[i].sum();
+            if(seen >= target)
+            {
+                return Math.min(bucketTop(i), getMax());
+            }
+        }
+
+        return getMax(); // Only reached if values were recorded while reading
+    }
+
+    // The bucket that 'value' is counted in
+    private static int bucketOf(long value)
+    {
+        if(value < SUB_BUCKETS)
+        {
+            return (int)value;
+        }
+
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        int top = (int)(value >>> shift); // From HALF_SUB_BUCKETS to SUB_BUCKETS - 1
+
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (top - HALF_SUB_BUCKETS);
+    }
+
+    // The highest value counted in 'bucket'
+    private static long bucketTop(int bucket)
+    {
+        if(bucket < SUB_BUCKETS)
+        {
+            return bucket;
+        }
+
+        int shift = (bucket - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        long top = (bucket - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,262 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import dwhiteheadcode.com.github.robot_defender.entities.fortress_wall.FortressWall;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameConfig;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngineFactory;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.HeadlessGameOutput;
+import dwhiteheadcode.com.github.robot_defender.misc.Vector2d;
+
+/*
+ * Runs a game headless under load, as set up by a scenario file (see LoadTestScenario), and reports how the engine
+ * coped as JSON. Used to size hardware for large arenas, and to catch regressions in how robots and the engine
+ * interact.
+ *
+ * The engine is started, the scenario's walls and robots are placed, and the game runs for the warmup. Then, for
+ * the scenario's duration, the report measures:
+ *     - Moves completed per second, and the ratio of move requests that were rejected
+ *     - Move latency percentiles (p50, p99, p999 and max), from the engine approving a move (requestMove()) to the
+ *       robot completing it (moveCompleted()). This includes the move's duration (Robot.MOVE_DURATION for most
+ *       execution modes), so the interesting part is how far above that it is.
+ *     - Platform threads (peak, and at the end). Virtual threads aren't counted.
+ *     - The heap high-water mark (sampled every HEAP_SAMPLE_INTERVAL)
+ *     - GC pauses (see GcPauseRecorder)
+ *
+ * The report is printed, and also written to 'report file' if one is given.
+ *
+ * Usage:
+ *     LoadTest [scenario file] [report file]
+ *         e.g. gradlew :benchmarks:loadTest --args="scenarios/crowded-arena.properties build/load-test.json"
+ */
+public class LoadTest
+{
+    private static final Duration HEAP_SAMPLE_INTERVAL = Duration.ofMillis(100);
+    private static final Duration WALL_POLL_INTERVAL = Duration.ofMillis(10);
+    private static final int FIRST_ROBOT_ID = 1_000_000_000; // Placed robots' IDs start here, so they don't clash with the robot spawner's IDs
+    private static final int PLACEMENT_ATTEMPTS_PER_ROBOT = 20; // Squares tried (at random) per robot, before giving up on a crowded arena
+    private static final long PLACEMENT_SEED = 1;
+
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        LoadTestScenario scenario = args.length > 0 ? LoadTestScenario.load(Path.of(args[0])) : LoadTestScenario.defaults();
+        Path reportFile = args.length > 1 ? Path.of(args[1]) : null;
+
+        GameConfig config = scenario.getConfig();
+        System.out.println("Load test: " + config + ", " + scenario.getRobots() + " robots and " + scenario.getWalls().size()
+            + " walls placed, " + scenario.getWarmupSeconds() + "s warmup, " + scenario.getDurationSeconds() + "s measured");
+
+        HeadlessGameOutput output = new HeadlessGameOutput();
+        GameEngine engine = GameEngineFactory.instance(output, config);
+        MoveLatencyRecorder latencyRecorder = new MoveLatencyRecorder( engine.getRobotTable().getCapacity() );
+        engine.setMoveListener(latencyRecorder);
+
+        // Set up
+        engine.start();
+        int wallsPlaced = placeWalls(engine, output, scenario);
+        int robotsPlaced = placeRobots(engine, scenario);
+
+        Thread.sleep( Duration.ofSeconds(scenario.getWarmupSeconds()).toMillis() );
+
+        // Measure
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        GcPauseRecorder gcPauses = new GcPauseRecorder();
+
+        int robotsAtStart = engine.getRobots().size();
+        long startMoves = engine.getMovesCompleted();
+        long startRequests = engine.getMoveRequests();
+        long startRejected = engine.getMovesRejected();
+        threads.resetPeakThreadCount();
+        gcPauses.start();
+        latencyRecorder.startRecording();
+        long startNanos = System.nanoTime();
+
+        long heapHighWater = 0;
+        long endNanos = startNanos + Duration.ofSeconds(scenario.getDurationSeconds()).toNanos();
+        while(System.nanoTime() < endNanos)
+        {
+            heapHighWater = Math.max( heapHighWater, memory.getHeapMemoryUsage().getUsed() );
+            Thread.sleep(HEAP_SAMPLE_INTERVAL.toMillis());
+        }
+
+        latencyRecorder.stopRecording();
+        gcPauses.stop();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long moves = engine.getMovesCompleted() - startMoves;
+        long requests = engine.getMoveRequests() - startRequests;
+        long rejected = engine.getMovesRejected() - startRejected;
+        int robotsAtEnd = engine.getRobots().size();
+        int peakThreads = threads.getPeakThreadCount();
+        int threadsAtEnd = threads.getThreadCount();
+
+        engine.stop();
+
+        // Report
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", args.length > 0 ? args[0] : null);
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("config", configReport(config));
+        report.put("robotsPlaced", robotsPlaced);
+        report.put("wallsPlaced", wallsPlaced);
+        report.put("warmupSeconds", scenario.getWarmupSeconds());
+        report.put("measuredSeconds", seconds);
+
+        Map<String, Object> moveReport = new LinkedHashMap<>();
+        moveReport.put("completed", moves);
+        moveReport.put("perSecond", moves / seconds);
+        moveReport.put("requested", requests);
+        moveReport.put("rejected", rejected);
+        moveReport.put("rejectedRatio", requests > 0 ? (double)rejected / requests : null);
+        report.put("moves", moveReport);
+
+        LatencyHistogram latencies = latencyRecorder.getLatencies();
+        Map<String, Object> latencyReport = new LinkedHashMap<>();
+        latencyReport.put("count", latencies.getCount());
+        latencyReport.put("p50", latencies.getValueAt(0.5) / 1000.0);
+        latencyReport.put("p99", latencies.getValueAt(0.99) / 1000.0);
+        latencyReport.put("p999", latencies.getValueAt(0.999) / 1000.0);
+        latencyReport.put("max", latencies.getMax() / 1000.0);
+        report.put("moveLatencyMillis", latencyReport);
+
+        Map<String, Object> robotReport = new LinkedHashMap<>();
+        robotReport.put("atStart", robotsAtStart);
+        robotReport.put("atEnd", robotsAtEnd);
+        report.put("robots", robotReport);
+
+        Map<String, Object> threadReport = new LinkedHashMap<>();
+        threadReport.put("peak", peakThreads);
+        threadReport.put("atEnd", threadsAtEnd);
+        report.put("platformThreads", threadReport);
+
+        report.put("heapHighWaterBytes", heapHighWater);
+
+        Map<String, Object> gcReport = new LinkedHashMap<>();
+        gcReport.put("pauses", gcPauses.getPauses());
+        gcReport.put("totalPauseMillis", gcPauses.getTotalPauseMillis());
+        gcReport.put("maxPauseMillis", gcPauses.getMaxPauseMillis());
+        report.put("gc", gcReport);
+
+        report.put("gameOver", output.getFinalScore() >= 0);
+
+        String json = toJson(report, "") + System.lineSeparator();
+        System.out.print(json);
+
+        if(reportFile != null)
+        {
+            Files.writeString(reportFile, json, StandardCharsets.UTF_8);
+            System.out.println("Report written to " + reportFile);
+        }
+    }
+
+    /*
+     * Queues the scenario's walls, and waits for the engine to place them. Returns the number placed (walls
+     * aren't placed on squares that already have a robot, e.g. one that has just spawned).
+     */
+    private static int placeWalls(GameEngine engine, HeadlessGameOutput output, LoadTestScenario scenario) throws InterruptedException
+    {
+        for(Vector2d wall : scenario.getWalls())
+        {
+            engine.putNewWall( new FortressWall(engine, output, wall) );
+        }
+
+        // Wait until the engine's wall queue is empty. The last wall taken from the queue is waited for too.
+        while(engine.getNumSpawnedWalls() > engine.getPlacedWalls().size())
+        {
+            Thread.sleep(WALL_POLL_INTERVAL.toMillis());
+        }
+        Thread.sleep(WALL_POLL_INTERVAL.toMillis());
+
+        return engine.getPlacedWalls().size();
+    }
+
+    /*
+     * Places the scenario's robots at random free squares (not on walls or the citadel). Returns the number placed,
+     * which may be fewer than the scenario asked for if the arena is crowded.
+     */
+    private static int placeRobots(GameEngine engine, LoadTestScenario scenario)
+    {
+        int numCols = engine.getNumCols();
+        int numRows = engine.getNumRows();
+
+        boolean[] blocked = new boolean[numRows * numCols];
+        blocked[ (int)engine.getCitadel().y() * numCols + (int)engine.getCitadel().x() ] = true;
+        for(Vector2d wall : scenario.getWalls())
+        {
+            blocked[ (int)wall.y() * numCols + (int)wall.x() ] = true;
+        }
+
+        Random rand = new Random(PLACEMENT_SEED);
+        long maxAttempts = (long)scenario.getRobots() * PLACEMENT_ATTEMPTS_PER_ROBOT;
+
+        int placed = 0;
+        for(long attempt = 0; attempt < maxAttempts && placed < scenario.getRobots(); attempt++)
+        {
+            int square = rand.nextInt(numRows * numCols);
+            if(!blocked[square] && engine.placeRobot(new Robot(FIRST_ROBOT_ID + placed, engine), square % numCols, square / numCols))
+            {
+                placed++;
+            }
+        }
+
+        return placed;
+    }
+
+    private static Map<String, Object> configReport(GameConfig config)
+    {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rows", config.getNumRows());
+        report.put("cols", config.getNumCols());
+        report.put("maxWalls", config.getMaxWalls());
+        report.put("executionMode", config.getExecutionMode().name());
+        report.put("movementMode", config.getMovementMode().name());
+        report.put("waveSize", config.getWaveSize());
+        report.put("spawnDelayMillis", config.getSpawnDelayMillis());
+        return report;
+    }
+
+    /*
+     * Formats 'value' (a Map of Strings to values, a String, Number, Boolean or null) as JSON, indenting
+     * nested lines by 'indent'.
+     */
+    private static String toJson(Object value, String indent)
+    {
+        if(value instanceof Map<?, ?> map)
+        {
+            String innerIndent = indent + "  ";
+            StringBuilder json = new StringBuilder("{");
+            String separator = System.lineSeparator();
+            for(Map.Entry<?, ?> entry : map.entrySet())
+            {
+                json.append(separator).append(innerIndent).append( toJson(entry.getKey(), innerIndent) ).append(": ")
+                    .append( toJson(entry.getValue(), innerIndent) );
+                separator = "," + System.lineSeparator();
+            }
+            return json.append(System.lineSeparator()).append(indent).append('}').toString();
+        }
+
+        if(value instanceof String string)
+        {
+            return '"' + string.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+        }
+
+        if(value instanceof Double number && (number.isNaN() || number.isInfinite()))
+        {
+            return "null"; // Not valid JSON numbers
+        }
+
+        return String.valueOf(value); // Numbers, Booleans and null
+    }
+}
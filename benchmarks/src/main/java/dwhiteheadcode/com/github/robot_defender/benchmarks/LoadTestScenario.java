@@ -0,0 +1,184 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameConfig;
+import dwhiteheadcode.com.github.robot_defender.misc.Vector2d;
+
+/*
+ * The setup for a load test (see LoadTest), read from a properties file. As well as any of GameConfig's settings
+ * (the arena size, execution mode, spawn rate etc.), a scenario can set:
+ *     robots=10000           Robots placed at random squares when the test starts (as well as those spawned)
+ *     walls=10,12 11,12      Walls placed when the test starts, as x,y pairs (separated by spaces or ';')
+ *     warmup=5               Seconds to run before measuring
+ *     duration=30            Seconds to measure for
+ * maxWalls is raised to the number of walls, if it's lower.
+ *
+ * Immutable.
+ */
+public final class LoadTestScenario
+{
+    public static final String ROBOTS = "robots";
+    public static final String WALLS = "walls";
+    public static final String WARMUP = "warmup";
+    public static final String DURATION = "duration";
+
+    private static final int ROBOTS_DEFAULT = 0;
+    private static final int WARMUP_SECONDS_DEFAULT = 5;
+    private static final int DURATION_SECONDS_DEFAULT = 30;
+
+    private final GameConfig config;
+    private final int robots;
+    private final List<Vector2d> walls;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+
+    private LoadTestScenario(GameConfig config, int robots, List<Vector2d> walls, int warmupSeconds, int durationSeconds)
+    {
+        if(robots < 0)
+        {
+            throw new IllegalArgumentException("A load test can't place " + robots + " robots.");
+        }
+
+        if(warmupSeconds < 0 || durationSeconds < 1)
+        {
+            throw new IllegalArgumentException("A load test needs a warmup of at least 0s, and a duration of at least 1s.");
+        }
+
+        for(Vector2d wall : walls)
+        {
+            if(wall.x() < 0 || wall.x() >= config.getNumCols() || wall.y() < 0 || wall.y() >= config.getNumRows())
+            {
+                throw new IllegalArgumentException("Wall " + wall + " is outside the " + config.getNumCols() + "x"
+                    + config.getNumRows() + " arena.");
+            }
+        }
+
+        this.config = config;
+        this.robots = robots;
+        this.walls = Collections.unmodifiableList(walls);
+        this.warmupSeconds = warmupSeconds;
+        this.durationSeconds = durationSeconds;
+    }
+
+    /*
+     * Returns the default scenario: the default game, with no robots or walls placed at the start.
+     */
+    public static LoadTestScenario defaults()
+    {
+        return new LoadTestScenario(GameConfig.defaults(), ROBOTS_DEFAULT, new ArrayList<>(), WARMUP_SECONDS_DEFAULT,
+            DURATION_SECONDS_DEFAULT);
+    }
+
+    /*
+     * Reads a scenario from the properties file at 'file'. Settings that aren't given keep their defaults.
+     *
+     * Throws IllegalArgumentException if a setting isn't known, or its value isn't valid.
+     */
+    public static LoadTestScenario load(Path file) throws IOException
+    {
+        Properties properties = new Properties();
+        try(Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+        {
+            properties.load(reader);
+        }
+
+        Map<String, String> gameSettings = new HashMap<>();
+        for(String key : properties.stringPropertyNames())
+        {
+            gameSettings.put( key, properties.getProperty(key) );
+        }
+
+        // Take out the load test's own settings. The rest are the game's.
+        int robots = parseInt(gameSettings.remove(ROBOTS), ROBOTS, ROBOTS_DEFAULT);
+        int warmupSeconds = parseInt(gameSettings.remove(WARMUP), WARMUP, WARMUP_SECONDS_DEFAULT);
+        int durationSeconds = parseInt(gameSettings.remove(DURATION), DURATION, DURATION_SECONDS_DEFAULT);
+        List<Vector2d> walls = parseWalls( gameSettings.remove(WALLS) );
+
+        GameConfig config = GameConfig.defaults().with(gameSettings);
+        if(config.getMaxWalls() < walls.size())
+        {
+            config = config.with( Map.of(GameConfig.MAX_WALLS, String.valueOf(walls.size())) );
+        }
+
+        return new LoadTestScenario(config, robots, walls, warmupSeconds, durationSeconds);
+    }
+
+    public GameConfig getConfig()
+    {
+        return config;
+    }
+
+    public int getRobots()
+    {
+        return robots;
+    }
+
+    public List<Vector2d> getWalls()
+    {
+        return walls;
+    }
+
+    public int getWarmupSeconds()
+    {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds()
+    {
+        return durationSeconds;
+    }
+
+    // Parses the value of 'key', or returns 'defaultValue' if it wasn't given
+    private static int parseInt(String value, String key, int defaultValue)
+    {
+        if(value == null)
+        {
+            return defaultValue;
+        }
+
+        try
+        {
+            return Integer.parseInt(value.trim());
+        }
+        catch(NumberFormatException nFE)
+        {
+            throw new IllegalArgumentException("Load test setting '" + key + "' must be a whole number, not '" + value + "'", nFE);
+        }
+    }
+
+    // Parses a list of "x,y" pairs, separated by whitespace or ';'
+    private static List<Vector2d> parseWalls(String value)
+    {
+        List<Vector2d> walls = new ArrayList<>();
+        if(value == null || value.isBlank())
+        {
+            return walls;
+        }
+
+        for(String pair : value.trim().split("[\\s;]+"))
+        {
+            String[] coordinates = pair.split(",");
+            if(coordinates.length != 2)
+            {
+                throw new IllegalArgumentException("Walls must be given as x,y pairs, not '" + pair + "'");
+            }
+
+            int x = parseInt(coordinates[0], WALLS, 0);
+            int y = parseInt(coordinates[1], WALLS, 0);
+            walls.add( new Vector2d(x, y) );
+        }
+
+        return walls;
+    }
+}
@@ -0,0 +1,62 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.game_engine.MoveListener;
+
+/*
+ * Records the latency of each robot move, from the engine approving it (GameEngine.requestMove() or
+ * occupyIfFree()) to the robot completing it (GameEngine.moveCompleted()), in microseconds. This includes the
+ * move's duration, and any delay in running the robot once the move is due.
+ *
+ * The time each robot's move was approved is kept by robot slot (see RobotTable), so nothing is allocated per move.
+ * Latencies are only recorded between startRecording() and stopRecording().
+ */
+public class MoveLatencyRecorder implements MoveListener
+{
+    private static final long NOT_MOVING = 0;
+
+    private final AtomicLongArray approvedNanos; // By slot. The System.nanoTime() the robot's current move was approved at
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private volatile boolean recording = false;
+
+    public MoveLatencyRecorder(int slotCapacity)
+    {
+        this.approvedNanos = new AtomicLongArray(slotCapacity);
+    }
+
+    public void startRecording()
+    {
+        recording = true;
+    }
+
+    public void stopRecording()
+    {
+        recording = false;
+    }
+
+    /*
+     * Returns the recorded latencies, in microseconds
+     */
+    public LatencyHistogram getLatencies()
+    {
+        return latencies;
+    }
+
+    @Override
+    public void moveApproved(Robot robot)
+    {
+        approvedNanos.set( robot.getSlot(), System.nanoTime() );
+    }
+
+    @Override
+    public void moveCompleted(Robot robot)
+    {
+        long approved = approvedNanos.getAndSet(robot.getSlot(), NOT_MOVING);
+        if(recording && approved != NOT_MOVING)
+        {
+            latencies.record( (System.nanoTime() - approved) / 1000 );
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.ThreadMXBean;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.moves.Direction;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngineFactory;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.HeadlessGameOutput;
+
+/*
+ * Measures the time taken, and memory allocated, by robots planning their moves (Robot.planMoves()).
+ *
+ * Robots are placed on every square of an arena (without running them), and each plans its moves in
+ * turn. Allocation is measured with the JVM's per-thread allocation counter, after a warm-up so that the
+ * JIT compiler has optimised planMoves(). Planning should allocate nothing in the steady state.
+ *
+ * Usage:
+ *     MoveSelectionBenchmark [arena size] [turns (millions)]
+ *         e.g. MoveSelectionBenchmark 100 20
+ */
+public class MoveSelectionBenchmark
+{
+    private static final String DEFAULT_ARENA_SIZE = "100";
+    private static final String DEFAULT_MILLION_TURNS = "20";
+
+    private static final int WARMUP_TURNS = 5_000_000;
+
+    public static void main(String[] args)
+    {
+        int arenaSize = Integer.parseInt( args.length > 0 ? args[0] : DEFAULT_ARENA_SIZE );
+        long turns = Long.parseLong( args.length > 1 ? args[1] : DEFAULT_MILLION_TURNS ) * 1_000_000L;
+
+        GameEngine engine = GameEngineFactory.instance(new HeadlessGameOutput(), new IdleRobotScheduler(),
+            GameEngineFactory.MOVEMENT_MODE_DEFAULT, arenaSize, arenaSize, GameEngineFactory.MAX_WALLS_DEFAULT);
+
+        Robot[] robots = new Robot[arenaSize * arenaSize];
+        for(int i = 0; i < robots.length; i++)
+        {
+            robots[i] = new Robot(i + 1, engine);
+            engine.placeRobot(robots[i], i % arenaSize, i / arenaSize);
+        }
+
+        planMoves(robots, WARMUP_TURNS);
+
+        ThreadMXBean threads = (ThreadMXBean)ManagementFactory.getThreadMXBean();
+        long startBytes = threads.getCurrentThreadAllocatedBytes();
+        long startNanos = System.nanoTime();
+
+        long checksum = planMoves(robots, turns);
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long allocatedBytes = threads.getCurrentThreadAllocatedBytes() - startBytes;
+
+        System.out.println("Java " + System.getProperty("java.version") + ", " + arenaSize + "x" + arenaSize + " arena, "
+            + turns + " turns (checksum " + checksum + ")");
+        System.out.println();
+        System.out.println(String.format("%-14s %12s %14s %16s", "Call", "ns/turn", "Bytes/turn", "Total bytes"));
+        System.out.println(String.format("%-14s %12.1f %14.3f %16d", "planMoves", (double)elapsedNanos / turns,
+            (double)allocatedBytes / turns, allocatedBytes));
+    }
+
+    /*
+     * Has each robot plan its moves in turn, for 'turns' turns in total. Returns a checksum of the planned
+     * moves, so the JIT compiler can't skip the planning.
+     */
+    private static long planMoves(Robot[] robots, long turns)
+    {
+        long checksum = 0;
+
+        for(long turn = 0; turn < turns; turn++)
+        {
+            Direction[] moves = robots[(int)(turn % robots.length)].planMoves();
+            checksum += moves[0].ordinal();
+        }
+
+        return checksum;
+    }
+}
@@ -0,0 +1,191 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngineFactory;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.HeadlessGameOutput;
+import dwhiteheadcode.com.github.robot_defender.game_engine.scheduling.RobotExecutionMode;
+
+/*
+ * Compares robot count against memory use and move throughput, for each RobotExecutionMode.
+ *
+ * For each (mode, robot count) pair, robots are placed at random squares of a headless arena and
+ * left to move for a fixed duration. Each pair is run in a separate JVM, so that the threads and
+ * garbage left behind by one run don't affect the next.
+ *
+ * Usage:
+ *     RobotExecutionBenchmark [modes] [robot counts] [seconds]
+ *         e.g. RobotExecutionBenchmark THREAD_PER_ROBOT,VIRTUAL_THREAD 100,1000,5000 10
+ *
+ *     RobotExecutionBenchmark --single <mode> <robot count> <seconds>
+ *         Runs one pair in this JVM, and prints a single result line. Used by the above.
+ */
+public class RobotExecutionBenchmark
+{
+    private static final String SINGLE_RUN_FLAG = "--single";
+    private static final String RESULT_PREFIX = "RESULT ";
+
+    private static final String DEFAULT_MODES = "THREAD_PER_ROBOT,VIRTUAL_THREAD,DISCRETE_EVENT,PARALLEL_TICK";
+    private static final String DEFAULT_ROBOT_COUNTS = "100,1000,5000,10000";
+    private static final String DEFAULT_SECONDS = "10";
+
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        if(args.length > 0 && SINGLE_RUN_FLAG.equals(args[0]))
+        {
+            runSingle( RobotExecutionMode.valueOf(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]) );
+        }
+        else
+        {
+            String modes = args.length > 0 ? args[0] : DEFAULT_MODES;
+            String robotCounts = args.length > 1 ? args[1] : DEFAULT_ROBOT_COUNTS;
+            String seconds = args.length > 2 ? args[2] : DEFAULT_SECONDS;
+
+            runAll(modes.split(","), robotCounts.split(","), seconds);
+        }
+    }
+
+    /*
+     * Runs each (mode, robot count) pair in its own JVM, and prints a table of the results.
+     */
+    private static void runAll(String[] modes, String[] robotCounts, String seconds) throws IOException, InterruptedException
+    {
+        System.out.println("Java " + System.getProperty("java.version") + ", "
+            + Runtime.getRuntime().availableProcessors() + " processors, " + seconds + "s per run");
+        System.out.println();
+        System.out.println(String.format("%-18s %8s %12s %10s %10s %10s %10s",
+            "Mode", "Robots", "Moves/s", "Heap(MB)", "RSS(MB)", "Threads", "Peak"));
+
+        for(String mode : modes)
+        {
+            for(String robotCount : robotCounts)
+            {
+                System.out.println( runInNewJvm(mode.trim(), robotCount.trim(), seconds) );
+            }
+        }
+    }
+
+    /*
+     * Starts a new JVM (with the same java executable and classpath as this one) to run a single
+     * (mode, robot count) pair. Returns the formatted result line, or an error message.
+     */
+    private static String runInNewJvm(String mode, String robotCount, String seconds) throws IOException, InterruptedException
+    {
+        String javaExecutable = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        ProcessBuilder builder = new ProcessBuilder(
+            javaExecutable, "-cp", System.getProperty("java.class.path"),
+            RobotExecutionBenchmark.class.getName(), SINGLE_RUN_FLAG, mode, robotCount, seconds);
+        builder.redirectErrorStream(true);
+
+        Process process = builder.start();
+
+        String result = null;
+        String firstLine = null; // Used as the error message if the run fails
+
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)))
+        {
+            String line = reader.readLine();
+            while(line != null)
+            {
+                if(line.startsWith(RESULT_PREFIX))
+                {
+                    result = line.substring(RESULT_PREFIX.length());
+                }
+
+                if(firstLine == null)
+                {
+                    firstLine = line;
+                }
+
+                line = reader.readLine();
+            }
+        }
+
+        process.waitFor();
+
+        if(result == null)
+        {
+            return String.format("%-18s %8s   FAILED: %s", mode, robotCount, firstLine);
+        }
+
+        return result;
+    }
+
+    /*
+     * Places 'robotCount' robots in a headless arena, lets them move for 'seconds' (after a warmup),
+     * then prints the result line.
+     */
+    private static void runSingle(RobotExecutionMode mode, int robotCount, int seconds) throws IOException, InterruptedException
+    {
+        int arenaSize = BenchmarkArenas.arenaSize(robotCount);
+
+        GameEngine engine = GameEngineFactory.instance(new HeadlessGameOutput(), mode, arenaSize, arenaSize, 
+            GameEngineFactory.MAX_WALLS_DEFAULT);
+
+        engine.start();
+        BenchmarkArenas.placeRobots(engine, robotCount, arenaSize);
+
+        Thread.sleep(WARMUP.toMillis());
+
+        long startMoves = engine.getMovesCompleted();
+        long startNanos = System.nanoTime();
+
+        Thread.sleep(Duration.ofSeconds(seconds).toMillis());
+
+        long moves = engine.getMovesCompleted() - startMoves;
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int threadCount = threads.getThreadCount();
+        int peakThreadCount = threads.getPeakThreadCount();
+
+        System.gc();
+        long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+
+        System.out.println(RESULT_PREFIX + String.format("%-18s %8d %12.1f %10.1f %10s %10d %10d",
+            mode, robotCount, moves / elapsedSeconds, toMegabytes(heapUsed), residentSetSize(), threadCount, peakThreadCount));
+
+        engine.stop();
+    }
+
+    /*
+     * Returns the resident set size of this process in MB (which includes thread stacks),
+     * or "n/a" if it can't be read (only supported on Linux).
+     */
+    private static String residentSetSize() throws IOException
+    {
+        Path status = Path.of("/proc/self/status");
+        if(!Files.exists(status))
+        {
+            return "n/a";
+        }
+
+        for(String line : Files.readAllLines(status, StandardCharsets.UTF_8))
+        {
+            if(line.startsWith("VmRSS:"))
+            {
+                long kilobytes = Long.parseLong( line.replaceAll("[^0-9]", "") );
+                return String.format("%.1f", toMegabytes(kilobytes * 1024));
+            }
+        }
+
+        return "n/a";
+    }
+
+    private static double toMegabytes(long bytes)
+    {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
@@ -0,0 +1,94 @@
+package dwhiteheadcode.com.github.robot_defender.benchmarks;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngineFactory;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.HeadlessGameOutput;
+
+/*
+ * Measures the heap used per robot, by filling several arenas (simulated in one JVM) with robots.
+ *
+ * The arenas are created first, and their heap use measured (the grid, and the RobotTable's columns, which are
+ * allocated for every square up front). Then a robot is placed on every square (other than the citadel), and
+ * the heap is measured again. Robots are placed with an IdleRobotScheduler, so this counts the robots themselves
+ * and the engine's record of them, but not the state a RobotScheduler keeps to run them.
+ *
+ * Usage:
+ *     RobotFootprintBenchmark [arenas] [arena size]
+ *         e.g. RobotFootprintBenchmark 16 256     (about 1 million robots)
+ */
+public class RobotFootprintBenchmark
+{
+    private static final String DEFAULT_ARENAS = "16";
+    private static final String DEFAULT_ARENA_SIZE = "256";
+
+    private static final int GC_ROUNDS = 4; // Collections before each measurement, so only live objects are counted
+
+    public static void main(String[] args)
+    {
+        int numArenas = Integer.parseInt( args.length > 0 ? args[0] : DEFAULT_ARENAS );
+        int arenaSize = Integer.parseInt( args.length > 1 ? args[1] : DEFAULT_ARENA_SIZE );
+
+        long startBytes = usedHeap();
+
+        GameEngine[] engines = new GameEngine[numArenas];
+        for(int i = 0; i < numArenas; i++)
+        {
+            engines[i] = GameEngineFactory.instance(new HeadlessGameOutput(), new IdleRobotScheduler(),
+                GameEngineFactory.MOVEMENT_MODE_DEFAULT, arenaSize, arenaSize, GameEngineFactory.MAX_WALLS_DEFAULT);
+        }
+
+        long arenaBytes = usedHeap() - startBytes;
+
+        int robotCount = 0;
+        for(GameEngine engine : engines)
+        {
+            int citadelX = (int)engine.getCitadel().x();
+            int citadelY = (int)engine.getCitadel().y();
+
+            for(int y = 0; y < arenaSize; y++)
+            {
+                for(int x = 0; x < arenaSize; x++)
+                {
+                    if((x != citadelX || y != citadelY) && engine.placeRobot(new Robot(robotCount + 1, engine), x, y))
+                    {
+                        robotCount++;
+                    }
+                }
+            }
+        }
+
+        long robotBytes = usedHeap() - startBytes - arenaBytes;
+        long numSquares = (long)numArenas * arenaSize * arenaSize;
+
+        System.out.println("Java " + System.getProperty("java.version") + ", " + numArenas + " arenas of " + arenaSize
+            + "x" + arenaSize + ", " + robotCount + " robots (" + engines.length + " engines live)");
+        System.out.println();
+        System.out.println(String.format("%-28s %14s %12s", "Measurement", "Total (MB)", "Bytes each"));
+        System.out.println(String.format("%-28s %14.1f %12.1f", "Empty arenas (per square)", toMegabytes(arenaBytes),
+            (double)arenaBytes / numSquares));
+        System.out.println(String.format("%-28s %14.1f %12.1f", "Placed robots (per robot)", toMegabytes(robotBytes),
+            (double)robotBytes / robotCount));
+        System.out.println(String.format("%-28s %14.1f %12.1f", "Full arenas (per robot)", toMegabytes(arenaBytes + robotBytes),
+            (double)(arenaBytes + robotBytes) / robotCount));
+    }
+
+    /*
+     * Returns the bytes of heap in use, after collecting garbage
+     */
+    private static long usedHeap()
+    {
+        for(int i = 0; i < GC_ROUNDS; i++)
+        {
+            System.gc();
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static double toMegabytes(long bytes)
+    {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
@@ -0,0 +1,75 @@
+package dwhiteheadcode.com.github.robot_defender.entities.fortress_wall;
+
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.GameOutput;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.GameSound;
+import dwhiteheadcode.com.github.robot_defender.misc.Vector2d;
+
+public class FortressWall 
+{
+    public static final String UNDAMAGED_IMAGE_FILE = "images/wall_default.png";
+    public static final String DAMAGED_IMAGE_FILE = "images/wall_damaged.png";
+
+    private final Vector2d coordinates;
+    private volatile boolean isDamaged; // Not locked because GameEngine prevents multiple robots from colliding with the wall at the same time. Volatile, as the UI reads it without a lock               
+
+    private GameEngine gameEngine;
+    private GameOutput output;
+
+    public FortressWall(GameEngine gameEngine, GameOutput output, Vector2d coordinates)
+    {
+        this.gameEngine = gameEngine;
+        this.output = output;
+        this.coordinates = coordinates;
+        this.isDamaged = false;
+    }
+
+
+    /*
+     * Returns this Wall's coordinates
+     * 
+     * These are never modified, and so don't need to be synchronized
+     * 
+     * Thread: Called by wall-spawn-consumer thread, or robot thread
+     */
+    public Vector2d getCoordinates()
+    {
+        return this.coordinates;
+    }
+
+    /*
+     * Returns true if this wall is damaged, and false if it is not.
+     * 
+     * Thread: Called by UI thread.
+     */
+    public boolean isDamaged()
+    {
+        return isDamaged;
+    }
+
+    /*
+     * Called when a robot hits this wall.
+     * 
+     * If the wall was not damaged prior to this call, it becomes damaged.
+     * If it was damaged prior to this call, it tells the gameEngine that it needs to be destroyed
+     * 
+     * Thread: Called by a robot's thread.
+     */
+    public void damage()
+    {
+        if(isDamaged) // Destroy the wall
+        {
+            output.playSound(GameSound.WALL_DESTRUCTION);   
+
+            gameEngine.destroyWall(this);
+        }
+        else // Damage the wall
+        {
+            output.playSound(GameSound.WALL_COLLISION);
+           
+            // Doesn't need to be synchonrised as GameEngine ensures only 1 robot can hit the wall at once
+            this.isDamaged = true; 
+            gameEngine.arenaChanged();
+        }      
+    }
+}
@@ -0,0 +1,285 @@
+package dwhiteheadcode.com.github.robot_defender.entities.robot;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.moves.*;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+import dwhiteheadcode.com.github.robot_defender.game_engine.components.RobotTable;
+import dwhiteheadcode.com.github.robot_defender.misc.Vector2d;
+
+/*
+ * A robot's movement logic. 
+ * 
+ * A placed robot's position and state are stored in the GameEngine's RobotTable (in the robot's slot), rather 
+ * than in the Robot itself, so this object only holds what's needed to run the robot.
+ */
+public class Robot implements Runnable
+{
+    public static final String IMAGE_FILE = "images/robot.png";
+
+    // Each robot's move delay (delay between moves) is chosen at random between these min/max values (inclusive). 
+    // Note that move delay is chosen *per robot*, and not *per move*. I.e. The delay between every move made by robot 1
+    // will be the same. The delay between every move made by robot 2 will also be the same, but robot 1's move delay will 
+    // likely be different to robot 2's move delay. 
+    private static final Duration MIN_MOVE_DELAY = Duration.ofMillis(500);
+    private static final Duration MAX_MOVE_DELAY = Duration.ofMillis(2000);
+    
+    public static final Duration MOVE_DURATION = Duration.ofMillis(400);
+
+    // Reused by planMoves(), so planning moves doesn't allocate. One per thread (rather than per robot), as a thread
+    // only plans one robot's moves at a time
+    private static final ThreadLocal<Direction[]> MOVE_ORDER = ThreadLocal.withInitial( () -> new Direction[Direction.COUNT] );
+
+    private final int id;
+    private final int moveDelayMillis; // The actual move delay of this robot. Chosen before it's placed, so not stored in its slot
+    private final GameEngine gameEngine;
+    private int slot = RobotTable.NO_SLOT; // This robot's slot in the GameEngine's RobotTable. Set once, when it's placed (before it starts)
+    private volatile RobotMotion motion; // The move currently being made, for the renderer (null if the robot is waiting to make its next move)
+
+    public Robot(int id, GameEngine gameEngine)
+    {
+        this.id = id;
+
+        // Generate a random moveDelay between MIN and MAX move delays (inclusive)
+        this.moveDelayMillis = (int)ThreadLocalRandom.current().nextLong(
+            MIN_MOVE_DELAY.toMillis(),
+            (MAX_MOVE_DELAY.toMillis() + 1)
+        );
+        
+        this.gameEngine = gameEngine;
+    }
+
+
+    /*
+     * Runs the Robot's movement logic in the calling thread, sleeping between each action.
+     * 
+     * See act() for details of the movement logic.
+     */
+    @Override
+    public void run() 
+    {
+        try
+        {
+            long delayMillis = getInitialDelayMillis();
+
+            while(true)
+            {       
+                Thread.sleep(delayMillis);
+                delayMillis = act();
+            }
+        }
+        catch(InterruptedException iE)
+        {
+            // Nothing needed here 
+        }
+
+    }
+
+    /*
+     * Returns all possible moves, in the order they should be tried, as decided by the GameEngine's 
+     * MovementStrategy (e.g. with preference for moves that result in the robot being closer to the citadel).
+     * 
+     * This doesn't request any moves from the GameEngine, and doesn't change the Robot's (game) state. The 
+     * returned array is shared by every robot planned on the calling thread: it's only valid until that thread's 
+     * next call. Doesn't allocate.
+     * 
+     * Thread: The thread running this robot (see RobotScheduler).
+     */
+    public Direction[] planMoves()
+    {
+        Direction[] moveOrder = MOVE_ORDER.get();
+
+        gameEngine.getMovementStrategy().planMoves(getX(), getY(), moveOrder);
+        return moveOrder;
+    }
+
+    /*
+     * Returns the delay between this robot's moves, in milliseconds
+     */
+    public int getMoveDelayMillis()
+    {
+        return this.moveDelayMillis;
+    }
+
+    /*
+     * Returns the delay before the robot's first call to act(), in milliseconds
+     */
+    public int getInitialDelayMillis()
+    {
+        return this.moveDelayMillis;
+    }
+
+    /*
+     * Performs the Robot's next action, and returns the delay (in milliseconds) before act() should be called again.
+     * 
+     * Defines the Robot's movement logic:
+     *     - If the robot isn't moving:
+     *         - Sorts possible moves based on distance from citadel after making each move.
+     *         - Attempts to make moves (in order of preference) until all moves have been tried, or GameEngine approves one
+     *             - If a move was accepted, the move is started, and the robot waits for MOVE_DURATION
+     *             - Otherwise, the robot waits for moveDelay before trying again
+     *     - If the robot is moving, the move is completed and the robot waits for moveDelay
+     * 
+     * The robot doesn't do anything part way through a move: the renderer works out its position from its 
+     * RobotMotion.
+     * 
+     * Thread: The thread running this robot (see RobotScheduler). Only one thread calls this at a time.
+     */
+    public long act()
+    {
+        if(this.slot == RobotTable.NO_SLOT)
+        {
+            throw new IllegalStateException("Can't start robot before it has been placed.");
+        }
+
+        if(motion == null)
+        {
+            //Attempt to make moves until one succeeds, or none left
+            Direction moveToMake = requestMoves( planMoves() );
+
+            // If no move was approved, wait before trying again
+            if(moveToMake == null)
+            {
+                return this.moveDelayMillis;
+            }
+
+            startMove(moveToMake);
+            return MOVE_DURATION.toMillis();
+        }
+
+        completeMove();
+        return this.moveDelayMillis;
+    }
+
+
+    /*
+     * Sets this Robot's slot in the GameEngine's RobotTable
+     * 
+     * Thread: Robot-spawn-consumer (or the caller of GameEngine.placeRobot()), before the robot is started
+     */
+    public void setSlot(int slot)
+    {
+        this.slot = slot;
+    }
+
+    public int getSlot()
+    {
+        return this.slot;
+    }
+
+    /*
+     * Set the position of this Robot (in its slot)
+     * 
+     * Thread: Only this Robot's thread (see RobotScheduler).
+     */
+    public void setPosition(int x, int y)
+    {
+        gameEngine.getRobotTable().setPosition(slot, x, y);
+    }
+
+    /*
+     * Set the move this Robot is making (or null once it has finished), and its slot's state. When finishing 
+     * a move, setPosition() must be called first, so that readers never see neither the motion nor the 
+     * new position.
+     * 
+     * Thread: Only this Robot's thread (see RobotScheduler).
+     */
+    public void setMotion(RobotMotion motion)
+    {
+        this.motion = motion;
+        gameEngine.getRobotTable().setState( slot, motion == null ? RobotTable.IDLE : RobotTable.MOVING );
+    }
+
+    /*
+     * Returns the move this Robot is making, or null if it isn't moving
+     * 
+     * Thread: Any
+     */
+    public RobotMotion getMotion()
+    {
+        return this.motion;
+    }
+
+
+    /*
+     * Try to make each move in "moves" in order.
+     * 
+     * If a move is successful, return it; otherwise return null
+     */
+    private Direction requestMoves(Direction[] moves)
+    {
+        for(Direction d : moves)
+        {             
+            if(  gameEngine.requestMove(this, d)  )
+            {
+                return d;
+            }
+        }
+
+        return null;
+    }
+
+    /*
+     * Begins performing "move" on this robot, by publishing its RobotMotion. The move takes MOVE_DURATION.
+     */
+    private void startMove(Direction move)
+    {
+        int startX = getX();
+        int startY = getY();
+        int endX = startX + move.dx();
+        int endY = startY + move.dy();
+
+        setMotion( new RobotMotion(startX, startY, endX, endY, System.nanoTime(), MOVE_DURATION) );
+        gameEngine.arenaChanged();
+    }
+
+    /*
+     * Finishes the current move, once MOVE_DURATION has passed
+     */
+    private void completeMove()
+    {
+        RobotMotion completedMove = motion;
+
+        setPosition( completedMove.getEndX(), completedMove.getEndY() );
+        setMotion(null);
+        gameEngine.arenaChanged();
+
+        // Tell the game engine that the move completed (which may destroy this robot)
+        gameEngine.moveCompleted(this, completedMove.getStartX(), completedMove.getStartY(), 
+            completedMove.getEndX(), completedMove.getEndY());
+    }
+
+
+    public int getId()
+    {
+        return this.id; // Doesn't change, and thus doesn't need to be synchronised
+    }
+
+    /*
+     * Returns the X coordinate of the square this Robot occupies (or is moving from)
+     * 
+     * Thread: Any
+     */
+    public int getX()
+    {
+        return gameEngine.getRobotTable().getX(slot);
+    }
+
+    /*
+     * Returns the Y coordinate of the square this Robot occupies (or is moving from)
+     * 
+     * Thread: Any
+     */
+    public int getY()
+    {
+        return gameEngine.getRobotTable().getY(slot);
+    }
+
+    public Vector2d getCoordinates()
+    {
+        int position = gameEngine.getRobotTable().getPackedPosition(slot); // Read once, so x and y are from the same move
+        return new Vector2d( RobotTable.unpackX(position), RobotTable.unpackY(position) );
+    }
+
+}
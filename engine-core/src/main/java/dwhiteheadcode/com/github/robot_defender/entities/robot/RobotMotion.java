@@ -0,0 +1,90 @@
+package dwhiteheadcode.com.github.robot_defender.entities.robot;
+
+import java.time.Duration;
+
+/*
+ * A move that a robot is making: from one square to a neighbouring square, starting at a given time
+ * (in System.nanoTime() units) and lasting a given duration.
+ *
+ * Robots don't update their position while they move. Instead, the renderer uses this to work out
+ * where a robot is at any point during its move (see positionX() and positionY()).
+ *
+ * Immutable, so doesn't need to be locked.
+ */
+public class RobotMotion
+{
+    private final int startX;
+    private final int startY;
+    private final int endX;
+    private final int endY;
+    private final long startNanos;
+    private final long durationNanos;
+
+    public RobotMotion(int startX, int startY, int endX, int endY, long startNanos, Duration duration)
+    {
+        this.startX = startX;
+        this.startY = startY;
+        this.endX = endX;
+        this.endY = endY;
+        this.startNanos = startNanos;
+        this.durationNanos = duration.toNanos();
+    }
+
+    /*
+     * Returns the fraction (0 to 1) of the move that has been made at 'nowNanos'
+     */
+    public static double progress(long startNanos, long durationNanos, long nowNanos)
+    {
+        if(durationNanos <= 0 || nowNanos >= startNanos + durationNanos)
+        {
+            return 1.0;
+        }
+
+        if(nowNanos <= startNanos)
+        {
+            return 0.0;
+        }
+
+        return (double)(nowNanos - startNanos) / durationNanos;
+    }
+
+    public double positionX(long nowNanos)
+    {
+        return startX + (endX - startX) * progress(startNanos, durationNanos, nowNanos);
+    }
+
+    public double positionY(long nowNanos)
+    {
+        return startY + (endY - startY) * progress(startNanos, durationNanos, nowNanos);
+    }
+
+    public int getStartX()
+    {
+        return startX;
+    }
+
+    public int getStartY()
+    {
+        return startY;
+    }
+
+    public int getEndX()
+    {
+        return endX;
+    }
+
+    public int getEndY()
+    {
+        return endY;
+    }
+
+    public long getStartNanos()
+    {
+        return startNanos;
+    }
+
+    public long getDurationNanos()
+    {
+        return durationNanos;
+    }
+}
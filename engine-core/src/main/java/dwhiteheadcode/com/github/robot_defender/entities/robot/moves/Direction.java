@@ -0,0 +1,47 @@
+package dwhiteheadcode.com.github.robot_defender.entities.robot.moves;
+
+/*
+ * A direction a Robot can move in: one square up, down, left or right.
+ *
+ * Directions are constants, so planning and requesting moves doesn't allocate anything.
+ */
+public enum Direction
+{
+    UP(0, -1),
+    DOWN(0, 1),
+    LEFT(-1, 0),
+    RIGHT(1, 0);
+
+    public static final int COUNT = 4;
+
+    private static final Direction[] ALL = values(); // values() returns a new array on every call
+
+    private final int dx;
+    private final int dy;
+
+    Direction(int dx, int dy)
+    {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    /*
+     * Returns the direction with the given ordinal()
+     */
+    public static Direction of(int ordinal)
+    {
+        return ALL[ordinal];
+    }
+
+    // The change in X coordinate after moving in this direction
+    public int dx()
+    {
+        return dx;
+    }
+
+    // The change in Y coordinate after moving in this direction
+    public int dy()
+    {
+        return dy;
+    }
+}
@@ -0,0 +1,416 @@
+package dwhiteheadcode.com.github.robot_defender.entities.robot.moves;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+
+/*
+ * Robots follow the shortest path to the citadel around walls, using a distance field: the number of moves from
+ * each square to the citadel (found by a breadth-first search from the citadel), stored as an int array over the
+ * grid. Planning a move is then an O(1) lookup per direction.
+ *
+ * Moves are tried in this order:
+ *     1. Free squares, nearest (by path) first
+ *     2. Squares occupied by other robots (which will probably be rejected), nearest first
+ *     3. Walls, and squares cut off from the citadel, nearest (in a straight line) first. So a robot that is
+ *        walled in still heads for the citadel, and will hit a wall.
+ *     4. Moves off the edge of the grid (which will be rejected)
+ * Ties are broken randomly.
+ *
+ * The field is updated incrementally when walls change, rather than searched again:
+ *     - When a wall is placed, only squares whose every shortest path went through it are invalidated (found
+ *       by following the field outwards from the wall). They're then searched again from the valid squares
+ *       around them.
+ *     - When a wall is removed, distances are lowered outwards from its square, only as far as they improve.
+ *
+ * Thread: Updates are made while holding GameEngine's gameStateLock, so there is only one writer at a time.
+ * Robots read the field without locking (the distances are ints, written and read atomically with a
+ * VarHandle). A robot may see a square's old distance, or briefly see it as unreachable, while the field is
+ * updated. This only affects the order the robot tries its moves, as the GameEngine checks every move.
+ */
+public class DistanceFieldStrategy implements MovementStrategy
+{
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    // Move classes (see class comment), in order of preference
+    private static final int FREE = 0;
+    private static final int OCCUPIED = 1;
+    private static final int BLOCKED = 2;
+    private static final int OFF_GRID = 3;
+
+    // A move's sort key: class (2 bits), then distance (22 bits), then a random tie-breaker (4 bits), then its Direction's ordinal (2 bits)
+    private static final int MAX_KEY_DISTANCE = (1 << 22) - 1;
+
+    private GameEngine gameEngine;
+    private MoveTable straightLine; // Used to order blocked moves
+    private int numRows;
+    private int numCols;
+    private int citadelSquare;
+
+    private int[] distances;  // Moves from each square (indexed by y * numCols + x) to the citadel, or UNREACHABLE
+    private boolean[] walls;  // The squares with walls, as told by wallPlaced() and wallRemoved()
+
+    // Reused by updates, and grown as needed. Only accessed while holding gameStateLock
+    private int[] queue = new int[64];
+    private int[] invalidated = new int[64];
+    private long[] seeds = new long[64]; // Distance (high 32 bits) and square (low 32 bits)
+
+    @Override
+    public void setGameEngine(GameEngine gameEngine)
+    {
+        this.gameEngine = gameEngine;
+        this.numRows = gameEngine.getNumRows();
+        this.numCols = gameEngine.getNumCols();
+
+        int citadelX = (int)gameEngine.getCitadel().x();
+        int citadelY = (int)gameEngine.getCitadel().y();
+        this.citadelSquare = citadelY * numCols + citadelX;
+        this.straightLine = new MoveTable(numRows, numCols, citadelX, citadelY);
+
+        this.walls = new boolean[numRows * numCols];
+        this.distances = new int[numRows * numCols];
+        Arrays.fill(distances, UNREACHABLE);
+
+        // Search the whole grid from the citadel
+        setDistance(citadelSquare, 0);
+        queue[0] = citadelSquare;
+        spreadFrom(1);
+    }
+
+    @Override
+    public void planMoves(int x, int y, Direction[] moveOrder)
+    {
+        int key0 = moveKey(x, y, Direction.UP);
+        int key1 = moveKey(x, y, Direction.DOWN);
+        int key2 = moveKey(x, y, Direction.LEFT);
+        int key3 = moveKey(x, y, Direction.RIGHT);
+
+        // Sort the 4 keys with a sorting network (no array needed)
+        int low;
+        int high;
+        low = Math.min(key0, key1); high = Math.max(key0, key1); key0 = low; key1 = high;
+        low = Math.min(key2, key3); high = Math.max(key2, key3); key2 = low; key3 = high;
+        low = Math.min(key0, key2); high = Math.max(key0, key2); key0 = low; key2 = high;
+        low = Math.min(key1, key3); high = Math.max(key1, key3); key1 = low; key3 = high;
+        low = Math.min(key1, key2); high = Math.max(key1, key2); key1 = low; key2 = high;
+
+        moveOrder[0] = Direction.of(key0 & 0b11);
+        moveOrder[1] = Direction.of(key1 & 0b11);
+        moveOrder[2] = Direction.of(key2 & 0b11);
+        moveOrder[3] = Direction.of(key3 & 0b11);
+    }
+
+    /*
+     * Returns the distance from (x, y) to the citadel (in moves), or -1 if the citadel can't be reached from it.
+     *
+     * Thread: Any
+     */
+    public int getDistance(int x, int y)
+    {
+        int distance = getDistance(y * numCols + x);
+        return distance == UNREACHABLE ? -1 : distance;
+    }
+
+    /*
+     * Invalidates the squares whose every shortest path went through (x, y), then searches them again from the
+     * valid squares around them.
+     */
+    @Override
+    public void wallPlaced(int x, int y)
+    {
+        int wallSquare = y * numCols + x;
+        if(wallSquare == citadelSquare || walls[wallSquare])
+        {
+            return;
+        }
+
+        walls[wallSquare] = true;
+        int wallDistance = getDistance(wallSquare);
+        if(wallDistance == UNREACHABLE)
+        {
+            return;
+        }
+        setDistance(wallSquare, UNREACHABLE);
+
+        // Find the squares that depended on the wall's square, outwards from it, in order of distance. A square
+        // is still valid if any neighbour one move nearer the citadel is still valid.
+        int queueLength = 0;
+        int numInvalidated = 0;
+        queueLength = enqueueNextFurther(wallSquare, wallDistance, queueLength);
+
+        for(int i = 0; i < queueLength; i++)
+        {
+            int square = queue[i];
+            int distance = getDistance(square);
+
+            if(distance == UNREACHABLE || hasNearerNeighbour(square, distance))
+            {
+                continue;
+            }
+
+            setDistance(square, UNREACHABLE);
+            invalidated = ensureCapacity(invalidated, numInvalidated + 1);
+            invalidated[numInvalidated] = square;
+            numInvalidated++;
+
+            queueLength = enqueueNextFurther(square, distance, queueLength);
+        }
+
+        // Each invalidated square next to a valid one can be reached through it. Search outwards from these
+        // squares, nearest first.
+        int numSeeds = 0;
+        seeds = ensureCapacity(seeds, numInvalidated);
+        for(int i = 0; i < numInvalidated; i++)
+        {
+            int square = invalidated[i];
+            int nearest = nearestNeighbourDistance(square);
+
+            if(nearest != UNREACHABLE)
+            {
+                seeds[numSeeds] = ((long)(nearest + 1) << 32) | square;
+                numSeeds++;
+            }
+        }
+        Arrays.sort(seeds, 0, numSeeds);
+
+        spreadFromSeeds(numSeeds);
+    }
+
+    /*
+     * Gives (x, y) a distance (if it's next to a reachable square), then lowers distances outwards from it
+     * for as long as they improve.
+     */
+    @Override
+    public void wallRemoved(int x, int y)
+    {
+        int square = y * numCols + x;
+        if(!walls[square])
+        {
+            return;
+        }
+
+        walls[square] = false;
+        int nearest = nearestNeighbourDistance(square);
+        if(nearest == UNREACHABLE)
+        {
+            return; // Still cut off from the citadel
+        }
+
+        setDistance(square, nearest + 1);
+        queue[0] = square;
+        spreadFrom(1);
+    }
+
+    // PLANNING ----------------------------
+
+    private int moveKey(int x, int y, Direction direction)
+    {
+        int endX = x + direction.dx();
+        int endY = y + direction.dy();
+        int moveClass;
+        int distance;
+
+        if(endX < 0 || endX >= numCols || endY < 0 || endY >= numRows)
+        {
+            moveClass = OFF_GRID;
+            distance = 0;
+        }
+        else
+        {
+            distance = getDistance(endY * numCols + endX);
+
+            if(distance == UNREACHABLE) // A wall, or cut off by walls
+            {
+                moveClass = BLOCKED;
+                distance = (int)straightLine.distanceAfterMove(x, y, direction);
+            }
+            else if(gameEngine.isNeighbourOccupied(x, y, direction))
+            {
+                moveClass = OCCUPIED;
+            }
+            else
+            {
+                moveClass = FREE;
+            }
+        }
+
+        int tieBreaker = ThreadLocalRandom.current().nextInt(16);
+        return (moveClass << 28) | (Math.min(distance, MAX_KEY_DISTANCE) << 6) | (tieBreaker << 2) | direction.ordinal();
+    }
+
+    // UPDATING ----------------------------
+
+    /*
+     * Breadth-first search from the first 'queueLength' squares in 'queue' (which must already have their
+     * distances), lowering the distance of every square that can be reached in fewer moves.
+     */
+    private void spreadFrom(int queueLength)
+    {
+        int length = queueLength;
+
+        for(int i = 0; i < length; i++)
+        {
+            length = relaxNeighbours(queue[i], length);
+        }
+    }
+
+    /*
+     * Like spreadFrom(), but the search also starts from each of 'seeds' (sorted by distance) once the search
+     * reaches that seed's distance. This visits squares in order of distance, so each square's distance is
+     * final when it's visited.
+     */
+    private void spreadFromSeeds(int numSeeds)
+    {
+        int head = 0;
+        int length = 0;
+        int nextSeed = 0;
+
+        while(head < length || nextSeed < numSeeds)
+        {
+            int square;
+
+            if(nextSeed == numSeeds || (head < length && getDistance(queue[head]) <= (int)(seeds[nextSeed] >>> 32)))
+            {
+                square = queue[head];
+                head++;
+            }
+            else
+            {
+                int seedDistance = (int)(seeds[nextSeed] >>> 32);
+                square = (int)seeds[nextSeed];
+                nextSeed++;
+
+                if(getDistance(square) <= seedDistance) // Already reached from a nearer square
+                {
+                    continue;
+                }
+                setDistance(square, seedDistance);
+            }
+
+            length = relaxNeighbours(square, length);
+        }
+    }
+
+    // Gives each neighbour of 'square' that can be reached in fewer moves through 'square' its new distance,
+    // and adds it to the queue. Returns the new queue length.
+    private int relaxNeighbours(int square, int queueLength)
+    {
+        int length = queueLength;
+        int nextDistance = getDistance(square) + 1;
+        int x = square % numCols;
+        int y = square / numCols;
+
+        for(int i = 0; i < Direction.COUNT; i++)
+        {
+            Direction direction = Direction.of(i);
+            int neighbour = neighbour(x, y, direction);
+
+            if(neighbour >= 0 && !walls[neighbour] && getDistance(neighbour) > nextDistance)
+            {
+                setDistance(neighbour, nextDistance);
+                queue = ensureCapacity(queue, length + 1);
+                queue[length] = neighbour;
+                length++;
+            }
+        }
+
+        return length;
+    }
+
+    // Adds the neighbours of 'square' that are one move further from the citadel than it to the queue.
+    // Returns the new queue length.
+    private int enqueueNextFurther(int square, int distance, int queueLength)
+    {
+        int length = queueLength;
+        int x = square % numCols;
+        int y = square / numCols;
+
+        for(int i = 0; i < Direction.COUNT; i++)
+        {
+            int neighbour = neighbour(x, y, Direction.of(i));
+
+            if(neighbour >= 0 && getDistance(neighbour) == distance + 1)
+            {
+                queue = ensureCapacity(queue, length + 1);
+                queue[length] = neighbour;
+                length++;
+            }
+        }
+
+        return length;
+    }
+
+    // Returns true if a neighbour of 'square' is one move nearer the citadel than 'distance'
+    private boolean hasNearerNeighbour(int square, int distance)
+    {
+        int x = square % numCols;
+        int y = square / numCols;
+
+        for(int i = 0; i < Direction.COUNT; i++)
+        {
+            int neighbour = neighbour(x, y, Direction.of(i));
+
+            if(neighbour >= 0 && getDistance(neighbour) == distance - 1)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns the smallest distance of the neighbours of 'square', or UNREACHABLE
+    private int nearestNeighbourDistance(int square)
+    {
+        int x = square % numCols;
+        int y = square / numCols;
+        int nearest = UNREACHABLE;
+
+        for(int i = 0; i < Direction.COUNT; i++)
+        {
+            int neighbour = neighbour(x, y, Direction.of(i));
+
+            if(neighbour >= 0)
+            {
+                nearest = Math.min(nearest, getDistance(neighbour));
+            }
+        }
+        return nearest;
+    }
+
+    // Returns the index of the square next to (x, y) in 'direction', or -1 if it's off the grid
+    private int neighbour(int x, int y, Direction direction)
+    {
+        int neighbourX = x + direction.dx();
+        int neighbourY = y + direction.dy();
+
+        if(neighbourX < 0 || neighbourX >= numCols || neighbourY < 0 || neighbourY >= numRows)
+        {
+            return -1;
+        }
+        return neighbourY * numCols + neighbourX;
+    }
+
+    private int getDistance(int square)
+    {
+        return (int)INTS.getOpaque(distances, square);
+    }
+
+    private void setDistance(int square, int distance)
+    {
+        INTS.setOpaque(distances, square, distance);
+    }
+
+    private static int[] ensureCapacity(int[] array, int capacity)
+    {
+        return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+    }
+
+    private static long[] ensureCapacity(long[] array, int capacity)
+    {
+        return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+    }
+}
@@ -0,0 +1,45 @@
+package dwhiteheadcode.com.github.robot_defender.entities.robot.moves;
+
+/*
+ * The distance to the citadel after moving in each direction, precomputed for every square of the grid.
+ *
+ * The citadel never moves, so the distance after a move is a pure function of the square and direction.
+ * Rather than storing four weights per square, this stores each square's own distance to the citadel, plus a
+ * one-square border around the grid (as moves off the edge of the grid are still weighted, and are then
+ * rejected by the GameEngine). The distance after moving from (x, y) in direction d is the distance of
+ * (x + d.dx(), y + d.dy()). Floats keep a 1000x1000 grid's table to about 4 MB.
+ *
+ * Immutable once built, so can be read by any thread.
+ */
+public class MoveTable
+{
+    private final int paddedCols; // The grid's width, plus the border on each side
+    private final float[] distances; // Indexed by (y + 1) * paddedCols + (x + 1)
+
+    public MoveTable(int numRows, int numCols, int citadelX, int citadelY)
+    {
+        this.paddedCols = numCols + 2;
+        this.distances = new float[paddedCols * (numRows + 2)];
+
+        for(int y = -1; y <= numRows; y++)
+        {
+            for(int x = -1; x <= numCols; x++)
+            {
+                distances[index(x, y)] = (float)Math.hypot(citadelX - x, citadelY - y);
+            }
+        }
+    }
+
+    /*
+     * Returns the distance to the citadel after moving from (x, y) (which must be in the grid) in 'direction'
+     */
+    public double distanceAfterMove(int x, int y, Direction direction)
+    {
+        return distances[ index(x + direction.dx(), y + direction.dy()) ];
+    }
+
+    private int index(int x, int y)
+    {
+        return (y + 1) * paddedCols + (x + 1);
+    }
+}
@@ -0,0 +1,10 @@
+package dwhiteheadcode.com.github.robot_defender.entities.robot.moves;
+
+/*
+ * The ways that robots can choose their moves. Used by GameEngineFactory to pick a MovementStrategy.
+ */
+public enum MovementMode
+{
+    STRAIGHT_LINE, // Robots head for the citadel in a straight line (weighted-randomly), walking into walls. See StraightLineStrategy
+    DISTANCE_FIELD // Robots follow the shortest path around walls and other robots. See DistanceFieldStrategy
+}
@@ -0,0 +1,46 @@
+package dwhiteheadcode.com.github.robot_defender.entities.robot.moves;
+
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+
+/*
+ * Decides the order in which a Robot tries its moves (see Robot.planMoves()).
+ * 
+ * One strategy is shared by all of a GameEngine's robots, so planMoves() may be called by many robot threads at
+ * once. It shouldn't allocate, as it's called on every robot turn.
+ * 
+ * The GameEngine tells the strategy when walls are placed or removed, for strategies that path around walls.
+ */
+public interface MovementStrategy
+{
+    /*
+     * Called by GameEngineFactory once the GameEngine has been created, before any robot plans a move.
+     */
+    void setGameEngine(GameEngine gameEngine);
+
+    /*
+     * Fills 'moveOrder' with every Direction, in the order a robot at (x, y) should try them.
+     * 
+     * Thread: Any robot thread
+     */
+    void planMoves(int x, int y, Direction[] moveOrder);
+
+    /*
+     * Called when a wall has been placed at (x, y), which didn't have a wall before.
+     * 
+     * Thread: Wall-spawn-consumer, while holding GameEngine's gameStateLock
+     */
+    default void wallPlaced(int x, int y)
+    {
+        // Not needed by default
+    }
+
+    /*
+     * Called when the wall at (x, y) has been destroyed.
+     * 
+     * Thread: Robot or wall-spawn-consumer thread, while holding GameEngine's gameStateLock
+     */
+    default void wallRemoved(int x, int y)
+    {
+        // Not needed by default
+    }
+}
@@ -0,0 +1,115 @@
+package dwhiteheadcode.com.github.robot_defender.entities.robot.moves;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+
+/*
+ * The original robot movement: robots head for the citadel in a straight line, choosing their moves 
+ * weighted-randomly by the straight-line distance to the citadel after each move. Walls are ignored, so 
+ * robots walk into them.
+ * 
+ * Distances come from a MoveTable, which is built once and never modified, so this doesn't need to be locked.
+ */
+public class StraightLineStrategy implements MovementStrategy
+{
+    private MoveTable moveTable;
+
+    @Override
+    public void setGameEngine(GameEngine gameEngine)
+    {
+        this.moveTable = new MoveTable(gameEngine.getNumRows(), gameEngine.getNumCols(), 
+            (int)gameEngine.getCitadel().x(), (int)gameEngine.getCitadel().y());
+    }
+
+    /*
+     * Sorts the possible moves (into moveOrder) based on weighted-randomness.
+     * Move weightings are the robot's distance from the citadel after making that move (from moveTable).
+     * 
+     * E.g.:
+     *      Consider the following possible moves, and their corresponding distances from the citadel:
+     *          UP:      5
+     *          DOWN:    10
+     *          LEFT:    3
+     *          RIGHT:   7
+     * 
+     *      On the first iteration, each move would have the following likelihoods of being "chosen"
+     *          UP:      5 / (5 + 10 + 3 + 7)
+     *          DOWN:    10 / (5 + 10 + 3 + 7)
+     *          LEFT:    3 / (5 + 10 + 3 + 7)
+     *          RIGHT:   7 / (5 + 10 + 3 + 7)
+     * 
+     *      After this iteration, the chosen move is added to the front of "orderedMoves", and is removed from "unorderedMoves"
+     *          Assuming the most likely move is chosen (this is the move that would put the robot the *furthest away* from the 
+     *          citadel out of all possible moves):
+     *              unorderedMoves = {UP, LEFT, RIGHT}  
+     *              orderedMoves = {DOWN}
+     * 
+     *      For the next iteration, the remaining moves have the following probabilities of being chosen:
+     *          UP:      5 / (5 + 3 + 7)
+     *          LEFT:    3 / (5 + 3 + 7)
+     *          RIGHT:   7 / (5 + 3 + 7)
+     * 
+     *      Assuming the most likely move is chosen:
+     *              unorderedMoves = {UP, LEFT}  
+     *              orderedMoves = {RIGHT, DOWN}
+     *              
+     *              Notice how "RIGHT", was placed in front of "DOWN" in the list.
+     *                  This ensures the moves with the smallest distance from the citadel are more likely to end up at the start of the list     
+     * 
+     * "orderedMoves" is moveOrder, filled from the back (so adding to the front of the ordered moves is just a 
+     * smaller index), and "unorderedMoves" is a list of Direction ordinals packed into an int (2 bits each, first in
+     * the lowest bits), so nothing is allocated.
+     */
+    @Override
+    public void planMoves(int x, int y, Direction[] moveOrder)
+    {
+        double totalDistance = 0;
+        int unorderedMoves = 0;
+
+        for(int i = 0; i < Direction.COUNT; i++)
+        {
+            totalDistance += moveTable.distanceAfterMove(x, y, Direction.of(i));
+            unorderedMoves |= i << (2 * i);
+        }
+
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+
+        // Each iteration (weighted) randomly selects one move from unorderedMoves, and adds it to the front of the ordered moves
+        for(int numUnordered = Direction.COUNT; numUnordered > 0; numUnordered--)
+        {
+            double randNum = rand.nextDouble() * (totalDistance - 1);
+            double count = 0;
+            int chosen = numUnordered - 1; // Only used if rounding means no move is found below
+
+            for(int i = 0; i < numUnordered; i++) // Find the unorderedMove with the corresponding weight
+            {
+                double weight = moveTable.distanceAfterMove(x, y, Direction.of( unorderedMove(unorderedMoves, i) ));
+                if( randNum < weight + count )
+                {
+                    chosen = i;
+                    break;
+                }
+
+                count += weight;
+            }
+
+            // Items chosen first end up at the back: items with larger weights are more likely to be chosen 
+            // first, so moves with the smallest distance from the citadel are more likely to end up at the front
+            int chosenMove = unorderedMove(unorderedMoves, chosen);
+            moveOrder[numUnordered - 1] = Direction.of(chosenMove);
+            totalDistance -= moveTable.distanceAfterMove(x, y, moveOrder[numUnordered - 1]);
+
+            // Remove the chosen move, keeping the rest in order
+            int before = unorderedMoves & ((1 << (2 * chosen)) - 1);
+            int after = unorderedMoves >>> (2 * (chosen + 1));
+            unorderedMoves = before | (after << (2 * chosen));
+        }
+    }
+
+    // Returns the i'th Direction ordinal in a packed list of ordinals (see planMoves())
+    private static int unorderedMove(int unorderedMoves, int i)
+    {
+        return (unorderedMoves >>> (2 * i)) & 0b11;
+    }
+}
@@ -0,0 +1,288 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.moves.MovementMode;
+import dwhiteheadcode.com.github.robot_defender.game_engine.scheduling.RobotExecutionMode;
+
+/*
+ * The settings used to create a GameEngine (see GameEngineFactory.instance(GameOutput, GameConfig)).
+ *
+ * Settings are read from key/value pairs, e.g. from a properties file or the command line:
+ *     rows=500
+ *     cols=500
+ *     maxWalls=200
+ *     executionMode=PARALLEL_TICK
+ *     movementMode=STRAIGHT_LINE
+ *     waveSize=1
+ *     spawnDelay=1500
+ * Any setting that isn't given keeps its default (see GameEngineFactory). On the command line, each setting is
+ * given as --key=value (see fromArgs()).
+ *
+ * Immutable, so can be passed between threads freely.
+ */
+public final class GameConfig
+{
+    // Setting keys
+    public static final String ROWS = "rows";
+    public static final String COLS = "cols";
+    public static final String MAX_WALLS = "maxWalls";
+    public static final String EXECUTION_MODE = "executionMode";
+    public static final String MOVEMENT_MODE = "movementMode";
+    public static final String WAVE_SIZE = "waveSize"; // Robots spawned in each wave
+    public static final String SPAWN_DELAY = "spawnDelay"; // Milliseconds between waves
+    public static final String CONFIG_FILE = "config"; // Command line only: a properties file of settings
+
+    private static final String ARG_PREFIX = "--";
+
+    public static final int MIN_GRID_SIZE = 3;
+    public static final int MAX_GRID_SIZE = 4096; // Keeps rows * cols well within an int
+    public static final int MAX_WAVE_SIZE = 100_000;
+
+    private final int numRows;
+    private final int numCols;
+    private final int maxWalls;
+    private final RobotExecutionMode executionMode;
+    private final MovementMode movementMode;
+    private final int waveSize;
+    private final int spawnDelayMillis;
+
+    public GameConfig(int numRows, int numCols, int maxWalls, RobotExecutionMode executionMode, MovementMode movementMode,
+        int waveSize, int spawnDelayMillis)
+    {
+        checkGridSize(ROWS, numRows);
+        checkGridSize(COLS, numCols);
+
+        if(maxWalls < 1)
+        {
+            throw new IllegalArgumentException("'" + MAX_WALLS + "' must be at least 1, but was " + maxWalls);
+        }
+
+        if(waveSize < 1 || waveSize > MAX_WAVE_SIZE)
+        {
+            throw new IllegalArgumentException("'" + WAVE_SIZE + "' must be between 1 and " + MAX_WAVE_SIZE + ", but was " + waveSize);
+        }
+
+        if(spawnDelayMillis < 1)
+        {
+            throw new IllegalArgumentException("'" + SPAWN_DELAY + "' must be at least 1, but was " + spawnDelayMillis);
+        }
+
+        if(executionMode == null || movementMode == null)
+        {
+            throw new IllegalArgumentException("A game config's modes can't be null.");
+        }
+
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.maxWalls = maxWalls;
+        this.executionMode = executionMode;
+        this.movementMode = movementMode;
+        this.waveSize = waveSize;
+        this.spawnDelayMillis = spawnDelayMillis;
+    }
+
+    /*
+     * Returns the default config (a 9x9 grid)
+     */
+    public static GameConfig defaults()
+    {
+        return new GameConfig(GameEngineFactory.NUM_ROWS_DEFAULT, GameEngineFactory.NUM_COLS_DEFAULT,
+            GameEngineFactory.MAX_WALLS_DEFAULT, GameEngineFactory.EXECUTION_MODE_DEFAULT,
+            GameEngineFactory.MOVEMENT_MODE_DEFAULT, GameEngineFactory.WAVE_SIZE_DEFAULT,
+            GameEngineFactory.SPAWN_DELAY_MILLIS_DEFAULT);
+    }
+
+    /*
+     * Returns the config given by command line arguments, each of the form --key=value, on top of the defaults.
+     * --config=<file> reads settings from a properties file first (see withFile()), and the other arguments
+     * override them.
+     *
+     * Throws IllegalArgumentException if an argument isn't of the form --key=value, or a setting isn't valid.
+     */
+    public static GameConfig fromArgs(List<String> args) throws IOException
+    {
+        Map<String, String> settings = new HashMap<>();
+        for(String arg : args)
+        {
+            int separator = arg.indexOf('=');
+            if(!arg.startsWith(ARG_PREFIX) || separator <= ARG_PREFIX.length())
+            {
+                throw new IllegalArgumentException("Expected a setting of the form --key=value, but was '" + arg + "'");
+            }
+
+            settings.put( arg.substring(ARG_PREFIX.length(), separator), arg.substring(separator + 1) );
+        }
+
+        GameConfig config = defaults();
+        String configFile = settings.remove(CONFIG_FILE);
+        if(configFile != null)
+        {
+            config = config.withFile( Path.of(configFile) );
+        }
+        return config.with(settings);
+    }
+
+    /*
+     * Returns a copy of this config, with the settings in 'settings' (see the class comment) replacing its own.
+     *
+     * Throws IllegalArgumentException if a key isn't a known setting, or a value isn't valid.
+     */
+    public GameConfig with(Map<String, String> settings)
+    {
+        int newRows = numRows;
+        int newCols = numCols;
+        int newMaxWalls = maxWalls;
+        RobotExecutionMode newExecutionMode = executionMode;
+        MovementMode newMovementMode = movementMode;
+        int newWaveSize = waveSize;
+        int newSpawnDelayMillis = spawnDelayMillis;
+
+        for(Map.Entry<String, String> setting : settings.entrySet())
+        {
+            String key = setting.getKey();
+            String value = setting.getValue().trim();
+
+            switch(key)
+            {
+                case ROWS:
+                    newRows = parseInt(key, value);
+                    break;
+
+                case COLS:
+                    newCols = parseInt(key, value);
+                    break;
+
+                case MAX_WALLS:
+                    newMaxWalls = parseInt(key, value);
+                    break;
+
+                case EXECUTION_MODE:
+                    newExecutionMode = parseEnum(RobotExecutionMode.class, key, value);
+                    break;
+
+                case MOVEMENT_MODE:
+                    newMovementMode = parseEnum(MovementMode.class, key, value);
+                    break;
+
+                case WAVE_SIZE:
+                    newWaveSize = parseInt(key, value);
+                    break;
+
+                case SPAWN_DELAY:
+                    newSpawnDelayMillis = parseInt(key, value);
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("Unknown game setting '" + key + "'");
+            }
+        }
+
+        return new GameConfig(newRows, newCols, newMaxWalls, newExecutionMode, newMovementMode, newWaveSize,
+            newSpawnDelayMillis);
+    }
+
+    /*
+     * Returns a copy of this config, with the settings in the properties file at 'file' replacing its own.
+     */
+    public GameConfig withFile(Path file) throws IOException
+    {
+        Properties properties = new Properties();
+        try(Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+        {
+            properties.load(reader);
+        }
+
+        Map<String, String> settings = new HashMap<>();
+        for(String key : properties.stringPropertyNames())
+        {
+            settings.put( key, properties.getProperty(key) );
+        }
+
+        return with(settings);
+    }
+
+    public int getNumRows()
+    {
+        return numRows;
+    }
+
+    public int getNumCols()
+    {
+        return numCols;
+    }
+
+    public int getMaxWalls()
+    {
+        return maxWalls;
+    }
+
+    public RobotExecutionMode getExecutionMode()
+    {
+        return executionMode;
+    }
+
+    public MovementMode getMovementMode()
+    {
+        return movementMode;
+    }
+
+    public int getWaveSize()
+    {
+        return waveSize;
+    }
+
+    public int getSpawnDelayMillis()
+    {
+        return spawnDelayMillis;
+    }
+
+    @Override
+    public String toString()
+    {
+        return numCols + "x" + numRows + " grid, " + maxWalls + " walls, " + executionMode + ", " + movementMode + ", "
+            + waveSize + " robot(s) every " + spawnDelayMillis + "ms";
+    }
+
+    private static void checkGridSize(String key, int size)
+    {
+        if(size < MIN_GRID_SIZE || size > MAX_GRID_SIZE)
+        {
+            throw new IllegalArgumentException("'" + key + "' must be between " + MIN_GRID_SIZE + " and "
+                + MAX_GRID_SIZE + ", but was " + size);
+        }
+    }
+
+    private static int parseInt(String key, String value)
+    {
+        try
+        {
+            return Integer.parseInt(value);
+        }
+        catch(NumberFormatException e)
+        {
+            throw new IllegalArgumentException("'" + key + "' must be a whole number, but was '" + value + "'", e);
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String key, String value)
+    {
+        try
+        {
+            return Enum.valueOf( type, value.toUpperCase(Locale.ROOT) );
+        }
+        catch(IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException("Unknown " + key + " '" + value + "'", e);
+        }
+    }
+}
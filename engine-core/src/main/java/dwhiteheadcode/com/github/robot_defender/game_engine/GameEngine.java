@@ -0,0 +1,1396 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.*;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.moves.Direction;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.moves.MovementStrategy;
+import dwhiteheadcode.com.github.robot_defender.game_engine.components.FortressWallSpawner;
+import dwhiteheadcode.com.github.robot_defender.game_engine.components.RobotSpawner;
+import dwhiteheadcode.com.github.robot_defender.game_engine.components.RobotTable;
+import dwhiteheadcode.com.github.robot_defender.game_engine.components.ScoreCalculator;
+import dwhiteheadcode.com.github.robot_defender.game_engine.components.SpawnZones;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.GameOutput;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.GameSound;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.LogEvent;
+import dwhiteheadcode.com.github.robot_defender.game_engine.scheduling.RobotScheduler;
+import dwhiteheadcode.com.github.robot_defender.game_engine.snapshot.SnapshotExchange;
+import dwhiteheadcode.com.github.robot_defender.game_engine.snapshot.WorldSnapshot;
+import dwhiteheadcode.com.github.robot_defender.entities.fortress_wall.*;
+import dwhiteheadcode.com.github.robot_defender.misc.*;
+
+
+public class GameEngine
+{
+    // CONSTANTS
+    private static final int MIN_NUM_ROWS = 3;
+    private static final int MIN_NUM_COLS = 3;
+    private static final Duration SNAPSHOT_INTERVAL = Duration.ofMillis(16); // Snapshots are published at most ~60 times per second
+    private static final int ROBOT_QUEUE_CAPACITY = 5; // The number of waves robotSpawnBlockingQueue can hold
+
+
+    // OUTPUT (UI, or headless)
+    private GameOutput output;
+
+    // GAME ENGINE THREADS
+    private volatile Thread robotSpawnProducerThread;
+    private volatile Thread robotSpawnConsumerThread;
+    private volatile Thread wallSpawnConsumerThread;  
+    private volatile Thread snapshotPublisherThread;
+
+    // SPAWNERS
+    private RobotSpawner robotSpawner;
+    private FortressWallSpawner wallSpawner;
+
+    // ROBOT SCHEDULER (runs each robot's movement logic)
+    private RobotScheduler robotScheduler;
+
+    // BLOCKING QUEUE
+    private final BlockingQueue<List<Robot>> robotSpawnBlockingQueue = new ArrayBlockingQueue<>(ROBOT_QUEUE_CAPACITY); // Whole waves. robot-spawn-producer -> robot-spawn-consumer
+    private BlockingQueue<FortressWall> wallSpawnBlockingQueue = new ArrayBlockingQueue<>(10); // wall-spawn-timer -> wall-spawn-consumer
+
+    // GAME STATE INFO - Considered to be one resource. Locked with gameStateLock; unless otherwise specified
+    private final Grid grid; // Robots claim and free squares with compare-and-set, without a lock. Walls are locked with gameStateLock
+    private final RobotTable robots; // All active robots, by slot. Also locked with entityListLock (positions and states are read without locking)
+    private List<FortressWall> placedWalls = new ArrayList<>(); // A list of all walls that have been placed in the grid by the WallSpawnConsumer. Also locked with entityListLock
+
+    private ScoreCalculator score; // Handles its own synchronisation (without locking)
+
+    private final LongAdder movesCompleted = new LongAdder(); // Doesn't need to be locked
+    private final LongAdder moveRequests = new LongAdder(); // Requests that reached the engine (see requestMove() and occupyIfFree())
+    private final LongAdder movesRejected = new LongAdder();
+
+    private final LongAdder spawnWaits = new LongAdder(); // Times robot-spawn-consumer has waited for a free spawn square
+
+    private MoveListener moveListener = null; // Optional (see setMoveListener()). Set before any robot starts, so doesn't need to be locked
+
+    // MONITORING - Registered over JMX while the engine is running (see start() and stop())
+    private GameEngineMetrics metrics;
+
+    // SNAPSHOTS (for the renderer) - Don't need to be locked
+    private final SnapshotExchange snapshots = new SnapshotExchange();
+    private final AtomicBoolean arenaDirty = new AtomicBoolean(false); // Set when robots or walls change, cleared when a snapshot is published
+
+    // Can't be modified, so don't need to be locked
+    private final Vector2d citadel; 
+    private final MovementStrategy movementStrategy; // How robots plan their moves. Told about walls while holding gameStateLock
+    private final int numRows; 
+    private final int numCols; 
+    private final int maxWalls;
+    private final SpawnZones spawnZones; // Where robots spawn, in each corner of the grid. Only claimed from by robot-spawn-consumer
+
+    // LOCKS
+    // A ReentrantLock (rather than synchronized) is used so that robots running on virtual threads don't pin their 
+    // carrier thread while waiting for, or holding, the lock.
+    private final ReentrantLock gameStateLock = new ReentrantLock(); // Used to lock GAME STATE INFO variables, unless otherwise specified
+    private final Condition spawnSquareFreed = gameStateLock.newCondition(); // Signalled when a spawn zone square is freed, if robot-spawn-consumer is waiting
+
+    // Set by robot-spawn-consumer while it waits for a free spawn square, so robots only lock gameStateLock (to 
+    // signal spawnSquareFreed) when it's needed. Both sides write then read volatile state (this flag and the grid's 
+    // robot IDs), so either the consumer sees the freed square, or the robot sees the flag.
+    private volatile boolean spawnWaiting = false;
+
+    // Lets the UI read 'robots' and 'placedWalls' without waiting for gameStateLock (which robots hold while they move).
+    // Writers hold gameStateLock, and also take the write lock while modifying either collection. Readers only use this 
+    // lock: counts are read optimistically (retrying with the read lock if a write happened), and collections are copied 
+    // with the read lock. This isn't reentrant, so it's only held around the modification itself.
+    private final StampedLock entityListLock = new StampedLock();
+   
+
+    //CONSTRUCTOR
+    public GameEngine(GameOutput output, int numRows, int numCols, int maxWalls, RobotSpawner robotSpawner, 
+        FortressWallSpawner wallSpawner, ScoreCalculator score, RobotScheduler robotScheduler, MovementStrategy movementStrategy)
+    {
+        if(numRows < MIN_NUM_ROWS)
+        {
+            throw new IllegalArgumentException("GameEngine only supports grids with at least 3 rows.");
+        }
+
+        if(numCols < MIN_NUM_COLS)
+        {
+            throw new IllegalArgumentException("GameEngine only supports grids with at least 3 columns.");
+        }
+
+        this.output = output;
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.maxWalls = maxWalls;
+        this.robotSpawner = robotSpawner;
+        this.wallSpawner = wallSpawner;
+        this.score = score;
+        this.robotScheduler = robotScheduler;
+        this.movementStrategy = movementStrategy;
+        this.grid = new Grid(numRows, numCols);
+        this.robots = new RobotTable(numRows * numCols); // Each robot occupies a square, so there can't be more robots than squares
+
+        //Set the citadel in the middle square. If even rows, favour row under middle; if even cols, favour col right of middle.
+        int middleRow = (numRows / 2);
+        int middleCol = (numCols / 2);
+        this.grid.setCitadel(middleCol, middleRow, true);
+        this.citadel = new Vector2d(middleCol, middleRow);
+
+        this.spawnZones = new SpawnZones(this.grid, robotSpawner.getWaveSize()); // Each wave fits in the spawn zones
+        this.grid.setOccupancyListener(this.spawnZones); // Keeps the zones' mask of full corners up to date
+    }
+
+    /*
+     * Starts the threads necessary for the game engine to function.
+     * 
+     * This includes:
+     *     - robotSpawnConsumerThread
+     *     - robotSpawnProducerThread
+     *     - wallSpawnConsumerThread
+     *     - snapshotPublisherThread
+     * 
+     * Note: robotSpawnConsumerThread starts each robot using robotScheduler. The wallSpawner runs its own 
+     * timer thread, which releases requested walls to wallSpawnConsumerThread. Also starts the score's game clock,
+     * and registers the engine's metrics over JMX (see GameEngineMetrics).
+     */
+    public void start()
+    {
+        if(robotSpawnProducerThread != null || robotSpawnConsumerThread != null || wallSpawnConsumerThread != null 
+            || snapshotPublisherThread != null)
+        {
+            throw new IllegalStateException("Can't start a GameEngine that is already running.");
+        }
+
+        // Create robot producer and consumer
+        robotSpawnConsumerThread = new Thread( robotSpawnConsumerRunnable(), "robot-spawn-consumer" );
+        robotSpawnProducerThread = new Thread( this.robotSpawner, "robot-spawn-producer" );
+        
+        // Create wall consumer thread
+        wallSpawnConsumerThread = new Thread( wallSpawnConsumerRunnable(), "wall-spawn-consumer" );
+
+        // Create snapshot publisher thread
+        snapshotPublisherThread = new Thread( snapshotPublisherRunnable(), "snapshot-publisher" );
+
+        // Make the engine's metrics visible to JMX clients (e.g. JConsole)
+        metrics = new GameEngineMetrics(this, output, robotScheduler);
+        metrics.register();
+
+        // Start the game clock, then all threads
+        score.start();
+        robotSpawnConsumerThread.start();
+        robotSpawnProducerThread.start();
+        wallSpawnConsumerThread.start();
+        wallSpawner.start();
+        snapshotPublisherThread.start();
+    }
+    
+    /*
+     * Interrupts all actively running Threads. Shuts down the RobotScheduler used for Robots (once robot-spawn-consumer 
+     * has finished, so that no robot is started after it's shut down). Unregisters the engine's metrics.
+     * 
+     * Note: This does not impact the game state in any way (such as removing robots from the grid), 
+     * as it is assumed that this GameEngine won't be used again. This has the added benefit of not removing robots from the screen after a gameover(),
+     * allowing the player to see where robots were at the time of the gameover. 
+     */
+    public void stop()
+    {
+        if(robotSpawnConsumerThread == null || robotSpawnProducerThread == null || wallSpawnConsumerThread == null 
+            || snapshotPublisherThread == null)
+        {
+            throw new IllegalStateException("Can't stop a GameEngine that hasn't started.");
+        }
+
+        // Stops spawning robots first. robot-spawn-consumer is waited for, as it may be starting a wave of robots, 
+        // and the robotScheduler won't start any robot after it has been shut down.
+        robotSpawnProducerThread.interrupt();
+        robotSpawnConsumerThread.interrupt();
+        try
+        {
+            robotSpawnConsumerThread.join();
+        }
+        catch(InterruptedException iE)
+        {
+            Thread.currentThread().interrupt(); // Keep stopping, but let the caller know it was interrupted
+        }
+
+        // Stops all Robots, and the passive score
+        robotScheduler.shutdown();
+        score.stop();
+
+        // Interrupts the other GameEngine threads
+        wallSpawnConsumerThread.interrupt();
+        wallSpawner.stop();
+        snapshotPublisherThread.interrupt();
+
+        metrics.unregister();
+    }
+ 
+    
+    /*
+     * Returns a runnable containing the logic for the robot spawn consumer.
+     * 
+     * This Runnable represents an "infinite" (interruptible) loop that takes the next wave of robots from 
+     * robotSpawnBlockingQueue whenever one is available (see RobotSpawner). The wave's robots are placed at 
+     * random, available squares in the corners' spawn zones, all in one critical section (see placeRobots()).
+     * If no spawn square is available (not occupied by another robot), it will await() spawnSquareFreed,
+     * which is only signalled when a robot leaves (or is destroyed in) a spawn zone (see spawnSquareVacated()).
+     * 
+     * After placing robots, this Runnable does the following:
+     *     - Starts the robots using robotScheduler
+     *     - Updates the UI (once for all of the robots)
+     */
+    private Runnable robotSpawnConsumerRunnable()
+    {
+        return () -> 
+        {
+            Random rand = new Random();
+            List<Robot> placedRobots = new ArrayList<>(); // The robots placed by placeRobots(), to be started
+            List<LogEvent> wallHits = new ArrayList<>(); // The robots placeRobots() destroyed, as they spawned on walls
+
+            try
+            {
+                while(true)
+                {
+                    List<Robot> wave = robotSpawnBlockingQueue.take();
+
+                    // The whole wave is normally placed in one critical section (the spawn zones are big enough for a 
+                    // wave). Only if robots from earlier waves are still in the zones, and they fill up part way through 
+                    // this wave, are the robots placed so far started (so they can move out of the way) before waiting 
+                    // for the rest.
+                    int numPlaced = 0;
+                    while(numPlaced < wave.size())
+                    {
+                        numPlaced = placeRobots(wave, numPlaced, placedRobots, wallHits, rand);
+
+                        for(LogEvent hitEvent : wallHits)
+                        {
+                            wallHit(hitEvent);
+                        }
+                        wallHits.clear();
+
+                        //Start the robots (robotScheduler keeps track of them, so they can be stopped later)
+                        for(Robot robot : placedRobots)
+                        {
+                            robotScheduler.start(robot);
+                        }
+                        placedRobots.clear();
+
+                        arenaChanged(); 
+                    }
+                }  
+            }
+            catch(InterruptedException iE)
+            {
+                // Nothing needs to be done here. 
+                // If the thread is interrupted, we don't need to do anything with 
+                // the rest of the queued robots
+            }
+
+        };
+    }
+
+    /*
+     * Places the robots in 'wave' (from index 'first') at free squares in the spawn zones, while holding 
+     * gameStateLock once for all of them (see spawnRobot()). Robots that should be started are added to 
+     * 'placedRobots'. Robots that spawned on a wall (and were destroyed) are added to 'wallHits', to be passed 
+     * to wallHit() once gameStateLock has been released.
+     * 
+     * Stops when the spawn zones are full, and returns the index of the first robot that wasn't placed. Only 
+     * waits for a spawn square to be freed if no robot could be placed.
+     * 
+     * Thread: Robot-spawn-consumer
+     */
+    private int placeRobots(List<Robot> wave, int first, List<Robot> placedRobots, List<LogEvent> wallHits,
+        Random rand) throws InterruptedException
+    {
+        int next = first;
+
+        gameStateLock.lock();
+        try
+        {
+            while(next < wave.size())
+            {
+                Robot robot = wave.get(next);
+                Location spawnLocation = spawnZones.claim(robot, rand);
+
+                if(spawnLocation == null)
+                {
+                    if(next > first)
+                    {
+                        break; // Start the robots placed so far, which will move out of the spawn zones
+                    }
+
+                    awaitSpawnSquare();
+                    continue;
+                }
+
+                if(spawnRobot(robot, spawnLocation)) // False if the robot spawned on a wall and was destroyed
+                {
+                    placedRobots.add(robot);
+                }
+                else
+                {
+                    wallHits.add( LogEvent.robotHitWall(robot.getId(), spawnLocation.getX(), spawnLocation.getY()) );
+                }
+                next++;
+            }
+        }
+        finally
+        {
+            gameStateLock.unlock();
+        }
+
+        return next;
+    }
+
+    /*
+     * Releases gameStateLock until a spawn square is freed. The spawn zones are checked again after setting 
+     * spawnWaiting, as a robot that left before then won't signal.
+     * 
+     * Must be called with gameStateLock held.
+     */
+    private void awaitSpawnSquare() throws InterruptedException
+    {
+        spawnWaiting = true;
+        try
+        {
+            if(!spawnZones.hasFreeSquare())
+            {
+                spawnWaits.increment();
+                spawnSquareFreed.await();
+            }
+        }
+        finally
+        {
+            spawnWaiting = false;
+        }
+    }
+
+    /*
+     * Called after a robot has left (or been removed from) the square (x, y). If it's in a spawn zone, and 
+     * robot-spawn-consumer is waiting for a free spawn square, wakes it up. Otherwise, doesn't lock.
+     * 
+     * Thread: Any
+     */
+    private void spawnSquareVacated(int x, int y)
+    {
+        if(!spawnWaiting || !spawnZones.contains(x, y))
+        {
+            return;
+        }
+
+        gameStateLock.lock();
+        try
+        {
+            spawnSquareFreed.signal(); // robot-spawn-consumer is the only waiter
+        }
+        finally
+        {
+            gameStateLock.unlock();
+        }
+    }
+
+    /*
+     * Places a robot at 'location' (which the robot must already occupy, see Location.tryOccupy()), by doing 
+     * the following:
+     *     - Adds the Robot to 'robots', at the Location's coordinates, and tells the Robot its slot
+     *     - Displays a message in the on screen text log.
+     *     - Checks if there is a wall on the spawn point. If so:
+     *            - Damages the wall (which destroys it if already damaged)
+     *            - Destroys the Robot
+     * 
+     * Returns false if the robot was destroyed (as it spawned on a wall), or true if it should be started. If 
+     * it was destroyed, the caller must call wallHit() once it has released gameStateLock.
+     * 
+     * Must be called with gameStateLock held.
+     * 
+     * Thread: Robot-spawn-consumer, or the caller of placeRobot()
+     */
+    private boolean spawnRobot(Robot robot, Location location)
+    {
+        // Add the robot to the table of all robots
+        long stamp = entityListLock.writeLock();
+        try
+        {
+            robot.setSlot( robots.add(robot, location.getX(), location.getY()) );
+        }
+        finally
+        {
+            entityListLock.unlockWrite(stamp);
+        }
+
+        // Log robot spawn on screen
+        LogEvent spawnEvent = LogEvent.robotSpawned(robot.getId(), location.getX(), location.getY());
+        output.log(spawnEvent);
+                                  
+        // If there is a wall on the spawn point, damage it. 
+        FortressWall wallOnSpawnPoint = location.getWall();
+        if(wallOnSpawnPoint != null)
+        {
+            robotHitWall(robot, wallOnSpawnPoint);
+            return false;
+        }
+
+        return true;
+    }
+
+    /*
+     * Places a robot directly at (x, y), and starts it. This bypasses robotSpawnBlockingQueue (and the 
+     * choice of corner), and is intended for setting up scenarios with many robots (e.g. benchmarks).
+     * 
+     * Returns false (without placing the robot) if (x, y) is out of bounds, or is already occupied by a robot.
+     * 
+     * Thread: Any
+     */
+    public boolean placeRobot(Robot robot, int x, int y)
+    {
+        if(x < 0 || x >= numCols || y < 0 || y >= numRows)
+        {
+            return false;
+        }
+
+        boolean startRobot;
+
+        gameStateLock.lock();
+        try
+        {
+            Location location = grid.location(x, y);
+
+            if(!location.tryOccupy(robot))
+            {
+                return false;
+            }
+
+            startRobot = spawnRobot(robot, location);
+        }
+        finally
+        {
+            gameStateLock.unlock();
+        }
+
+        if(startRobot)
+        {
+            robotScheduler.start(robot);
+        }
+        else
+        {
+            wallHit( LogEvent.robotHitWall(robot.getId(), x, y) );
+        }
+
+        arenaChanged();
+        return true;
+    }
+
+
+    /**
+     * Returns a Runnable containing the logic for the wall spawn consumer.
+     * 
+     * This Runnable represents an "infinite" (interruptible) loop that takes a new wall from 
+     * wallSpawnBlockingQueue whenever it is available, then places it in the location specified 
+     * by the wall's coordinates.
+     * 
+     * When placing a wall, this Runnable does the following:
+     *     - Updates the on screen "Queued Walls" text
+     *     - Places the new wall in its Location, replacing any existing wall (with Location.replaceWall())
+     *     - Checks the Location for a robot again (see below). If one has arrived, the previous wall is put back.
+     *     - Stores a reference to the wall in 'placedWalls'
+     *     - Displays a message in the on screen text log.
+     *     - Updates the UI
+     */
+    private Runnable wallSpawnConsumerRunnable()
+    {
+        return () -> {
+            try
+            {
+                while(true)
+                {
+                    FortressWall newWall = wallSpawnBlockingQueue.take();
+
+                    updateQueuedWallsText();
+                    updateAvailableWallsText();
+                    
+                    Vector2d wallPos = newWall.getCoordinates();
+
+                    int wallX = (int)wallPos.x(); // Note: Disregards fractional position. Shouldn't matter if called appropriately
+                    int wallY = (int)wallPos.y(); // Same as above
+
+                    gameStateLock.lock();
+                    try
+                    {
+                        Location location = grid.location(wallX, wallY);
+
+ 
+                        // Ignores the build command if there is a robot at this location
+                        if(!location.hasRobot())
+                        {
+                            // Robots claim Locations without gameStateLock, so a robot may move here while the wall is 
+                            // placed. The wall is put down first, then the Location is checked again. A robot that claimed 
+                            // the Location before this point is seen here (and the wall is taken back). A robot that claims 
+                            // it after this point will see the wall when it completes its move (see moveCompleted()).
+                            // Note: If a wall already exists, this assumes a new wall can be placed to "refresh" it (e.g. if it was damamged)
+                            FortressWall previousWall = location.replaceWall(newWall);
+
+                            if(location.hasRobot())
+                            {
+                                location.replaceWall(previousWall); // A robot arrived, so take the wall back
+                            }
+                            else
+                            {
+                                long stamp = entityListLock.writeLock();
+                                try
+                                {
+                                    // If this wall replaced an existing wall, remove the old wall
+                                    if(previousWall != null)
+                                    {
+                                        placedWalls.remove(previousWall);
+                                    }
+
+                                    placedWalls.add(newWall); 
+                                }
+                                finally
+                                {
+                                    entityListLock.unlockWrite(stamp);
+                                }
+
+                                if(previousWall == null) // Refreshing a wall doesn't change any paths
+                                {
+                                    movementStrategy.wallPlaced(wallX, wallY);
+                                }
+
+                                output.playSound(GameSound.WALL_PLACEMENT);
+
+                                LogEvent wallEvent = LogEvent.wallSpawned(wallX, wallY);
+                                output.log(wallEvent);
+                            }
+                        }                   
+                    }
+                    finally
+                    {
+                        gameStateLock.unlock();
+                    }
+
+                    updateQueuedWallsText();
+                    updateAvailableWallsText();
+                    arenaChanged();
+                }
+            }
+            catch(InterruptedException iE)
+            {
+                // Nothing needs to be done here. 
+                // If the thread is interrupted, we don't need to do anything with 
+                // the rest of the queued walls
+            }
+        };
+    }    
+
+
+
+    /*
+     * Adds a new wave of robots to the blocking queue, for consumption by the robot-spawn-consumer 
+     * thread. The wave is handed over as a whole, so the consumer always places whole waves. The 
+     * consumer takes ownership of 'wave', so it mustn't be modified after this is called.
+     * 
+     * Thread: Robot-Spawn-Producer
+     */
+    public void putNewWave(List<Robot> wave) throws InterruptedException
+    {
+        this.robotSpawnBlockingQueue.put(wave);
+    }
+   
+
+    /*
+     * Allows a robot to request to make a move
+     * 
+     * If the move is valid, this returns true, otherwise returns false. A move is valid if:
+     *     - It does not take the robot out of bounds
+     *     - The destination Location is not already occupied by a robot
+     * 
+     * If the move is valid, the robot must call moveCompleted() when it finishes its move (so the 
+     * GameEngine can perform additional processing, such as collision detection).
+     * 
+     * The destination is claimed with a single compare-and-set on 'grid', so this doesn't 
+     * lock gameStateLock.
+     * 
+     * Thread: Robot thread(s)
+     */
+    public boolean requestMove(Robot robot, Direction move)
+    {
+        int startX = robot.getX();
+        int startY = robot.getY();
+
+        int endX = startX + move.dx();
+        int endY = startY + move.dy();
+
+        // Discard moves that would put the robot out of bounds
+        if(endX < 0 || endX >= numCols || endY < 0 || endY >= numRows)
+        {
+            return moveRequested(robot, false);
+        }
+
+        // Quick check of the start square's neighbour flags, which avoids touching the end square if it's 
+        // (very likely) occupied
+        if(grid.isNeighbourOccupied(startX, startY, move.dx(), move.dy()))
+        {
+            return moveRequested(robot, false);
+        }
+
+        // Occupy the end location (fails if it's already occupied)
+        return moveRequested( robot, grid.tryOccupy(endX, endY, robot.getId()) );
+    }
+
+    /*
+     * Occupies the Location (x, y) with 'robot', if no other robot is there. Returns true if the 
+     * Location was occupied, or false if it already had a robot.
+     * 
+     * Unlike requestMove(), this doesn't check the move is a single step. The caller is responsible for 
+     * calling moveCompleted() when the robot arrives.
+     * 
+     * Thread: Robot scheduler
+     */
+    public boolean occupyIfFree(Robot robot, int x, int y)
+    {
+        return moveRequested( robot, grid.tryOccupy(x, y, robot.getId()) );
+    }
+
+    /*
+     * Counts a move request (see getMoveRequests() and getMovesRejected()), and tells the move listener (if 
+     * any) about approved moves. Returns 'approved'.
+     * 
+     * Thread: Robot thread(s)
+     */
+    private boolean moveRequested(Robot robot, boolean approved)
+    {
+        moveRequests.increment();
+
+        if(approved)
+        {
+            if(moveListener != null)
+            {
+                moveListener.moveApproved(robot);
+            }
+        }
+        else
+        {
+            movesRejected.increment();
+        }
+
+        return approved;
+    }
+
+    /*
+     * Runs 'action' while holding gameStateLock. This allows a robot scheduler to update the game 
+     * state for many robots at once, without locking for each one.
+     * 
+     * Thread: Robot scheduler
+     */
+    public void runLocked(Runnable action)
+    {
+        gameStateLock.lock();
+        try
+        {
+            action.run();
+        }
+        finally
+        {
+            gameStateLock.unlock();
+        }
+    }
+
+    /*
+     * Records that robots have started or finished moves. Used by robot schedulers that update 
+     * robots' motions directly (rather than through Robot.act()).
+     * 
+     * Thread: Robot scheduler
+     */
+    public void robotsMoved()
+    {
+        arenaChanged();
+    }
+
+    /*
+     * Records that the robots or walls have changed, and wakes the snapshot publisher. A new snapshot will
+     * be published (and the output told to update) within SNAPSHOT_INTERVAL. Many changes within that time 
+     * result in one snapshot.
+     * 
+     * Only the first change since the last snapshot wakes the publisher; later ones just find the flag set.
+     * 
+     * Thread: Any
+     */
+    public void arenaChanged()
+    {
+        if(!arenaDirty.getAndSet(true))
+        {
+            Thread publisher = snapshotPublisherThread;
+            if(publisher != null)
+            {
+                LockSupport.unpark(publisher);
+            }
+        }
+    }
+
+    /*
+     * Returns a Runnable containing the logic for the snapshot publisher.
+     * 
+     * This Runnable represents an "infinite" (interruptible) loop that blocks until the robots or walls 
+     * change (see arenaChanged()), then publishes a snapshot of them. It then waits SNAPSHOT_INTERVAL 
+     * before the next one, so snapshots are published at most once per SNAPSHOT_INTERVAL, and not at all 
+     * while the arena is idle. After publishing, the output is told to update (it can then read the 
+     * snapshot with getSnapshot()).
+     */
+    private Runnable snapshotPublisherRunnable()
+    {
+        return () -> {
+            try
+            {
+                while(true)
+                {
+                    awaitArenaChanged();
+                    publishSnapshotIfChanged();
+                    Thread.sleep(SNAPSHOT_INTERVAL.toMillis()); // Changes made meanwhile are published together
+                }
+            }
+            catch(InterruptedException iE)
+            {
+                // The engine has stopped. Publish the final state (e.g. where robots were at the game over)
+                publishSnapshotIfChanged();
+            }
+        };
+    }
+
+    /*
+     * Blocks until the arena has changed since the last snapshot. arenaChanged() unparks this thread, and 
+     * the flag is checked before each park(), so a change made before parking isn't missed.
+     * 
+     * Thread: Snapshot-publisher
+     */
+    private void awaitArenaChanged() throws InterruptedException
+    {
+        while(!arenaDirty.get())
+        {
+            LockSupport.park(this);
+            if(Thread.interrupted())
+            {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    /*
+     * Fills and publishes a snapshot, if the arena has changed since the last one.
+     * 
+     * Only waits for robots or walls to be added or removed (not for robots' moves).
+     * 
+     * Thread: Snapshot-publisher
+     */
+    private void publishSnapshotIfChanged()
+    {
+        if(!arenaDirty.getAndSet(false))
+        {
+            return;
+        }
+
+        WorldSnapshot snapshot = snapshots.beginWrite();
+
+        long stamp = entityListLock.readLock();
+        try
+        {
+            int slotLimit = robots.getSlotLimit();
+            for(int slot = 0; slot < slotLimit; slot++)
+            {
+                byte state = robots.getState(slot);
+                if(state == RobotTable.FREE)
+                {
+                    continue;
+                }
+
+                // Idle robots are read from the table alone. A moving robot's motion is read first: a robot sets its 
+                // position before clearing its motion, so if the move has just finished, the new position is seen.
+                RobotMotion motion = state == RobotTable.MOVING ? robots.getRobot(slot).getMotion() : null;
+
+                if(motion == null)
+                {
+                    int position = robots.getPackedPosition(slot);
+                    snapshot.addRobot( slot, robots.getId(slot), RobotTable.unpackX(position), RobotTable.unpackY(position) );
+                }
+                else
+                {
+                    snapshot.addMovingRobot( slot, robots.getId(slot), motion );
+                }
+            }
+
+            for(FortressWall w : placedWalls)
+            {
+                snapshot.addWall( (int)w.getCoordinates().x(), (int)w.getCoordinates().y(), w.isDamaged() );
+            }
+        }
+        finally
+        {
+            entityListLock.unlockRead(stamp);
+        }
+
+        snapshot.indexTiles(numCols, numRows);
+        snapshots.publish();
+        output.updateArenaUi();
+    }
+
+    /*
+     * Returns the most recently published snapshot of the robots and walls. This never blocks.
+     * 
+     * The snapshot remains valid until the next call, so only one thread may call this.
+     * 
+     * Thread: UI
+     */
+    public WorldSnapshot getSnapshot()
+    {
+        return snapshots.read();
+    }
+
+    /*
+     * Runs when a robot finishes its move. 
+     * 
+     * - Frees the Location (startX, startY), with a single compare-and-set.
+     * - Wakes robot-spawn-consumer, if it's waiting for (startX, startY) to be free (see spawnSquareVacated())
+     * - Checks for Wall collisions at (endX, endY)
+     * - Checks for Citadel collision at (endX, endY)
+     * 
+     * gameStateLock is only locked if the end Location has a wall or the citadel, or robot-spawn-consumer 
+     * must be signalled. Most moves don't lock at all. 
+     * 
+     * Thread: Robot thread(s)
+     */
+    public void moveCompleted(Robot robot, int startX, int startY, int endX, int endY)
+    {
+        Location endLocation = grid.location(endX, endY);
+
+        if(moveListener != null)
+        {
+            moveListener.moveCompleted(robot);
+        }
+
+        // Free the start location
+        grid.vacate(startX, startY, robot.getId());
+        movesCompleted.increment();
+        spawnSquareVacated(startX, startY);
+
+        // Walls are only placed on unoccupied Locations, and this robot has occupied the end Location since 
+        // its move was approved. So if no wall is seen here, no wall can be placed until the robot leaves 
+        // (see wallSpawnConsumerRunnable()).
+        if(!endLocation.hasWall() && !endLocation.hasCitadel())
+        {
+            return;
+        }
+
+        boolean hitWall = false;
+
+        gameStateLock.lock();
+        try
+        {
+            //Check for wall collision (checked again, as the wall may have been taken back)
+            FortressWall wall = endLocation.getWall();
+            if( wall != null)
+            {
+                robotHitWall(robot, wall);
+                hitWall = true;
+            }
+
+            // Check for game over
+            if(endLocation.hasCitadel())
+            {
+                gameOver();
+            }
+        }
+        finally
+        {
+            gameStateLock.unlock();
+        }
+
+        if(hitWall)
+        {
+            wallHit( LogEvent.robotHitWall(robot.getId(), endX, endY) );
+        }
+    }
+
+    /*
+     * Tells 'output' to trigger the gameOver sequence.
+     * 
+     * Thread: Robot thread(s)
+     */
+    private void gameOver()
+    {
+        score.stop(); // Freeze the score at the time of the game over
+        int finalScore = score.getScore();
+        output.playSound(GameSound.GAME_OVER);
+        output.gameOver(finalScore);
+    }
+
+
+    /*
+     * Destroys a robobt by doing the following:
+     *     - Stops it running (with robotScheduler)
+     *     - Frees the Location where the Robot was
+     *     - Removes the robot from 'robots' (freeing its slot)
+     * 
+     * Thread: Called from either:
+     *             - The Robot's thread (from GameEngine.moveComplete(), if it moved into a wall)
+     *             - Robot-spawn-consumer (if the robot spawned on a wall)
+     */
+    private void destroyRobot(Robot robot)
+    {
+        int slot = robot.getSlot();
+
+        // Stop the robot from making any more moves
+        robotScheduler.cancel(robot);
+
+        gameStateLock.lock();
+        try
+        {
+            // Remove the robot from its location
+            int x = robots.getX(slot);
+            int y = robots.getY(slot);
+
+            grid.vacate(x, y, robot.getId());
+            spawnSquareVacated(x, y); // A robot destroyed in a spawn zone (e.g. on a wall) frees its square
+
+            // Remove the robot from the table of robots
+            long stamp = entityListLock.writeLock();
+            try
+            {
+                robots.remove(slot);
+            }
+            finally
+            {
+                entityListLock.unlockWrite(stamp);
+            }
+        }
+        finally
+        {
+            gameStateLock.unlock();
+        }
+
+        arenaChanged();
+    }
+
+    /*
+     * Called when a robot hits a wall
+     * 
+     * Damages the wall (which destroys it if it was already damaged), then destroys the robot. The caller must 
+     * then call wallHit(), once it has released gameStateLock, to count the hit and log it.
+     * 
+     * Must be called with gameStateLock held.
+     * 
+     * Thread: Called from either:
+     *              - Robot's thread from GameEngine.moveComplete()
+     *              - Robot-spawn-consumer (if the robot spawned on a wall)
+     */
+    private void robotHitWall(Robot robot, FortressWall wall)
+    {
+        int x = robot.getX();
+        int y = robot.getY();
+
+        wall.damage();
+        grid.location(x, y).wallDamaged(); // If the wall wasn't destroyed, it's now damaged
+        destroyRobot(robot);
+    }
+
+    /*
+     * Increases the score, and displays an on-screen log message, for a robot that hit a wall (see 
+     * robotHitWall()). Called after gameStateLock has been released, so neither is done in the critical 
+     * section (the score doesn't need locking, and the event is only formatted if it's displayed).
+     * 
+     * Thread: Robot's thread, robot-spawn-consumer, or the caller of placeRobot()
+     */
+    private void wallHit(LogEvent hitEvent)
+    {
+        score.robotDestroyed();
+        output.log(hitEvent);
+    }
+
+    /*
+     * Called when a wall needs to be destroyed
+     * 
+     * - Removes the wall from its Location
+     * - Removes the wall from the List of placed walls
+     * - Updates the UI
+     * 
+     * Thread: Called by either:
+     *              - Wall-spawn-consumer thread (if a wall is being placed on an existing wall)
+     *              - Robot thread (if a robot has moved onto a pre-damaged wall)
+     */
+    public void destroyWall(FortressWall wall)
+    {
+        gameStateLock.lock();
+        try
+        {
+            // Remove the wall from the location
+            int x = (int)wall.getCoordinates().x(); // Ignores fractional part of coordinate. Shouldn't matter if called appropriately
+            int y = (int)wall.getCoordinates().y(); // Same as above
+
+            Location location = grid.location(x, y);
+            location.setWall(null);
+
+            // Remove the wall from the list of walls 
+            long stamp = entityListLock.writeLock();
+            try
+            {
+                placedWalls.remove(wall);
+            }
+            finally
+            {
+                entityListLock.unlockWrite(stamp);
+            }
+
+            movementStrategy.wallRemoved(x, y);
+        }
+        finally
+        {
+            gameStateLock.unlock();
+        }
+
+        arenaChanged();
+        updateAvailableWallsText();
+    }
+
+
+    /*
+     * Returns a List of all robots in the game (as ReadOnlyRobots)
+     * 
+     * Only waits for robots to be added or removed (not for robots' moves).
+     * 
+     * Thread: UI
+     */
+    public List<ReadOnlyRobot> getRobots()
+    {
+        List<ReadOnlyRobot> list = new ArrayList<>();
+
+        long stamp = entityListLock.readLock();
+        try
+        {
+            int slotLimit = robots.getSlotLimit();
+            for(int slot = 0; slot < slotLimit; slot++)
+            {
+                Robot r = robots.getRobot(slot);
+                if(r != null)
+                {
+                    list.add( new ReadOnlyRobot(r) );
+                }
+            }
+        }
+        finally
+        {
+            entityListLock.unlockRead(stamp);
+        }
+
+        return list;
+    }
+
+    /*
+     * Returns a List of all FortressWalls in the game (as ReadOnlyFortressWalls)
+     * 
+     * Thread: UI
+     */
+    public List<ReadOnlyFortressWall> getPlacedWalls()
+    {
+        List<ReadOnlyFortressWall> list = new ArrayList<>();
+
+        long stamp = entityListLock.readLock(); // Only waits for walls to be added or removed
+        try
+        {
+            for(FortressWall w : placedWalls)
+            {
+                list.add( new ReadOnlyFortressWall(w));
+            }
+        }
+        finally
+        {
+            entityListLock.unlockRead(stamp);
+        }
+
+        return list;
+    }
+
+    /*
+     * Returns the Vector position of the Citadel
+     * 
+     * Note: As the Citadel location is never updated after GameEngine's constructor
+     * is called, this does not need to be locked.
+     * 
+     * Thread: Robot, UI
+     */
+    public Vector2d getCitadel()
+    {
+        return citadel;
+    }
+
+    /*
+     * Returns the table of all active robots, which holds each robot's position and state (see RobotTable).
+     * 
+     * Note: The table is created in GameEngine's constructor, and never replaced. See RobotTable for its locking.
+     * 
+     * Thread: Any
+     */
+    public RobotTable getRobotTable()
+    {
+        return robots;
+    }
+
+    /*
+     * Returns the strategy robots use to plan their moves (see Robot.planMoves()).
+     * 
+     * Note: The strategy is set in GameEngine's constructor, and never replaced, so this does not need to be locked.
+     * 
+     * Thread: Robot
+     */
+    public MovementStrategy getMovementStrategy()
+    {
+        return movementStrategy;
+    }
+
+    /*
+     * Returns true if the square next to (x, y) in 'direction' is (probably) occupied by a robot. Only reads the 
+     * square's neighbour flags, without locking, so the answer may be out of date by the time it's used.
+     * 
+     * Thread: Robot
+     */
+    public boolean isNeighbourOccupied(int x, int y, Direction direction)
+    {
+        return grid.isNeighbourOccupied(x, y, direction.dx(), direction.dy());
+    }
+
+
+    /*
+     * Called when the user wants to place a wall
+     * 
+     * Thread: UI
+     */
+    public void squareClicked(int x, int y)
+    {
+        wallSpawner.requestWall(x, y, getCitadel());
+        updateQueuedWallsText();
+    }
+
+    /*
+     * Updates the on-screen text displaying the number of walls that have been "queued".
+     * 
+     * Note: This specifically refers to the walls that the user has tried to place that are 
+     * waiting for the wallSpawner's cooldown to allow them to be placed. This does NOT count 
+     * walls that are waiting to be placed by the WallSpawnConsumerThread (which is typically 
+     * trivial).
+     *  
+     * Thread: Wall-spawn-consumer, UI
+     */
+    private void updateQueuedWallsText()
+    {
+        int numWalls = wallSpawner.queueSize();
+
+        output.setQueuedWalls(numWalls);
+    }
+
+    /*
+     * Returns the number of "placed" walls. This actaully returns the number of the walls 
+     * that have been placed, plus the number of walls pending placement by the consumer thread
+     * (i.e.: those that are in wallSpawnBlockingQueue)
+     * 
+     * Thread: FortressWallSpawner (from the UI thread)
+     */
+    public int getNumSpawnedWalls()
+    {
+        return wallSpawnBlockingQueue.size() + getNumPlacedWalls();
+    }
+
+    /*
+     * Returns the number of walls that have either been placed, or are queued to be placed.
+     * 
+     * Thread: WallSpawnConsumer, Robot, UI
+     */
+    public int getAllWallsCount()
+    {
+        return wallSpawnBlockingQueue.size() + getNumPlacedWalls() + wallSpawner.queueSize();
+    }
+
+    /*
+     * Returns the size of 'placedWalls', with an optimistic read (which doesn't block, or block writers). If 
+     * 'placedWalls' was modified during the read, this falls back to the read lock.
+     * 
+     * Thread: Any
+     */
+    /* default */ int getNumPlacedWalls()
+    {
+        long stamp = entityListLock.tryOptimisticRead();
+        int numPlacedWalls = placedWalls.size();
+
+        if(!entityListLock.validate(stamp))
+        {
+            stamp = entityListLock.readLock();
+            try
+            {
+                numPlacedWalls = placedWalls.size();
+            }
+            finally
+            {
+                entityListLock.unlockRead(stamp);
+            }
+        }
+
+        return numPlacedWalls;
+    }
+
+    /*
+     * Returns the number of robots in the arena, with an optimistic read (as in getNumPlacedWalls()).
+     * 
+     * Thread: Any (for monitoring, see GameEngineMetrics)
+     */
+    /* default */ int getNumRobots()
+    {
+        long stamp = entityListLock.tryOptimisticRead();
+        int numRobots = robots.size();
+
+        if(!entityListLock.validate(stamp))
+        {
+            stamp = entityListLock.readLock();
+            try
+            {
+                numRobots = robots.size();
+            }
+            finally
+            {
+                entityListLock.unlockRead(stamp);
+            }
+        }
+
+        return numRobots;
+    }
+
+    /*
+     * The following are only read for monitoring (see GameEngineMetrics), so only need to be approximate.
+     * 
+     * Thread: Any
+     */
+    /* default */ int getNumQueuedWalls()
+    {
+        return wallSpawner.queueSize();
+    }
+
+    /* default */ int getRobotSpawnQueueDepth()
+    {
+        return robotSpawnBlockingQueue.size();
+    }
+
+    /* default */ int getWallSpawnQueueDepth()
+    {
+        return wallSpawnBlockingQueue.size();
+    }
+
+    /* default */ long getSpawnWaits()
+    {
+        return spawnWaits.sum();
+    }
+
+    /* default */ boolean isSpawnWaiting()
+    {
+        return spawnWaiting;
+    }
+
+    /*
+     * Calculates the number of available walls, and update the UI.
+     * 
+     * NOTE: If wall A is queued such that it will replace a damaged wall (wall B), both A and B will be
+     *       counted as walls (thus 2 will be subtracted from the number of available walls) until wall A 
+     *       is placed, which destroys wall B.
+     */
+    public void updateAvailableWallsText()
+    {
+        int availableWalls = this.maxWalls - getAllWallsCount();
+        output.setAvailableWallsText(availableWalls);
+    }
+
+    /*
+     * Add a new wall to the wallSpawnBlockingQueue, for consumption by wall-spawn-consumer
+     * 
+     * Thread: Wall-spawn-timer
+     */
+    public void putNewWall(FortressWall wall) throws InterruptedException
+    {
+        wallSpawnBlockingQueue.put(wall);
+    }
+
+
+    /*
+     * Returns the player's current score. Read by the output whenever it displays the score.
+     * 
+     * Thread: Any
+     */
+    public int getScore()
+    {
+        return score.getScore();
+    }
+
+    /*
+     * Returns the total number of moves that robots have completed in this game.
+     * 
+     * Thread: Any
+     */
+    public long getMovesCompleted()
+    {
+        return movesCompleted.sum();
+    }
+
+    /*
+     * Returns the total number of moves that robots have asked to make in this game (whether or not they 
+     * were allowed).
+     * 
+     * Thread: Any
+     */
+    public long getMoveRequests()
+    {
+        return moveRequests.sum();
+    }
+
+    /*
+     * Returns the total number of move requests that were refused (as the move was out of bounds, or the 
+     * square was occupied).
+     * 
+     * Thread: Any
+     */
+    public long getMovesRejected()
+    {
+        return movesRejected.sum();
+    }
+
+    /*
+     * Sets a listener to be told about every move that robots make (see MoveListener). Must be called 
+     * before the GameEngine is started, or any robot is placed.
+     * 
+     * Thread: The thread that starts the GameEngine
+     */
+    public void setMoveListener(MoveListener moveListener)
+    {
+        if(robotSpawnConsumerThread != null || robots.size() > 0)
+        {
+            throw new IllegalStateException("A GameEngine's MoveListener must be set before it starts.");
+        }
+
+        this.moveListener = moveListener;
+    }
+
+
+    public int getMaxWalls()
+    {
+        return this.maxWalls;
+    }
+
+    public int getNumRows()
+    {
+        return this.numRows;
+    }
+
+    public int getNumCols()
+    {
+        return this.numCols;
+    }
+
+
+}
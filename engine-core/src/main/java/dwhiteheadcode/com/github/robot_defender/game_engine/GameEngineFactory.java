@@ -0,0 +1,149 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine;
+
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.moves.DistanceFieldStrategy;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.moves.MovementMode;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.moves.MovementStrategy;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.moves.StraightLineStrategy;
+import dwhiteheadcode.com.github.robot_defender.game_engine.components.FortressWallSpawner;
+import dwhiteheadcode.com.github.robot_defender.game_engine.components.RobotSpawner;
+import dwhiteheadcode.com.github.robot_defender.game_engine.components.ScoreCalculator;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.GameOutput;
+import dwhiteheadcode.com.github.robot_defender.game_engine.scheduling.EventRobotScheduler;
+import dwhiteheadcode.com.github.robot_defender.game_engine.scheduling.RobotExecutionMode;
+import dwhiteheadcode.com.github.robot_defender.game_engine.scheduling.RobotScheduler;
+import dwhiteheadcode.com.github.robot_defender.game_engine.scheduling.ThreadPoolRobotScheduler;
+import dwhiteheadcode.com.github.robot_defender.game_engine.scheduling.TickRobotScheduler;
+import dwhiteheadcode.com.github.robot_defender.game_engine.scheduling.VirtualThreads;
+
+public class GameEngineFactory
+{
+    public static final int NUM_ROWS_DEFAULT = 9;
+    public static final int NUM_COLS_DEFAULT = 9;
+    public static final int MAX_WALLS_DEFAULT = 10;
+    public static final RobotExecutionMode EXECUTION_MODE_DEFAULT = RobotExecutionMode.THREAD_PER_ROBOT;
+    public static final MovementMode MOVEMENT_MODE_DEFAULT = MovementMode.STRAIGHT_LINE;
+    public static final int EVENT_SCHEDULER_THREADS_DEFAULT = 2;
+    public static final int TICK_TILE_SIZE_DEFAULT = 16;
+    public static final int WAVE_SIZE_DEFAULT = 1;
+    public static final int SPAWN_DELAY_MILLIS_DEFAULT = 1500;
+
+    public static GameEngine instance(GameOutput output)
+    {
+        return instance(output, EXECUTION_MODE_DEFAULT);
+    }
+
+    public static GameEngine instance(GameOutput output, RobotExecutionMode executionMode)
+    {
+        return instance(output, executionMode, NUM_ROWS_DEFAULT, NUM_COLS_DEFAULT, MAX_WALLS_DEFAULT);
+    }
+
+    public static GameEngine instance(GameOutput output, GameConfig config)
+    {
+        RobotScheduler robotScheduler = robotScheduler(config.getExecutionMode(), config.getNumRows(), config.getNumCols());
+        RobotSpawner robotSpawner = new RobotSpawner(config.getWaveSize(), config.getSpawnDelayMillis());
+
+        return create(output, robotScheduler, robotSpawner, config.getMovementMode(), config.getNumRows(),
+            config.getNumCols(), config.getMaxWalls());
+    }
+
+    public static GameEngine instance(GameOutput output, RobotExecutionMode executionMode, int numRows, int numCols, int maxWalls)
+    {
+        return instance(output, executionMode, MOVEMENT_MODE_DEFAULT, numRows, numCols, maxWalls);
+    }
+
+    public static GameEngine instance(GameOutput output, RobotExecutionMode executionMode, MovementMode movementMode,
+        int numRows, int numCols, int maxWalls)
+    {
+        return instance(output, robotScheduler(executionMode, numRows, numCols), movementMode, numRows, numCols, maxWalls);
+    }
+
+    /*
+     * Creates a GameEngine that runs its robots with 'robotScheduler', rather than one of the RobotExecutionModes 
+     * (e.g. so benchmarks can place robots without running them).
+     */
+    public static GameEngine instance(GameOutput output, RobotScheduler robotScheduler, MovementMode movementMode,
+        int numRows, int numCols, int maxWalls)
+    {
+        RobotSpawner robotSpawner = new RobotSpawner(WAVE_SIZE_DEFAULT, SPAWN_DELAY_MILLIS_DEFAULT);
+        return create(output, robotScheduler, robotSpawner, movementMode, numRows, numCols, maxWalls);
+    }
+
+    /*
+     * Creates a GameEngine with the given components, and connects the components to it
+     */
+    private static GameEngine create(GameOutput output, RobotScheduler robotScheduler, RobotSpawner robotSpawner,
+        MovementMode movementMode, int numRows, int numCols, int maxWalls)
+    {
+        FortressWallSpawner wallSpawner = new FortressWallSpawner(output, maxWalls);
+        ScoreCalculator scoreCalculator = new ScoreCalculator();
+        MovementStrategy movementStrategy = movementStrategy(movementMode);
+
+        GameEngine engine = new GameEngine(output, numRows, numCols, maxWalls,
+            robotSpawner, wallSpawner, scoreCalculator, robotScheduler, movementStrategy);
+
+        robotSpawner.setGameEngine(engine);
+        wallSpawner.setGameEngine(engine);
+        robotScheduler.setGameEngine(engine);
+        movementStrategy.setGameEngine(engine);
+
+        return engine;
+    }
+
+    /*
+     * Creates the RobotScheduler for the given execution mode
+     */
+    private static RobotScheduler robotScheduler(RobotExecutionMode executionMode, int numRows, int numCols)
+    {
+        switch(executionMode)
+        {
+            case DISCRETE_EVENT:
+                return new EventRobotScheduler(EVENT_SCHEDULER_THREADS_DEFAULT);
+
+            case PARALLEL_TICK:
+                return new TickRobotScheduler(TICK_TILE_SIZE_DEFAULT, Runtime.getRuntime().availableProcessors());
+
+            case VIRTUAL_THREAD:
+                // No limit on the number of threads (virtual threads are cheap), so robots are never rejected
+                return new ThreadPoolRobotScheduler( VirtualThreads.newVirtualThreadPerTaskExecutor() );
+
+            case THREAD_PER_ROBOT:
+                int numSquares = numRows * numCols;
+
+                // Create a thread pool for robot threads
+                // Min 4 threads, max threads = numSquares - 1 (this is the maximum number of robots).
+                // Destroy unused threads after 10 seconds
+                return new ThreadPoolRobotScheduler(
+                    new ThreadPoolExecutor(
+                        4, (numSquares - 1),
+                        10, TimeUnit.SECONDS,
+                        new SynchronousQueue<>()
+                    )
+                );
+
+            default:
+                throw new IllegalArgumentException("Unsupported robot execution mode: " + executionMode);
+        }
+    }
+
+    /*
+     * Creates the MovementStrategy for the given movement mode
+     */
+    private static MovementStrategy movementStrategy(MovementMode movementMode)
+    {
+        switch(movementMode)
+        {
+            case STRAIGHT_LINE:
+                return new StraightLineStrategy();
+
+            case DISTANCE_FIELD:
+                return new DistanceFieldStrategy();
+
+            default:
+                throw new IllegalArgumentException("Unsupported movement mode: " + movementMode);
+        }
+    }
+}
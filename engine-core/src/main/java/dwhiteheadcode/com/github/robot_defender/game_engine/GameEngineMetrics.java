@@ -0,0 +1,245 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.GameOutput;
+import dwhiteheadcode.com.github.robot_defender.game_engine.scheduling.RobotScheduler;
+
+/*
+ * Exposes a GameEngine's live metrics over JMX (see GameEngineMetricsMBean), so long sessions can be watched
+ * in JConsole or VisualVM. Registered with the platform MBeanServer while the engine is running (see
+ * GameEngine.start() and stop()), as "dwhiteheadcode.com.github.robot_defender:type=GameEngine,name=game-N".
+ *
+ * Nothing here is on the engine's hot paths: the engine only keeps counters (LongAdders, and the sizes of
+ * collections it already has), which are read when a JMX client asks for them.
+ */
+public class GameEngineMetrics implements GameEngineMetricsMBean
+{
+    private static final String OBJECT_NAME_PREFIX = "dwhiteheadcode.com.github.robot_defender:type=GameEngine,name=game-";
+    private static final AtomicInteger NEXT_GAME_NUMBER = new AtomicInteger(1); // Gives each engine's MBean a unique name
+
+    private final GameEngine engine;
+    private final GameOutput output;
+    private final RobotScheduler robotScheduler;
+    private final ObjectName objectName;
+
+    private final Rate movesRequestedRate = new Rate();
+    private final Rate movesAcceptedRate = new Rate();
+    private final Rate movesRejectedRate = new Rate();
+
+    /* default */ GameEngineMetrics(GameEngine engine, GameOutput output, RobotScheduler robotScheduler)
+    {
+        this.engine = engine;
+        this.output = output;
+        this.robotScheduler = robotScheduler;
+
+        try
+        {
+            this.objectName = new ObjectName(OBJECT_NAME_PREFIX + NEXT_GAME_NUMBER.getAndIncrement());
+        }
+        catch(JMException jE)
+        {
+            throw new IllegalStateException("Invalid GameEngine MBean name.", jE);
+        }
+    }
+
+    /*
+     * Registers this MBean with the platform MBeanServer.
+     *
+     * Thread: The thread that starts the GameEngine
+     */
+    /* default */ void register()
+    {
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        }
+        catch(JMException jE)
+        {
+            throw new IllegalStateException("Couldn't register the GameEngine's MBean (" + objectName + ").", jE);
+        }
+    }
+
+    /*
+     * Unregisters this MBean, if it's registered.
+     *
+     * Thread: The thread that stops the GameEngine
+     */
+    /* default */ void unregister()
+    {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if(!server.isRegistered(objectName))
+        {
+            return;
+        }
+
+        try
+        {
+            server.unregisterMBean(objectName);
+        }
+        catch(JMException jE)
+        {
+            throw new IllegalStateException("Couldn't unregister the GameEngine's MBean (" + objectName + ").", jE);
+        }
+    }
+
+    public ObjectName getObjectName()
+    {
+        return objectName;
+    }
+
+
+    @Override
+    public int getActiveRobots()
+    {
+        return engine.getNumRobots();
+    }
+
+    @Override
+    public int getPlacedWalls()
+    {
+        return engine.getNumPlacedWalls();
+    }
+
+    @Override
+    public int getQueuedWalls()
+    {
+        return engine.getNumQueuedWalls();
+    }
+
+    @Override
+    public int getRobotSpawnQueueDepth()
+    {
+        return engine.getRobotSpawnQueueDepth();
+    }
+
+    @Override
+    public int getWallSpawnQueueDepth()
+    {
+        return engine.getWallSpawnQueueDepth();
+    }
+
+    @Override
+    public long getMovesRequested()
+    {
+        return engine.getMoveRequests();
+    }
+
+    @Override
+    public long getMovesAccepted()
+    {
+        // Rejections are counted after their requests, so reading them first keeps the difference from going negative
+        long rejected = engine.getMovesRejected();
+        return engine.getMoveRequests() - rejected;
+    }
+
+    @Override
+    public long getMovesRejected()
+    {
+        return engine.getMovesRejected();
+    }
+
+    @Override
+    public long getMovesCompleted()
+    {
+        return engine.getMovesCompleted();
+    }
+
+    @Override
+    public double getMovesRequestedPerSecond()
+    {
+        return movesRequestedRate.sample( getMovesRequested() );
+    }
+
+    @Override
+    public double getMovesAcceptedPerSecond()
+    {
+        return movesAcceptedRate.sample( getMovesAccepted() );
+    }
+
+    @Override
+    public double getMovesRejectedPerSecond()
+    {
+        return movesRejectedRate.sample( getMovesRejected() );
+    }
+
+    @Override
+    public int getRobotExecutorActiveThreads()
+    {
+        return robotScheduler.getActiveThreadCount();
+    }
+
+    @Override
+    public int getRobotExecutorThreads()
+    {
+        return robotScheduler.getThreadCount();
+    }
+
+    @Override
+    public long getSpawnsBlocked()
+    {
+        return engine.getSpawnWaits();
+    }
+
+    @Override
+    public boolean isSpawnBlocked()
+    {
+        return engine.isSpawnWaiting();
+    }
+
+    @Override
+    public int getPendingUiUpdates()
+    {
+        return output.getPendingUiUpdates();
+    }
+
+
+    /*
+     * The rate of a counter, per second, worked out from the change in the counter between samples. A JMX
+     * client's polls are the samples (e.g. every 4 seconds in JConsole).
+     *
+     * Samples closer together than MIN_INTERVAL_NANOS (e.g. from a second client) return the previous rate, so that
+     * the rate isn't taken over too short a time to be meaningful. The first sample is the rate since the
+     * Rate was created.
+     */
+    private static final class Rate
+    {
+        private static final long MIN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+        // Locked with 'lock' (JMX clients may read attributes concurrently)
+        private long lastCount = 0;
+        private long lastNanos = System.nanoTime();
+        private double perSecond = 0.0;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private double sample(long count)
+        {
+            lock.lock();
+            try
+            {
+                long nowNanos = System.nanoTime();
+                long elapsedNanos = nowNanos - lastNanos;
+
+                if(elapsedNanos >= MIN_INTERVAL_NANOS)
+                {
+                    perSecond = (count - lastCount) * (double)TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+                    lastCount = count;
+                    lastNanos = nowNanos;
+                }
+
+                return perSecond;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine;
+
+/*
+ * The live metrics of a running GameEngine, as a JMX MBean (see GameEngineMetrics). Each getter is an attribute
+ * that JConsole or VisualVM can show and graph.
+ *
+ * Counts are read from the engine as they're asked for, so may be slightly out of date (or out of step with
+ * each other) while robots move.
+ */
+public interface GameEngineMetricsMBean
+{
+    // ENTITIES
+    int getActiveRobots(); // Robots in the arena
+    int getPlacedWalls();
+    int getQueuedWalls(); // Walls the player has requested, waiting for the wall cooldown
+
+    // QUEUES
+    int getRobotSpawnQueueDepth(); // Waves of robots spawned, waiting to be placed in the corners
+    int getWallSpawnQueueDepth(); // Walls released by the cooldown, waiting to be placed
+
+    // MOVES (totals since the game started)
+    long getMovesRequested();
+    long getMovesAccepted();
+    long getMovesRejected(); // Out of bounds, or the square was occupied
+    long getMovesCompleted();
+
+    // MOVE RATES (since the previous sample, see GameEngineMetrics.Rate)
+    double getMovesRequestedPerSecond();
+    double getMovesAcceptedPerSecond();
+    double getMovesRejectedPerSecond();
+
+    // ROBOT EXECUTOR (see RobotScheduler)
+    int getRobotExecutorActiveThreads();
+    int getRobotExecutorThreads();
+
+    // SPAWNING
+    long getSpawnsBlocked(); // Times robot-spawn-consumer has waited for a corner's spawn square to be freed
+    boolean isSpawnBlocked(); // True while robot-spawn-consumer is waiting
+
+    // OUTPUT
+    int getPendingUiUpdates(); // Updates posted to the UI thread that haven't run yet (see GameOutput)
+}
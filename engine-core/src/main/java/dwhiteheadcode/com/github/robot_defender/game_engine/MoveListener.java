@@ -0,0 +1,24 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+
+/*
+ * Told about each robot move that a GameEngine approves and completes (see GameEngine.setMoveListener()). Lets
+ * tools (e.g. load tests) observe moves, without changing how they're made.
+ *
+ * Thread: Called from the robots' threads (see RobotScheduler), so implementations must be thread-safe. They're
+ * called on every move, so must be fast, and must not block.
+ */
+public interface MoveListener
+{
+    /*
+     * Called when 'robot' has been allowed to start a move (and has claimed the square it's moving to).
+     */
+    void moveApproved(Robot robot);
+
+    /*
+     * Called when 'robot' has finished a move, before the move's collisions are checked (so the robot is still
+     * in its slot, even if the move destroys it).
+     */
+    void moveCompleted(Robot robot);
+}
@@ -0,0 +1,190 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.components;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+
+import dwhiteheadcode.com.github.robot_defender.entities.fortress_wall.FortressWall;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.GameOutput;
+import dwhiteheadcode.com.github.robot_defender.misc.Vector2d;
+
+/*
+ * A class for spawning FortressWalls, for use by a GameEngine.
+ *
+ * Requested walls are queued, and released to the GameEngine one at a time, at least WALL_SPAWN_DELAY apart.
+ * The cooldown is kept as a deadline (a System.nanoTime() value), rather than counted down: a queued wall is
+ * released by a task scheduled for the deadline, so the "wall-spawn-timer" thread only wakes up when a wall is
+ * requested or released. The output is told each new deadline once, and works out the remaining time itself.
+ */
+public class FortressWallSpawner
+{
+    private static final Duration WALL_SPAWN_DELAY = Duration.ofMillis(2000); // The delay after building 1 wall before the next can be built
+
+    private BlockingQueue<FortressWall> wallRequestBlockingQueue;
+
+    private GameEngine gameEngine;
+    private GameOutput output;
+    private int maxWalls;
+
+    private volatile ScheduledExecutorService timer; // Runs releaseWalls(). Created by start()
+
+    // Only accessed by the wall-spawn-timer thread
+    private long cooldownDeadlineNanos; // No wall can be released before this System.nanoTime()
+    private ScheduledFuture<?> scheduledRelease; // The pending call to releaseWalls() at the deadline (if any)
+
+    public FortressWallSpawner(GameOutput output, int maxWalls)
+    {
+        this.maxWalls = maxWalls;
+        this.output = output;
+        this.wallRequestBlockingQueue = new ArrayBlockingQueue<>(maxWalls);
+        this.cooldownDeadlineNanos = System.nanoTime(); // The first wall can be released straight away
+    }
+
+    public void setGameEngine(GameEngine gameEngine)
+    {
+        this.gameEngine = gameEngine;
+    }
+
+    /*
+     * Starts the wall-spawn-timer thread, which releases requested walls to the game engine.
+     */
+    public void start()
+    {
+        if(this.gameEngine == null)
+        {
+            throw new IllegalStateException("FortressWallSpawner's GameEngine must be set before it can be started.");
+        }
+
+        if(this.timer != null)
+        {
+            throw new IllegalStateException("Can't start a FortressWallSpawner that is already running.");
+        }
+
+        this.timer = Executors.newSingleThreadScheduledExecutor( runnable ->
+        {
+            Thread thread = new Thread(runnable, "wall-spawn-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.timer.execute(this::releaseWalls); // In case walls were requested before the spawner started
+    }
+
+    /*
+     * Stops the wall-spawn-timer thread (interrupting it, if it's waiting to give a wall to the game engine).
+     * Queued walls are discarded.
+     */
+    public void stop()
+    {
+        ScheduledExecutorService runningTimer = this.timer;
+        if(runningTimer != null)
+        {
+            runningTimer.shutdownNow();
+        }
+    }
+
+    /*
+     * Releases the next queued wall to the game engine if the cooldown has passed, and starts the next
+     * cooldown. If walls are still queued (or the cooldown hasn't passed), schedules itself for the deadline.
+     *
+     * Does nothing if it's already scheduled, so it can be called whenever a wall is requested.
+     *
+     * Thread: Wall-spawn-timer
+     */
+    private void releaseWalls()
+    {
+        if(scheduledRelease != null && !scheduledRelease.isDone())
+        {
+            return; // The scheduled call will release the wall
+        }
+
+        if(wallRequestBlockingQueue.isEmpty())
+        {
+            return;
+        }
+
+        long waitNanos = cooldownDeadlineNanos - System.nanoTime();
+        if(waitNanos <= 0)
+        {
+            try
+            {
+                gameEngine.putNewWall( wallRequestBlockingQueue.poll() );
+            }
+            catch(InterruptedException iE)
+            {
+                return; // The spawner has been stopped
+            }
+
+            cooldownDeadlineNanos = System.nanoTime() + WALL_SPAWN_DELAY.toNanos();
+            output.setWallCooldownDeadline(cooldownDeadlineNanos);
+
+            if(wallRequestBlockingQueue.isEmpty())
+            {
+                return;
+            }
+            waitNanos = WALL_SPAWN_DELAY.toNanos();
+        }
+
+        scheduledRelease = timer.schedule(this::releaseScheduledWalls, waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /*
+     * Runs at a cooldown deadline (see releaseWalls()).
+     *
+     * Thread: Wall-spawn-timer
+     */
+    private void releaseScheduledWalls()
+    {
+        scheduledRelease = null;
+        releaseWalls();
+    }
+
+
+    /**
+     * Requests a wall be added at the coordinates (x, y)
+     *
+     * A wall will be added to the queue only if the total number of walls
+     * (either already placed in the game, or already in wallRequestBlockingQueue)
+     * is less than MAX_NUM_WALLS
+     *
+     * Runs in the UI thread (hence designed to never block)
+     */
+    public void requestWall(int x, int y, Vector2d citadelPos)
+    {
+        // Can't place a wall on the citadel
+        if(x == citadelPos.x() && y == citadelPos.y())
+        {
+            return;
+        }
+
+        int spawnedWalls = gameEngine.getNumSpawnedWalls();
+        int totalWalls = spawnedWalls + wallRequestBlockingQueue.size();
+
+        if(totalWalls < this.maxWalls)
+        {
+            Vector2d coordinates = new Vector2d(x, y);
+
+            wallRequestBlockingQueue.offer(new FortressWall(gameEngine, output, coordinates));
+            gameEngine.updateAvailableWallsText();
+
+            // If the spawner has been stopped, the wall is never placed. (stop() is also called from the UI 
+            // thread, so the timer can't be shut down between the check and execute())
+            ScheduledExecutorService runningTimer = this.timer;
+            if(runningTimer != null && !runningTimer.isShutdown())
+            {
+                runningTimer.execute(this::releaseWalls);
+            }
+        }
+    }
+
+    public int queueSize()
+    {
+        return wallRequestBlockingQueue.size();
+    }
+
+}
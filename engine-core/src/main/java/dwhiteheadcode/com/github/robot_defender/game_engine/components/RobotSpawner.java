@@ -0,0 +1,89 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.components;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+
+/*
+ * A class that produces Robots, and gives them to GameEngine for use in the game. 
+ * 
+ * Robots are produced in waves: every 'spawnDelayMillis', a wave of 'waveSize' robots is created and handed to 
+ * the GameEngine as one List, so it can place the whole wave at once (see GameEngine.robotSpawnConsumerRunnable()).
+ */
+public class RobotSpawner implements Runnable
+{
+    private final int waveSize; // The number of robots in each wave
+    private final int spawnDelayMillis; // The delay between waves
+    
+    private GameEngine gameEngine;
+    private int robotCount = 0; // Tracks the number of robots created by this spawner. Used for robot.id
+   
+    
+    public RobotSpawner(int waveSize, int spawnDelayMillis)
+    {
+        if(waveSize < 1)
+        {
+            throw new IllegalArgumentException("RobotSpawner's waves must contain at least 1 robot.");
+        }
+
+        if(spawnDelayMillis < 1)
+        {
+            throw new IllegalArgumentException("RobotSpawner's spawn delay must be at least 1 millisecond.");
+        }
+
+        this.waveSize = waveSize;
+        this.spawnDelayMillis = spawnDelayMillis;
+    }
+
+    public void setGameEngine(GameEngine gameEngine)
+    {
+        this.gameEngine = gameEngine;
+    }
+
+    /*
+     * Returns the number of robots in each wave. The GameEngine sizes its spawn zones to hold a whole wave.
+     */
+    public int getWaveSize()
+    {
+        return waveSize;
+    }
+
+
+    /*
+     * Runs a loop that creates new waves of robots and gives them to the game engine.
+     * 
+     * Waves are created periodically, every spawnDelayMillis
+     */
+    @Override
+    public void run() 
+    {
+        if(this.gameEngine == null)
+        {
+            throw new IllegalStateException("RobotSpawner's GameEngine must be set before it can be started.");
+        }
+
+        try
+        {
+            while(true)
+            {
+                Thread.sleep(spawnDelayMillis);
+
+                List<Robot> wave = new ArrayList<>(waveSize); // Owned by the GameEngine once it's queued
+                for(int i = 0; i < waveSize; i++)
+                {
+                    this.robotCount++;
+                    wave.add( new Robot(robotCount, gameEngine) );
+                }
+                
+                this.gameEngine.putNewWave(wave);
+            }
+        }
+        catch(InterruptedException iE)
+        {
+            // Nothing needed here.
+        }
+    }
+    
+}
@@ -0,0 +1,223 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.components;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.misc.IntIntMap;
+
+/*
+ * The GameEngine's registry of placed robots, stored as a dense table of slots (structure of arrays): each
+ * column is a primitive array indexed by slot. Replaces a HashMap<Integer, Robot>, which needed a node and a
+ * boxed ID per robot, and a Vector2d per robot position.
+ *
+ * For each slot, the table stores:
+ *     - The robot's ID (and a map from ID to slot, without boxing)
+ *     - Its position, with x and y packed into one int (so they're always read and written together)
+ *     - Its state (FREE, IDLE or MOVING)
+ *     - A generation counter, increased each time the slot is freed. A scheduler can remember a slot's
+ *       generation, and compare it later to find out whether the robot in the slot has been removed.
+ *     - The Robot itself (which runs the robot's movement logic)
+ * Freed slots are reused (most recently freed first), so the used slots stay dense, and iterating over
+ * slots 0 to getSlotLimit() - 1 only visits a few free slots.
+ *
+ * The table has a fixed capacity, one slot per grid square (a placed robot always occupies a square), so
+ * its arrays are never replaced, and can be read without locking.
+ *
+ * Thread: add() and remove() must be called while holding GameEngine's entityListLock (write), which also
+ * guards reading the IDs, robots and slot limit. Positions and states are written by the thread running the
+ * robot, and can be read by any thread (they're written and read atomically, with release/acquire ordering).
+ */
+public class RobotTable
+{
+    public static final int NO_SLOT = -1; // The slot of a robot that hasn't been placed
+
+    // Slot states
+    public static final byte FREE = 0;
+    public static final byte IDLE = 1;   // Placed, and not moving
+    public static final byte MOVING = 2; // Placed, and making a move (see Robot.getMotion())
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle BYTES = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final int COORDINATE_BITS = 16; // Grids are at most 4096 squares wide (see GameConfig)
+    private static final int COORDINATE_MASK = (1 << COORDINATE_BITS) - 1;
+
+    // Columns, indexed by slot
+    private final int[] ids;
+    private final int[] positions; // (y << COORDINATE_BITS) | x
+    private final byte[] states;
+    private final int[] generations;
+    private final Robot[] robots;
+
+    private final int[] freeSlots; // A stack of freed slots, below getSlotLimit()
+    private int numFreeSlots = 0;
+    private int slotLimit = 0; // Slots at or above this have never been used
+    private final IntIntMap slotsById;
+
+    public RobotTable(int capacity)
+    {
+        if(capacity < 1)
+        {
+            throw new IllegalArgumentException("Can't create a robot table with capacity " + capacity);
+        }
+
+        this.ids = new int[capacity];
+        this.positions = new int[capacity];
+        this.states = new byte[capacity];
+        this.generations = new int[capacity];
+        this.robots = new Robot[capacity];
+        this.freeSlots = new int[capacity];
+        this.slotsById = new IntIntMap();
+    }
+
+    /*
+     * Adds 'robot' at (x, y), and returns its slot. Throws IllegalStateException if a robot with the same ID
+     * is already in the table, or the table is full.
+     */
+    public int add(Robot robot, int x, int y)
+    {
+        if(slotsById.get(robot.getId()) != IntIntMap.MISSING)
+        {
+            throw new IllegalStateException("Robot " + robot.getId() + " has already been placed.");
+        }
+
+        int slot;
+        if(numFreeSlots > 0)
+        {
+            numFreeSlots--;
+            slot = freeSlots[numFreeSlots];
+        }
+        else if(slotLimit < ids.length)
+        {
+            slot = slotLimit;
+            slotLimit++;
+        }
+        else
+        {
+            throw new IllegalStateException("Can't place more than " + ids.length + " robots.");
+        }
+
+        ids[slot] = robot.getId();
+        robots[slot] = robot;
+        setPosition(slot, x, y);
+        setState(slot, IDLE);
+        slotsById.put(robot.getId(), slot);
+
+        return slot;
+    }
+
+    /*
+     * Frees 'slot', and advances its generation.
+     */
+    public void remove(int slot)
+    {
+        if(getState(slot) == FREE)
+        {
+            throw new IllegalStateException("Can't remove a robot from free slot " + slot);
+        }
+
+        slotsById.remove(ids[slot]);
+        robots[slot] = null;
+        generations[slot]++;
+        setState(slot, FREE);
+
+        freeSlots[numFreeSlots] = slot;
+        numFreeSlots++;
+    }
+
+    /*
+     * Returns the number of robots in the table
+     */
+    public int size()
+    {
+        return slotsById.size();
+    }
+
+    public int getCapacity()
+    {
+        return ids.length;
+    }
+
+    /*
+     * Returns one more than the highest slot that has been used. Every robot's slot is below this.
+     */
+    public int getSlotLimit()
+    {
+        return slotLimit;
+    }
+
+    /*
+     * Returns the slot of the robot with ID 'id', or NO_SLOT if it isn't in the table
+     */
+    public int slotOf(int id)
+    {
+        int slot = slotsById.get(id);
+        return slot == IntIntMap.MISSING ? NO_SLOT : slot;
+    }
+
+    public int getId(int slot)
+    {
+        return ids[slot];
+    }
+
+    public Robot getRobot(int slot)
+    {
+        return robots[slot];
+    }
+
+    /*
+     * Returns the number of times 'slot' has been freed. Must be read while holding GameEngine's gameStateLock
+     * (which is held whenever a robot is removed), by the thread that placed the slot's robot, or by the only
+     * thread that can remove it (e.g. TickRobotScheduler's robot-tick thread).
+     */
+    public int getGeneration(int slot)
+    {
+        return generations[slot];
+    }
+
+    // POSITIONS AND STATES (any thread) ----------------------------
+
+    public int getX(int slot)
+    {
+        return (int)INTS.getAcquire(positions, slot) & COORDINATE_MASK;
+    }
+
+    public int getY(int slot)
+    {
+        return (int)INTS.getAcquire(positions, slot) >>> COORDINATE_BITS;
+    }
+
+    /*
+     * Returns the position of 'slot', with x and y packed into one int (see unpackX() and unpackY()). Read
+     * this once to get an x and y from the same point in time.
+     */
+    public int getPackedPosition(int slot)
+    {
+        return (int)INTS.getAcquire(positions, slot);
+    }
+
+    public static int unpackX(int packedPosition)
+    {
+        return packedPosition & COORDINATE_MASK;
+    }
+
+    public static int unpackY(int packedPosition)
+    {
+        return packedPosition >>> COORDINATE_BITS;
+    }
+
+    public void setPosition(int slot, int x, int y)
+    {
+        INTS.setRelease(positions, slot, (y << COORDINATE_BITS) | x);
+    }
+
+    public byte getState(int slot)
+    {
+        return (byte)BYTES.getAcquire(states, slot);
+    }
+
+    public void setState(int slot, byte state)
+    {
+        BYTES.setRelease(states, slot, state);
+    }
+}
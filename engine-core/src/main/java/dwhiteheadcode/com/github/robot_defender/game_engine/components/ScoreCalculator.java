@@ -0,0 +1,101 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.components;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Class used to keep track of the player's score.
+ *
+ * The score has two parts:
+ *     - The kill score: ROBOT_DESTROYED_SCORE for each robot destroyed. Destroyed robots are counted in a
+ *       LongAdder, so robot threads never contend on a lock (or wait for each other) to increase it.
+ *     - The passive score: PASSIVE_SCORE_INCREMENT for each PASSIVE_SCORE_DELAY the game has been running
+ *       (starting with one increment as soon as the game starts). This is worked out from the game clock
+ *       when the score is read, rather than added by a thread that wakes up every PASSIVE_SCORE_DELAY.
+ *
+ * Nothing is pushed to the output when the score changes: whoever displays the score reads it with
+ * getScore() (e.g. once per frame).
+ *
+ * Thread: Any. Handles its own synchronisation (without locking).
+ */
+public class ScoreCalculator
+{
+    private static final Duration PASSIVE_SCORE_DELAY = Duration.ofSeconds(1);
+    private static final int PASSIVE_SCORE_INCREMENT = 10;
+    private static final int ROBOT_DESTROYED_SCORE = 100;
+
+    private static final long NOT_STOPPED = Long.MIN_VALUE;
+
+    private final LongAdder robotsDestroyed = new LongAdder();
+
+    // The game clock (System.nanoTime() values)
+    private volatile long startNanos;
+    private volatile boolean started = false;
+    private final AtomicLong stopNanos = new AtomicLong(NOT_STOPPED); // Set once, by the first call to stop()
+
+    /*
+     * Starts the game clock (and so the passive score).
+     */
+    public void start()
+    {
+        if(this.started)
+        {
+            throw new IllegalStateException("Can't start a ScoreCalculator that has already been started.");
+        }
+
+        this.startNanos = System.nanoTime();
+        this.started = true;
+    }
+
+    /*
+     * Stops the game clock, so the score no longer increases passively (e.g. at the game over). Only the
+     * first call has any effect.
+     */
+    public void stop()
+    {
+        stopNanos.compareAndSet(NOT_STOPPED, System.nanoTime());
+    }
+
+    /*
+     * Called to increase the score when a robot has been destroyed
+     *
+     * Thread: Robot thread (if it moved into a wall) or robot-spawn-consumer
+     *         (if the robot spawned on a wall)
+     */
+    public void robotDestroyed()
+    {
+        robotsDestroyed.increment();
+    }
+
+    /*
+     * Returns the number of robots destroyed so far.
+     */
+    public long getRobotsDestroyed()
+    {
+        return robotsDestroyed.sum();
+    }
+
+    /*
+     * Returns the current score: the kill score, plus the passive score for the time the game clock has run.
+     * Returns 0 if the game clock hasn't started.
+     */
+    public int getScore()
+    {
+        if(!this.started)
+        {
+            return 0;
+        }
+
+        long endNanos = stopNanos.get();
+        if(endNanos == NOT_STOPPED)
+        {
+            endNanos = System.nanoTime();
+        }
+
+        long passiveIncrements = (endNanos - startNanos) / PASSIVE_SCORE_DELAY.toNanos() + 1;
+        long score = passiveIncrements * PASSIVE_SCORE_INCREMENT + robotsDestroyed.sum() * ROBOT_DESTROYED_SCORE;
+
+        return (int)Math.min(score, Integer.MAX_VALUE);
+    }
+}
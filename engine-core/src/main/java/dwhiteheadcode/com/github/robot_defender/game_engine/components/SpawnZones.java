@@ -0,0 +1,292 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.components;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.misc.Grid;
+import dwhiteheadcode.com.github.robot_defender.misc.Location;
+import dwhiteheadcode.com.github.robot_defender.misc.OccupancyListener;
+
+/*
+ * The zones in the corners of the grid where robots spawn, for use by a GameEngine.
+ *
+ * Each zone is a square of zoneSize x zoneSize squares (1 unless robots spawn in large waves), sized so a whole
+ * wave fits in the zones. Zones stop short of the citadel's row and column. A zone's squares are counted from
+ * its corner outwards, row by row.
+ *
+ * Which zones are full is kept as a mask (fullCornerMask), so claim() and hasFreeSquare() don't scan the zones to
+ * find one with a free square. The mask is kept up to date from the grid's occupancy changes: SpawnZones must be
+ * the grid's OccupancyListener (see Grid.setOccupancyListener()). Each zone's count of occupied squares is updated
+ * on every change in the zone, but the mask is only rewritten when a zone becomes full, or stops being full.
+ *
+ * Thread: claim() and hasFreeSquare() must only be called by one thread at a time (robot-spawn-consumer, while
+ * holding GameEngine's gameStateLock), as they update the zones' cursors. contains() and the OccupancyListener
+ * methods can be called by any thread.
+ */
+public class SpawnZones implements OccupancyListener
+{
+    private static final int NUM_CORNERS = 4; // Bit i of a corner mask is corner i
+    private static final int ALL_CORNERS = (1 << NUM_CORNERS) - 1;
+
+    private final Grid grid;
+    private final int[] cornerXs = new int[NUM_CORNERS]; // Top left, bottom left, bottom right, top right
+    private final int[] cornerYs = new int[NUM_CORNERS];
+    private final int zoneSize; // The width and height of each corner's zone
+    private final int squaresPerZone;
+    private final int[] cursors = new int[NUM_CORNERS]; // Where the search of each zone for a free square starts
+
+    private final AtomicIntegerArray occupiedSquares = new AtomicIntegerArray(NUM_CORNERS); // By corner. Squares occupied by robots
+    private volatile int fullCornerMask = 0; // Bit i is set if corner i's zone is full. Only written with maskLock held
+    private final ReentrantLock maskLock = new ReentrantLock();
+
+    public SpawnZones(Grid grid, int waveSize)
+    {
+        int numRows = grid.getNumRows();
+        int numCols = grid.getNumCols();
+
+        this.grid = grid;
+
+        this.cornerXs[2] = numCols - 1;
+        this.cornerXs[3] = numCols - 1;
+        this.cornerYs[1] = numRows - 1;
+        this.cornerYs[2] = numRows - 1;
+
+        // Each wave fits in the spawn zones, which stop short of the citadel's row and column
+        int zoneSizeForWave = (int)Math.ceil( Math.sqrt(waveSize / (double)NUM_CORNERS) );
+        int maxZoneSize = (Math.min(numRows, numCols) - 1) / 2;
+        this.zoneSize = Math.max( 1, Math.min(zoneSizeForWave, maxZoneSize) );
+        this.squaresPerZone = zoneSize * zoneSize;
+
+        // Count any robots already in the zones. Later changes are counted by squareOccupied() and squareVacated()
+        for(int corner = 0; corner < NUM_CORNERS; corner++)
+        {
+            for(int i = 0; i < squaresPerZone; i++)
+            {
+                if(grid.getRobotId(squareX(corner, i), squareY(corner, i)) != Grid.NO_ROBOT)
+                {
+                    occupiedSquares.incrementAndGet(corner);
+                }
+            }
+        }
+        updateFullCornerMask();
+    }
+
+    /*
+     * Returns the width (and height) of each zone.
+     */
+    public int getZoneSize()
+    {
+        return zoneSize;
+    }
+
+    /*
+     * Occupies a free square in a randomly chosen zone with 'robot', and returns its Location. Returns null if
+     * every zone is full.
+     */
+    public Location claim(Robot robot, Random rand)
+    {
+        while(true)
+        {
+            int freeCorners = freeCornerMask();
+            if(freeCorners == 0)
+            {
+                return null;
+            }
+
+            // Randomly choose one of the zones with a free square
+            int corner = nthCorner( freeCorners, rand.nextInt(Integer.bitCount(freeCorners)) );
+
+            // Robots claim Locations without gameStateLock, so one may have moved into the zone's free square
+            // since it was checked. If so, try again.
+            Location spawnLocation = tryOccupy(corner, robot);
+            if(spawnLocation != null)
+            {
+                return spawnLocation;
+            }
+        }
+    }
+
+    /*
+     * Returns true if any zone has a square that isn't occupied by a robot.
+     */
+    public boolean hasFreeSquare()
+    {
+        return freeCornerMask() != 0;
+    }
+
+    /*
+     * Returns true if (x, y) is in one of the zones
+     */
+    public boolean contains(int x, int y)
+    {
+        return cornerOf(x, y) >= 0;
+    }
+
+    /*
+     * Counts a robot entering a zone. If the zone is now full, updates the mask of full zones.
+     */
+    @Override
+    public void squareOccupied(int x, int y)
+    {
+        int corner = cornerOf(x, y);
+        if(corner >= 0 && occupiedSquares.incrementAndGet(corner) == squaresPerZone)
+        {
+            updateFullCornerMask();
+        }
+    }
+
+    /*
+     * Counts a robot leaving a zone. If the zone was full, updates the mask of full zones.
+     */
+    @Override
+    public void squareVacated(int x, int y)
+    {
+        int corner = cornerOf(x, y);
+        if(corner >= 0 && occupiedSquares.getAndDecrement(corner) == squaresPerZone)
+        {
+            updateFullCornerMask();
+        }
+    }
+
+    /*
+     * Rewrites fullCornerMask from the zones' counts. Called after any count reaches (or leaves) squaresPerZone.
+     *
+     * The rewrite is locked, so that the last rewrite always reads the counts after every change that called
+     * for one, even if two robots' changes (one filling a zone, one freeing it) race.
+     */
+    private void updateFullCornerMask()
+    {
+        maskLock.lock();
+        try
+        {
+            int mask = 0;
+            for(int corner = 0; corner < NUM_CORNERS; corner++)
+            {
+                if(occupiedSquares.get(corner) >= squaresPerZone)
+                {
+                    mask |= 1 << corner;
+                }
+            }
+            fullCornerMask = mask;
+        }
+        finally
+        {
+            maskLock.unlock();
+        }
+    }
+
+    /*
+     * Returns a mask of the corners whose zones have a square that isn't occupied by a robot (bit i is set if
+     * corner i's zone has a free square).
+     */
+    private int freeCornerMask()
+    {
+        return ~fullCornerMask & ALL_CORNERS;
+    }
+
+    /*
+     * Returns the corner whose zone contains (x, y), or -1 if it isn't in a zone. Zones don't overlap, as they
+     * stop short of the grid's middle row and column.
+     */
+    private int cornerOf(int x, int y)
+    {
+        boolean left = x < zoneSize;
+        boolean right = x >= grid.getNumCols() - zoneSize;
+        boolean top = y < zoneSize;
+        boolean bottom = y >= grid.getNumRows() - zoneSize;
+
+        if(left && top)
+        {
+            return 0;
+        }
+        if(left && bottom)
+        {
+            return 1;
+        }
+        if(right && bottom)
+        {
+            return 2;
+        }
+        if(right && top)
+        {
+            return 3;
+        }
+        return -1;
+    }
+
+    /*
+     * Returns the position (within the zone) of a square in corner's zone that isn't occupied by a robot, or
+     * -1 if the zone is full.
+     *
+     * The search starts at the zone's cursor (just after the last square a robot spawned in), and wraps around.
+     * So placing a wave only checks each square about once, rather than re-checking the filled squares for
+     * every robot.
+     */
+    private int findFreeSquare(int corner)
+    {
+        int numSquares = squaresPerZone;
+        int cursor = cursors[corner];
+
+        for(int n = 0; n < numSquares; n++)
+        {
+            int i = (cursor + n) % numSquares;
+            if(grid.getRobotId(squareX(corner, i), squareY(corner, i)) == Grid.NO_ROBOT)
+            {
+                cursors[corner] = i;
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Occupies a free square in corner's zone with 'robot'. Returns its Location, or null if the zone is full
+     * (or a moving robot claimed the free square first).
+     */
+    private Location tryOccupy(int corner, Robot robot)
+    {
+        int i = findFreeSquare(corner);
+        if(i < 0)
+        {
+            return null;
+        }
+
+        Location location = grid.location( squareX(corner, i), squareY(corner, i) );
+        if(!location.tryOccupy(robot))
+        {
+            return null;
+        }
+
+        cursors[corner] = (i + 1) % squaresPerZone;
+        return location;
+    }
+
+    // The X coordinate of the i'th square of corner's zone
+    private int squareX(int corner, int i)
+    {
+        int offset = i % zoneSize;
+        return cornerXs[corner] == 0 ? offset : cornerXs[corner] - offset;
+    }
+
+    // The Y coordinate of the i'th square of corner's zone
+    private int squareY(int corner, int i)
+    {
+        int offset = i / zoneSize;
+        return cornerYs[corner] == 0 ? offset : cornerYs[corner] - offset;
+    }
+
+    /*
+     * Returns the index of the n'th (from 0) corner set in 'cornerMask'
+     */
+    private static int nthCorner(int cornerMask, int n)
+    {
+        int mask = cornerMask;
+        for(int i = 0; i < n; i++)
+        {
+            mask &= mask - 1; // Clear the lowest set bit
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+}
@@ -0,0 +1,61 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.output;
+
+/*
+ * Represents anything that the GameEngine (and its components) can send output to.
+ * 
+ * The GameEngine has no knowledge of how (or if) this output is displayed. This allows the
+ * engine to be run with a UI (e.g. GameWindow), or headless (e.g. HeadlessGameOutput).
+ * 
+ * Thread: Implementations may be called from any engine thread, and must therefore be thread-safe.
+ */
+public interface GameOutput
+{
+    /*
+     * Display an event in the log. The event's text is only built (with LogEvent.format()) if and when
+     * it is displayed.
+     */
+    void log(LogEvent event);
+
+    /*
+     * Trigger end-of-game logic.
+     */
+    void gameOver(int finalScore);
+
+    /*
+     * Update the displayed number of queued walls.
+     */
+    void setQueuedWalls(int numWalls);
+
+    /*
+     * Update the displayed cooldown before the next wall can/will be placed.
+     *
+     * Called once each time a wall is released, with the System.nanoTime() at which the next wall can be
+     * placed. The output works out (and counts down) the remaining time itself.
+     */
+    void setWallCooldownDeadline(long deadlineNanos);
+
+    /*
+     * Update the displayed number of walls that can still be placed.
+     */
+    void setAvailableWallsText(int availableWalls);
+
+    /*
+     * Called when a new snapshot of the arena (robots and walls) has been published (see 
+     * GameEngine.getSnapshot()). Called at most once per snapshot interval.
+     */
+    void updateArenaUi();
+
+    /*
+     * Play the given sound effect.
+     */
+    void playSound(GameSound sound);
+
+    /*
+     * Returns the number of updates posted to the output's UI thread that haven't run yet (for monitoring, see 
+     * GameEngineMetrics). Outputs without a UI thread have none.
+     */
+    default int getPendingUiUpdates()
+    {
+        return 0;
+    }
+}
@@ -0,0 +1,14 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.output;
+
+/*
+ * The sound effects that the GameEngine can ask a GameOutput to play.
+ * 
+ * It is up to the GameOutput to decide how (or if) each sound is played.
+ */
+public enum GameSound
+{
+    WALL_PLACEMENT,
+    WALL_COLLISION,
+    WALL_DESTRUCTION,
+    GAME_OVER
+}
@@ -0,0 +1,99 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.output;
+
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * A GameOutput that doesn't display anything. Used to run a GameEngine without a UI.
+ * 
+ * Log events can optionally be echoed to a PrintStream (e.g. System.out). All other 
+ * UI updates and sounds are discarded.
+ */
+public class HeadlessGameOutput implements GameOutput
+{
+    private final PrintStream logStream; // May be null, in which case log events are discarded (unformatted)
+
+    private final CountDownLatch gameOverLatch = new CountDownLatch(1);
+    private volatile int finalScore = -1;
+
+    public HeadlessGameOutput()
+    {
+        this(null);
+    }
+
+    public HeadlessGameOutput(PrintStream logStream)
+    {
+        this.logStream = logStream;
+    }
+
+    @Override
+    public void log(LogEvent event)
+    {
+        if(logStream != null)
+        {
+            logStream.println(event.format());
+        }
+    }
+
+    /*
+     * Records the final score, and releases any threads waiting in awaitGameOver().
+     * 
+     * Note: Unlike GameWindow, this does not stop the GameEngine. That is the responsibility 
+     * of whoever started it.
+     */
+    @Override
+    public void gameOver(int finalScore)
+    {
+        this.finalScore = finalScore;
+        gameOverLatch.countDown();
+    }
+
+    @Override
+    public void setQueuedWalls(int numWalls)
+    {
+        // Nothing to display
+    }
+
+    @Override
+    public void setWallCooldownDeadline(long deadlineNanos)
+    {
+        // Nothing to display
+    }
+
+    @Override
+    public void setAvailableWallsText(int availableWalls)
+    {
+        // Nothing to display
+    }
+
+    @Override
+    public void updateArenaUi()
+    {
+        // Nothing to display
+    }
+
+    @Override
+    public void playSound(GameSound sound)
+    {
+        // Nothing to play
+    }
+
+    /*
+     * Blocks until gameOver() has been called, or until the timeout expires. 
+     * 
+     * Returns true if the game is over, and false if the timeout expired first.
+     */
+    public boolean awaitGameOver(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        return gameOverLatch.await(timeout, unit);
+    }
+
+    /*
+     * Returns the final score, or -1 if the game isn't over yet.
+     */
+    public int getFinalScore()
+    {
+        return finalScore;
+    }
+}
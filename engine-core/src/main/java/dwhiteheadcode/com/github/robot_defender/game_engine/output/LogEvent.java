@@ -0,0 +1,90 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.output;
+
+/*
+ * Something that happened in the game, to be shown in the log (see GameOutput.log()).
+ *
+ * Events only store their type and values. The message text is only built when format() is called, so
+ * logging an event is cheap (and can be done while holding a lock), and events that are never displayed
+ * are never formatted.
+ *
+ * Immutable, so can be passed between threads freely.
+ */
+public final class LogEvent
+{
+    public enum Type
+    {
+        ROBOT_SPAWNED,  // Robot 'robotId' spawned at (x, y)
+        WALL_SPAWNED,   // A wall was placed at (x, y)
+        ROBOT_HIT_WALL, // Robot 'robotId' hit the wall at (x, y)
+        MESSAGE         // Free text
+    }
+
+    private final Type type;
+    private final int robotId;
+    private final int x;
+    private final int y;
+    private final String text; // Only used by MESSAGE events
+
+    private LogEvent(Type type, int robotId, int x, int y, String text)
+    {
+        this.type = type;
+        this.robotId = robotId;
+        this.x = x;
+        this.y = y;
+        this.text = text;
+    }
+
+    public static LogEvent robotSpawned(int robotId, int x, int y)
+    {
+        return new LogEvent(Type.ROBOT_SPAWNED, robotId, x, y, null);
+    }
+
+    public static LogEvent wallSpawned(int x, int y)
+    {
+        return new LogEvent(Type.WALL_SPAWNED, 0, x, y, null);
+    }
+
+    public static LogEvent robotHitWall(int robotId, int x, int y)
+    {
+        return new LogEvent(Type.ROBOT_HIT_WALL, robotId, x, y, null);
+    }
+
+    public static LogEvent message(String text)
+    {
+        if(text == null)
+        {
+            throw new IllegalArgumentException("A log message's text can't be null.");
+        }
+
+        return new LogEvent(Type.MESSAGE, 0, 0, 0, text);
+    }
+
+    public Type getType()
+    {
+        return type;
+    }
+
+    /*
+     * Builds the message text for this event (one line, without a line separator)
+     */
+    public String format()
+    {
+        switch(type)
+        {
+            case ROBOT_SPAWNED:
+                return "Spawned robot '" + robotId + "' at (" + x + ", " + y + ")";
+            case WALL_SPAWNED:
+                return "Spawned wall at (" + x + ", " + y + ")";
+            case ROBOT_HIT_WALL:
+                return "Robot '" + robotId + "' hit a wall at (" + x + ", " + y + ")";
+            default: // MESSAGE
+                return text;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return format();
+    }
+}
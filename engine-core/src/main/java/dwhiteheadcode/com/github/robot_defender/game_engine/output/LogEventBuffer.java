@@ -0,0 +1,138 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.output;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * A bounded, lock-free ring buffer of LogEvents, with any number of writers (engine threads) and one reader
+ * (e.g. the UI thread), which drains it in batches.
+ *
+ * Each slot has a sequence number, which says whether the slot is ready to be written (sequence == the
+ * writer's position) or read (sequence == the reader's position + 1). A writer claims a position with a
+ * single compare-and-set on 'tail', then fills the slot and publishes it by advancing the slot's sequence.
+ * Neither side ever blocks.
+ *
+ * If the buffer is full, new events are dropped (and counted), rather than making engine threads wait for
+ * the UI.
+ */
+public class LogEventBuffer
+{
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<LogEvent> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong(0); // The next position to be claimed by a writer
+    private long head = 0; // The next position to be read. Only accessed by the reader
+    private final LongAdder dropped = new LongAdder();
+
+    /*
+     * 'capacity' is rounded up to a power of 2.
+     */
+    public LogEventBuffer(int capacity)
+    {
+        if(capacity < 1 || capacity > (1 << 30))
+        {
+            throw new IllegalArgumentException("Can't create a log buffer with capacity " + capacity);
+        }
+
+        this.capacity = ceilPowerOf2(capacity);
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+
+        for(int i = 0; i < this.capacity; i++)
+        {
+            sequences.set(i, i);
+        }
+    }
+
+    /*
+     * Adds 'event' to the buffer. Returns false (and counts the event as dropped) if the buffer is full.
+     *
+     * Thread: Any
+     */
+    public boolean offer(LogEvent event)
+    {
+        long position = tail.get();
+
+        while(true)
+        {
+            int slot = (int)(position & mask);
+            long difference = sequences.get(slot) - position;
+
+            if(difference == 0) // The slot is free: try to claim it
+            {
+                if(tail.compareAndSet(position, position + 1))
+                {
+                    break;
+                }
+                position = tail.get();
+            }
+            else if(difference < 0) // The slot still holds an event that hasn't been read
+            {
+                dropped.increment();
+                return false;
+            }
+            else // Another writer claimed this position first
+            {
+                position = tail.get();
+            }
+        }
+
+        int slot = (int)(position & mask);
+        slots.set(slot, event);
+        sequences.set(slot, position + 1); // Publishes the event to the reader
+        return true;
+    }
+
+    /*
+     * Moves up to 'maxEvents' events (oldest first) into 'batch'. Returns the number of events moved.
+     *
+     * Thread: Reader only
+     */
+    public int drainTo(Collection<LogEvent> batch, int maxEvents)
+    {
+        int drained = 0;
+
+        while(drained < maxEvents)
+        {
+            int slot = (int)(head & mask);
+            if(sequences.get(slot) != head + 1) // Nothing (fully) written here yet
+            {
+                break;
+            }
+
+            batch.add( slots.get(slot) );
+            slots.set(slot, null);
+            sequences.set(slot, head + capacity); // Frees the slot for the writer one lap ahead
+            head++;
+            drained++;
+        }
+
+        return drained;
+    }
+
+    /*
+     * Returns (and resets) the number of events dropped because the buffer was full.
+     *
+     * Thread: Any
+     */
+    public long takeDroppedCount()
+    {
+        return dropped.sumThenReset();
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    private static int ceilPowerOf2(int n)
+    {
+        int power = Integer.highestOneBit(n);
+        return power == n ? n : power << 1;
+    }
+}
@@ -0,0 +1,329 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.scheduling;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+
+/*
+ * A discrete-event RobotScheduler. 
+ * 
+ * Rather than each robot sleeping in its own thread, a fixed number of scheduler threads share a 
+ * priority queue of robot events (ordered by the time each robot's next action is due). When an 
+ * event is due, a scheduler thread runs that robot's action (Robot.act()), then re-queues the 
+ * robot for the time of its following action (the end of the move it just started, or its next
+ * move attempt). 
+ * 
+ * This keeps the number of threads constant, regardless of how many robots exist.
+ */
+public class EventRobotScheduler implements RobotScheduler
+{
+    private final PriorityQueue<RobotEvent> eventQueue = new PriorityQueue<>();
+    private RobotEvent[] activeEvents; // The event of each running robot, by the robot's slot in the GameEngine's RobotTable
+    private long nextSequence = 0; // Used to order events that are due at the same time (first scheduled, first run)
+
+    private final Thread[] schedulerThreads;
+    private final LongAdder actingThreads = new LongAdder(); // Scheduler threads currently running a robot's action. Doesn't need to be locked
+    private boolean started = false;
+    private boolean shutdown = false;
+
+    // Locks all of the above (except schedulerThreads, which is final)
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition eventAvailable = lock.newCondition(); // Signalled when a new event is at the head of eventQueue
+
+    public EventRobotScheduler(int numThreads)
+    {
+        if(numThreads < 1)
+        {
+            throw new IllegalArgumentException("EventRobotScheduler needs at least 1 thread.");
+        }
+
+        this.schedulerThreads = new Thread[numThreads];
+    }
+
+    /*
+     * Creates the table of events, with one entry per RobotTable slot
+     */
+    @Override
+    public void setGameEngine(GameEngine gameEngine)
+    {
+        lock.lock();
+        try
+        {
+            this.activeEvents = new RobotEvent[ gameEngine.getRobotTable().getCapacity() ];
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Schedules the robot's first action, after its initial delay. 
+     * 
+     * The scheduler threads are started when the first robot is started.
+     */
+    @Override
+    public void start(Robot robot)
+    {
+        lock.lock();
+        try
+        {
+            if(shutdown)
+            {
+                throw new IllegalStateException("Can't start a robot after the scheduler has been shut down.");
+            }
+
+            if(activeEvents == null)
+            {
+                throw new IllegalStateException("EventRobotScheduler's GameEngine must be set before robots can be started.");
+            }
+
+            if(!started)
+            {
+                startSchedulerThreads();
+            }
+
+            RobotEvent event = new RobotEvent(robot);
+            activeEvents[robot.getSlot()] = event;
+            queue(event, robot.getInitialDelayMillis());
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Marks the robot's event as cancelled, so that it won't be run (or re-queued) again.
+     * 
+     * Cancelled events are discarded when they reach the head of the queue, which avoids
+     * an O(n) removal from the middle of eventQueue.
+     */
+    @Override
+    public void cancel(Robot robot)
+    {
+        lock.lock();
+        try
+        {
+            int slot = robot.getSlot();
+
+            RobotEvent event = activeEvents[slot];
+            if(event != null) // May be null if robot spawned on a wall
+            {
+                event.cancelled = true;
+                activeEvents[slot] = null;
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Discards all events, and interrupts the scheduler threads.
+     */
+    @Override
+    public void shutdown()
+    {
+        lock.lock();
+        try
+        {
+            shutdown = true;
+            eventQueue.clear();
+
+            if(started)
+            {
+                for(Thread t : schedulerThreads)
+                {
+                    t.interrupt();
+                }
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Returns the number of scheduler threads currently running a robot's action
+     */
+    @Override
+    public int getActiveThreadCount()
+    {
+        return actingThreads.intValue();
+    }
+
+    /*
+     * Returns the number of scheduler threads (0 until the first robot is started)
+     */
+    @Override
+    public int getThreadCount()
+    {
+        lock.lock();
+        try
+        {
+            return started ? schedulerThreads.length : 0;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Creates and starts the scheduler threads. Must be called with 'lock' held.
+     */
+    private void startSchedulerThreads()
+    {
+        for(int i = 0; i < schedulerThreads.length; i++)
+        {
+            schedulerThreads[i] = new Thread( this::runEvents, "robot-scheduler-" + i );
+            schedulerThreads[i].setDaemon(true);
+            schedulerThreads[i].start();
+        }
+
+        started = true;
+    }
+
+    /*
+     * Runs a loop that takes each robot event as it becomes due, runs the robot's action, 
+     * then re-queues the robot for its next action.
+     * 
+     * Thread: robot-scheduler-N
+     */
+    private void runEvents()
+    {
+        try
+        {
+            while(true)
+            {
+                RobotEvent event = takeDueEvent();
+
+                long nextActionDelayMillis;
+                actingThreads.increment();
+                try
+                {
+                    nextActionDelayMillis = event.robot.act();
+                }
+                finally
+                {
+                    actingThreads.decrement();
+                }
+
+                lock.lock();
+                try
+                {
+                    if(!event.cancelled && !shutdown) // The robot may have been destroyed during its action
+                    {
+                        queue(event, nextActionDelayMillis);
+                    }
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+            }
+        }
+        catch(InterruptedException iE)
+        {
+            // Nothing needed here. The scheduler has been shut down
+        }
+    }
+
+    /*
+     * Blocks until the event at the head of the queue is due, then removes and returns it.
+     * Cancelled events are discarded.
+     */
+    private RobotEvent takeDueEvent() throws InterruptedException
+    {
+        lock.lockInterruptibly();
+        try
+        {
+            while(true)
+            {
+                RobotEvent next = eventQueue.peek();
+
+                if(next == null)
+                {
+                    eventAvailable.await();
+                }
+                else if(next.cancelled)
+                {
+                    eventQueue.poll();
+                }
+                else
+                {
+                    long delayNanos = next.dueNanos - System.nanoTime();
+
+                    if(delayNanos <= 0)
+                    {
+                        eventQueue.poll();
+                        eventAvailable.signal(); // Let another scheduler thread wait for the new head of the queue
+                        return next;
+                    }
+
+                    eventAvailable.awaitNanos(delayNanos);
+                }
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Adds the event to the queue, due after 'delayMillis'. Must be called with 'lock' held.
+     */
+    private void queue(RobotEvent event, long delayMillis)
+    {
+        event.dueNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        event.sequence = nextSequence++;
+
+        RobotEvent previousHead = eventQueue.peek();
+        eventQueue.add(event);
+
+        // If this is now the earliest event, a waiting scheduler thread needs to re-check its wait time
+        if(previousHead == null || event.compareTo(previousHead) < 0)
+        {
+            eventAvailable.signal();
+        }
+    }
+
+
+    /*
+     * The pending action of a single robot. Each robot has exactly one event, which is re-used 
+     * for each of its actions.
+     */
+    private static class RobotEvent implements Comparable<RobotEvent>
+    {
+        private final Robot robot;
+        private long dueNanos; // The System.nanoTime() at which the robot's next action is due
+        private long sequence;
+        private boolean cancelled = false;
+
+        private RobotEvent(Robot robot)
+        {
+            this.robot = robot;
+        }
+
+        @Override
+        public int compareTo(RobotEvent other)
+        {
+            if(this.dueNanos != other.dueNanos)
+            {
+                // Compare with subtraction, as nanoTime() values may overflow
+                return (this.dueNanos - other.dueNanos) < 0 ? -1 : 1;
+            }
+
+            return Long.compare(this.sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.scheduling;
+
+/*
+ * The ways that a GameEngine can run its robots. Used by GameEngineFactory to pick a RobotScheduler.
+ */
+public enum RobotExecutionMode
+{
+    THREAD_PER_ROBOT, // Each robot runs (and sleeps) in its own pooled thread. See ThreadPoolRobotScheduler
+    VIRTUAL_THREAD, // Each robot runs (and sleeps) in its own virtual thread. Requires Java 21+. See VirtualThreads
+    DISCRETE_EVENT, // A fixed number of threads run robot actions as timed events. See EventRobotScheduler
+    PARALLEL_TICK // All robots move in lockstep ticks, with regions of the grid processed in parallel. See TickRobotScheduler
+}
@@ -0,0 +1,64 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.scheduling;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+
+/*
+ * Responsible for running the movement logic (Robot.act()) of every active Robot.
+ * 
+ * The GameEngine doesn't know (or care) which thread(s) a robot's actions are run on, only 
+ * that each robot acts no more than one action at a time.
+ */
+public interface RobotScheduler
+{
+    /*
+     * Called by GameEngineFactory once the GameEngine has been created. Only needed by schedulers
+     * that update the game state directly (rather than through each Robot).
+     */
+    default void setGameEngine(GameEngine gameEngine)
+    {
+        // Not needed by default
+    }
+
+    /*
+     * Starts running the given robot's movement logic.
+     * 
+     * Thread: Robot-spawn-consumer
+     */
+    void start(Robot robot);
+
+    /*
+     * Stops running the given robot's movement logic. Does nothing if the robot isn't running.
+     * 
+     * Note: This may be called from within the robot's own action (e.g. if it moved into a wall). 
+     * 
+     * Thread: Robot thread, or robot-spawn-consumer
+     */
+    void cancel(Robot robot);
+
+    /*
+     * Stops running all robots. The scheduler can't be used again after this is called.
+     */
+    void shutdown();
+
+    /*
+     * Returns the number of the scheduler's threads that are currently running robots' actions (for
+     * monitoring, see GameEngineMetrics). Only an estimate, as threads start and finish actions concurrently.
+     *
+     * Thread: Any
+     */
+    default int getActiveThreadCount()
+    {
+        return 0; // No threads of its own by default
+    }
+
+    /*
+     * Returns the number of threads the scheduler currently has (whether running actions, or waiting).
+     *
+     * Thread: Any
+     */
+    default int getThreadCount()
+    {
+        return 0; // No threads of its own by default
+    }
+}
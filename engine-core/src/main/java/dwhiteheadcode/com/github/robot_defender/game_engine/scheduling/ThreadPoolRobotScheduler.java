@@ -0,0 +1,145 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.scheduling;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+
+/*
+ * A RobotScheduler that runs each Robot as a task in an ExecutorService. Each task occupies
+ * one thread for the lifetime of the robot, sleeping between actions (see Robot.run()).
+ */
+public class ThreadPoolRobotScheduler implements RobotScheduler
+{
+    private final ExecutorService executorService;
+    private final LongAdder runningRobots = new LongAdder(); // Robot tasks that have started, and not yet finished
+
+    private Future<?>[] robotFutures; // All robot TASKS (futures), by the robot's slot in the GameEngine's RobotTable. Locked with robotFuturesLock.
+    private final ReentrantLock robotFuturesLock = new ReentrantLock(); // Not synchronized, to avoid pinning virtual threads
+
+    public ThreadPoolRobotScheduler(ExecutorService executorService)
+    {
+        this.executorService = executorService;
+    }
+
+    /*
+     * Creates the table of Futures, with one entry per RobotTable slot
+     */
+    @Override
+    public void setGameEngine(GameEngine gameEngine)
+    {
+        robotFuturesLock.lock();
+        try
+        {
+            this.robotFutures = new Future<?>[ gameEngine.getRobotTable().getCapacity() ];
+        }
+        finally
+        {
+            robotFuturesLock.unlock();
+        }
+    }
+
+    /*
+     * Starts the robot's Runnable using the thread pool, and stores a reference to its execution 
+     * in the table (so it can be interrupted later)
+     */
+    @Override
+    public void start(Robot robot)
+    {
+        robotFuturesLock.lock();
+        try
+        {
+            if(robotFutures == null)
+            {
+                throw new IllegalStateException("ThreadPoolRobotScheduler's GameEngine must be set before robots can be started.");
+            }
+
+            Future<?> f = executorService.submit( () -> run(robot) );
+            robotFutures[robot.getSlot()] = f;
+        }
+        finally
+        {
+            robotFuturesLock.unlock();
+        }
+    }
+
+    /*
+     * Interrupts the robot's task, and removes it from the table of Futures
+     */
+    @Override
+    public void cancel(Robot robot)
+    {
+        int slot = robot.getSlot();
+
+        robotFuturesLock.lock();
+        try
+        {
+            Future<?> future = robotFutures[slot];
+            if(future != null) // May be null if robot spawned on a wall
+            {
+                future.cancel(true);
+                robotFutures[slot] = null;
+            }
+        }
+        finally
+        {
+            robotFuturesLock.unlock();
+        }
+    }
+
+    /*
+     * Interrupts all Robot threads
+     */
+    @Override
+    public void shutdown()
+    {
+        executorService.shutdownNow();
+    }
+
+    /*
+     * Returns the number of robot tasks currently running. Each occupies a thread for the robot's lifetime
+     * (sleeping between actions), so this is the number of threads in use.
+     */
+    @Override
+    public int getActiveThreadCount()
+    {
+        return runningRobots.intValue();
+    }
+
+    /*
+     * Returns the thread pool's current size. An executor that isn't a pool (e.g. one virtual thread per task)
+     * has a thread per running robot.
+     */
+    @Override
+    public int getThreadCount()
+    {
+        if(executorService instanceof ThreadPoolExecutor pool)
+        {
+            return pool.getPoolSize();
+        }
+
+        return runningRobots.intValue();
+    }
+
+    /*
+     * Runs the robot, counting it as running until it finishes (or is cancelled)
+     *
+     * Thread: Robot thread
+     */
+    private void run(Robot robot)
+    {
+        runningRobots.increment();
+        try
+        {
+            robot.run();
+        }
+        finally
+        {
+            runningRobots.decrement();
+        }
+    }
+}
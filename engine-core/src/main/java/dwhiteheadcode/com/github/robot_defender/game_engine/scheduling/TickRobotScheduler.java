@@ -0,0 +1,583 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.scheduling;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.RobotMotion;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.moves.Direction;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+import dwhiteheadcode.com.github.robot_defender.game_engine.components.RobotTable;
+
+/*
+ * A lockstep RobotScheduler, for very large arenas.
+ *
+ * Time is divided into ticks (of TICK_LENGTH). Each tick, the "robot-tick" thread:
+ *     1. Completes the moves that finish this tick (in robot ID order), using GameEngine.moveCompleted().
+ *        This handles wall and citadel collisions exactly as in the other modes (and only locks gameStateLock
+ *        when the robot reaches a wall or the citadel).
+ *     2. Splits the grid into square tiles, and processes each tile in parallel on a ForkJoinPool. For each
+ *        robot in the tile whose next action is due, the robot plans its moves (Robot.planMoves()), and tries
+ *        them in order of preference.
+ *        Destinations inside the tile are claimed immediately, with the grid's compare-and-set (see
+ *        GameEngine.occupyIfFree()), without locking gameStateLock. Only this tile's task claims this tile's
+ *        Locations for robots, though robot-spawn-consumer may claim a spawn square at the same time (in which
+ *        case one of the two claims fails). If the robot reaches a destination in another tile, it is deferred
+ *        to the merge phase.
+ *     3. Merge phase: deferred robots (which want to cross a tile boundary) continue trying their moves, one
+ *        robot at a time, in robot ID order. This makes the resolution of cross-tile conflicts deterministic.
+ *        This is the only phase run while holding gameStateLock (once for the whole phase, rather than once
+ *        per move), so that no robots are spawned, and no walls placed, while the conflicts are resolved.
+ *
+ * A robot's timing is the same as in the other modes (rounded up to whole ticks): it waits for its move delay,
+ * then takes MOVE_DURATION to make the move. Robots aren't touched part way through a move (the renderer works
+ * out their positions from their RobotMotions), so a robot only does work on the ticks its moves start and end.
+ *
+ * Destroyed robots are found (and dropped) by comparing the generation of their slot in the GameEngine's
+ * RobotTable, so the scheduler doesn't need its own map of running robots.
+ */
+public class TickRobotScheduler implements RobotScheduler
+{
+    private static final Duration TICK_LENGTH = Duration.ofMillis(40); // The granularity of robots' timing
+    private static final long MOVE_TICKS = toTicks(Robot.MOVE_DURATION);
+    private static final Duration MOVE_LENGTH = TICK_LENGTH.multipliedBy(MOVE_TICKS); // MOVE_DURATION, rounded up to whole ticks
+    private static final int PLANNED_MOVE_BITS = 2; // Bits per Direction in a TickRobot's packed plan (enough for Direction.COUNT)
+    private static final int PLANNED_MOVE_MASK = (1 << PLANNED_MOVE_BITS) - 1;
+    private static final Comparator<TickRobot> BY_ROBOT_ID = Comparator.comparingInt( t -> t.robot.getId() );
+
+    private final int tileSize; // The width and height (in grid squares) of each tile
+    private final ForkJoinPool tilePool;
+    private GameEngine gameEngine;
+    private RobotTable robotTable;
+
+    private final Queue<TickRobot> startedRobots = new ConcurrentLinkedQueue<>(); // Robots started since the last tick
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile boolean shutdown = false;
+    private volatile Thread tickThread;
+    private volatile boolean ticking = false; // True while the robot-tick thread is running a tick (for monitoring)
+
+    // Only accessed by the robot-tick thread (and the tile tasks it runs)
+    private final List<TickRobot> activeRobots = new ArrayList<>();
+    private final List<TickRobot> completingRobots = new ArrayList<>();
+    private final List<TickRobot> deferredRobots = new ArrayList<>();
+    private Tile[] tiles;
+    private int numTilesX; // Tiles per row of 'tiles'
+    private long currentTick = 0;
+    private boolean robotsChanged; // True if any move started or finished this tick
+
+
+    public TickRobotScheduler(int tileSize, int parallelism)
+    {
+        if(tileSize < 1)
+        {
+            throw new IllegalArgumentException("TickRobotScheduler's tiles must be at least 1 square wide.");
+        }
+
+        this.tileSize = tileSize;
+        this.tilePool = new ForkJoinPool(parallelism);
+    }
+
+    @Override
+    public void setGameEngine(GameEngine gameEngine)
+    {
+        this.gameEngine = gameEngine;
+        this.robotTable = gameEngine.getRobotTable();
+    }
+
+    /*
+     * Adds the robot to the simulation at the start of the next tick. The robot-tick thread is started
+     * when the first robot is started.
+     */
+    @Override
+    public void start(Robot robot)
+    {
+        if(this.gameEngine == null)
+        {
+            throw new IllegalStateException("TickRobotScheduler's GameEngine must be set before robots can be started.");
+        }
+
+        if(shutdown)
+        {
+            throw new IllegalStateException("Can't start a robot after the scheduler has been shut down.");
+        }
+
+        // The robot was placed by this thread (see RobotTable.getGeneration()), and can't be destroyed before it starts
+        TickRobot tickRobot = new TickRobot( robot, robotTable.getGeneration(robot.getSlot()) );
+        startedRobots.add(tickRobot);
+
+        if(started.compareAndSet(false, true))
+        {
+            tickThread = new Thread( this::runTicks, "robot-tick" );
+            tickThread.setDaemon(true);
+            tickThread.start();
+        }
+    }
+
+    /*
+     * Does nothing: a destroyed robot's slot has moved on to its next generation, so the robot is skipped from
+     * then on, and removed from the simulation at the end of the current tick (see TickRobot.isLive()).
+     */
+    @Override
+    public void cancel(Robot robot)
+    {
+        // Nothing needed here
+    }
+
+    @Override
+    public void shutdown()
+    {
+        shutdown = true;
+
+        if(tickThread == null)
+        {
+            tilePool.shutdown();
+        }
+        else
+        {
+            tickThread.interrupt(); // The robot-tick thread shuts down tilePool when it finishes its current tick
+        }
+    }
+
+    /*
+     * Returns the number of threads currently running a tick: the robot-tick thread, and the tile pool's 
+     * threads that are processing tiles.
+     */
+    @Override
+    public int getActiveThreadCount()
+    {
+        return (ticking ? 1 : 0) + tilePool.getActiveThreadCount();
+    }
+
+    /*
+     * Returns the number of threads: the robot-tick thread (once started), and the tile pool's current threads
+     */
+    @Override
+    public int getThreadCount()
+    {
+        return (tickThread == null ? 0 : 1) + tilePool.getPoolSize();
+    }
+
+    /*
+     * Runs a tick every TICK_LENGTH. If a tick takes longer than TICK_LENGTH, the following ticks are
+     * run immediately, until the simulation has caught up.
+     *
+     * Thread: robot-tick
+     */
+    private void runTicks()
+    {
+        long tickNanos = TICK_LENGTH.toNanos();
+        long nextTickNanos = System.nanoTime() + tickNanos;
+
+        try
+        {
+            while(!shutdown)
+            {
+                long sleepNanos = nextTickNanos - System.nanoTime();
+                if(sleepNanos > 0)
+                {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                }
+
+                ticking = true;
+                runTick();
+                ticking = false;
+                nextTickNanos += tickNanos;
+            }
+        }
+        catch(InterruptedException iE)
+        {
+            // Nothing needed here. The scheduler has been shut down
+        }
+        finally
+        {
+            tilePool.shutdown();
+        }
+    }
+
+    /*
+     * Advances the simulation by one tick. See the class comment for details.
+     *
+     * Thread: robot-tick
+     */
+    private void runTick()
+    {
+        currentTick++;
+        robotsChanged = false;
+
+        // Add newly started robots
+        TickRobot newRobot = startedRobots.poll();
+        while(newRobot != null)
+        {
+            newRobot.dueTick = currentTick + toTicks( newRobot.robot.getInitialDelayMillis() );
+            activeRobots.add(newRobot);
+            newRobot = startedRobots.poll();
+        }
+
+        if(tiles == null)
+        {
+            createTiles();
+        }
+
+        completeMoves();
+        runTiles();
+        gameEngine.runLocked(this::mergeDeferredMoves);
+
+        // Remove robots that were destroyed this tick
+        activeRobots.removeIf( t -> !t.isLive() );
+
+        if(robotsChanged)
+        {
+            gameEngine.robotsMoved();
+        }
+    }
+
+    /*
+     * Phase 1: Completes each move that finishes this tick, in robot ID order.
+     */
+    private void completeMoves()
+    {
+        completingRobots.clear();
+
+        for(TickRobot t : activeRobots)
+        {
+            if(t.isDue() && t.moving)
+            {
+                completingRobots.add(t);
+            }
+        }
+
+        completingRobots.sort(BY_ROBOT_ID);
+
+        for(TickRobot t : completingRobots)
+        {
+            t.robot.setPosition(t.endX, t.endY);
+            t.robot.setMotion(null);
+            t.moving = false;
+            robotsChanged = true;
+
+            // May destroy the robot (if it hit a wall), which frees its slot
+            gameEngine.moveCompleted(t.robot, t.startX, t.startY, t.endX, t.endY);
+
+            t.waitForNextMove();
+        }
+    }
+
+    /*
+     * Phase 2: Sorts each due robot into the tile containing its (start) Location, then processes all
+     * tiles in parallel.
+     */
+    private void runTiles()
+    {
+        List<Tile> busyTiles = new ArrayList<>();
+
+        for(TickRobot t : activeRobots)
+        {
+            if(t.isDue() && t.isLive())
+            {
+                Tile tile = tileAt( t.startX(), t.startY() );
+
+                if(tile.robots.isEmpty())
+                {
+                    busyTiles.add(tile);
+                }
+
+                tile.robots.add(t);
+            }
+        }
+
+        if(!busyTiles.isEmpty())
+        {
+            tilePool.invoke( new TileTask(busyTiles, 0, busyTiles.size()) );
+        }
+
+        // Collect the robots that need to cross tile boundaries, and reset the tiles for the next tick
+        deferredRobots.clear();
+        for(Tile tile : busyTiles)
+        {
+            deferredRobots.addAll(tile.deferredRobots);
+            robotsChanged |= tile.movesStarted;
+
+            tile.robots.clear();
+            tile.deferredRobots.clear();
+            tile.movesStarted = false;
+        }
+    }
+
+    /*
+     * Processes the due robots of a single tile. Only this tile's Locations are modified.
+     *
+     * Thread: ForkJoinPool worker
+     */
+    private void runTile(Tile tile)
+    {
+        tile.robots.sort(BY_ROBOT_ID);
+
+        for(TickRobot t : tile.robots)
+        {
+            t.plannedMoves = pack( t.robot.planMoves() ); // Packed, as planMoves() reuses its array for the next robot
+            t.nextPlannedMove = 0;
+
+            if( tryPlannedMoves(t, tile) )
+            {
+                tile.deferredRobots.add(t);
+            }
+        }
+    }
+
+    /*
+     * Phase 3: Robots that want to cross a tile boundary continue trying their moves, in robot ID order.
+     */
+    private void mergeDeferredMoves()
+    {
+        deferredRobots.sort(BY_ROBOT_ID);
+
+        for(TickRobot t : deferredRobots)
+        {
+            tryPlannedMoves(t, null);
+        }
+    }
+
+    /*
+     * Tries the robot's planned moves in order, starting from t.nextPlannedMove, until one succeeds or
+     * none are left (in which case the robot waits for its move delay).
+     *
+     * If 'tile' is not null, only destinations inside that tile can be claimed. When a destination outside
+     * the tile is reached, this stops and returns true (meaning the robot must be deferred). Otherwise,
+     * returns false.
+     */
+    private boolean tryPlannedMoves(TickRobot t, Tile tile)
+    {
+        int startX = t.startX();
+        int startY = t.startY();
+
+        while(t.nextPlannedMove < Direction.COUNT)
+        {
+            Direction move = t.plannedMove(t.nextPlannedMove);
+
+            int endX = startX + move.dx();
+            int endY = startY + move.dy();
+
+            // Discard moves that would put the robot out of bounds
+            if(endX < 0 || endX >= gameEngine.getNumCols() || endY < 0 || endY >= gameEngine.getNumRows())
+            {
+                t.nextPlannedMove++;
+                continue;
+            }
+
+            if(tile != null && tileIndex(endX, endY) != tile.index)
+            {
+                return true;
+            }
+
+            if( gameEngine.occupyIfFree(t.robot, endX, endY) )
+            {
+                t.startMove(startX, startY, endX, endY);
+
+                if(tile == null)
+                {
+                    robotsChanged = true;
+                }
+                else
+                {
+                    tile.movesStarted = true; // Merged into robotsChanged after the tile tasks finish
+                }
+                return false;
+            }
+
+            t.nextPlannedMove++;
+        }
+
+        // No move was possible
+        t.waitForNextMove();
+        return false;
+    }
+
+    private void createTiles()
+    {
+        this.numTilesX = ceilDiv( gameEngine.getNumCols(), tileSize );
+        int numTilesY = ceilDiv( gameEngine.getNumRows(), tileSize );
+
+        this.tiles = new Tile[numTilesX * numTilesY];
+        for(int i = 0; i < tiles.length; i++)
+        {
+            tiles[i] = new Tile(i);
+        }
+    }
+
+    private Tile tileAt(int x, int y)
+    {
+        return tiles[ tileIndex(x, y) ];
+    }
+
+    private int tileIndex(int x, int y)
+    {
+        return (y / tileSize) * numTilesX + (x / tileSize);
+    }
+
+    private static int ceilDiv(int a, int b)
+    {
+        return (a + b - 1) / b;
+    }
+
+    /*
+     * Returns the number of ticks in 'duration' (rounded up, and at least 1)
+     */
+    private static long toTicks(Duration duration)
+    {
+        return toTicks( duration.toMillis() );
+    }
+
+    /*
+     * Returns the number of ticks in 'millis' milliseconds (rounded up, and at least 1)
+     */
+    private static long toTicks(long millis)
+    {
+        long tickMillis = TICK_LENGTH.toMillis();
+        return Math.max(1, (millis + tickMillis - 1) / tickMillis);
+    }
+
+    /*
+     * Packs a planned move order into an int, with each Direction's ordinal in PLANNED_MOVE_BITS bits (the first
+     * move in the lowest bits)
+     */
+    private static int pack(Direction[] moveOrder)
+    {
+        int packed = 0;
+        for(int i = 0; i < Direction.COUNT; i++)
+        {
+            packed |= moveOrder[i].ordinal() << (i * PLANNED_MOVE_BITS);
+        }
+        return packed;
+    }
+
+
+    /*
+     * A region of the grid, and the robots in it that are due to act this tick.
+     */
+    private static class Tile
+    {
+        private final int index; // Index of this tile in 'tiles'
+        private final List<TickRobot> robots = new ArrayList<>();
+        private final List<TickRobot> deferredRobots = new ArrayList<>(); // Robots that want to move out of this tile
+        private boolean movesStarted = false; // True if any robot in this tile started a move this tick
+
+        private Tile(int index)
+        {
+            this.index = index;
+        }
+    }
+
+    /*
+     * Processes tiles[from, to) in parallel, by splitting the range in half until each task has one tile.
+     */
+    private class TileTask extends RecursiveAction
+    {
+        private final List<Tile> busyTiles;
+        private final int from;
+        private final int to;
+
+        private TileTask(List<Tile> busyTiles, int from, int to)
+        {
+            this.busyTiles = busyTiles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if(to - from == 1)
+            {
+                runTile( busyTiles.get(from) );
+            }
+            else
+            {
+                int middle = (from + to) / 2;
+                invokeAll( new TileTask(busyTiles, from, middle), new TileTask(busyTiles, middle, to) );
+            }
+        }
+    }
+
+    /*
+     * The simulation state of a single robot.
+     */
+    private class TickRobot
+    {
+        private final Robot robot;
+        private final int generation; // The generation of the robot's slot when it started (see isLive())
+        private long dueTick; // The tick on which the robot's next action is due
+
+        // The robot's current move
+        private boolean moving = false;
+        private int startX;
+        private int startY;
+        private int endX;
+        private int endY;
+
+        // The moves planned this tick (see pack()), and the index of the next one to try
+        private int plannedMoves;
+        private int nextPlannedMove;
+
+        private TickRobot(Robot robot, int generation)
+        {
+            this.robot = robot;
+            this.generation = generation;
+        }
+
+        // False once the robot has been destroyed (which frees its slot). Must be called by the robot-tick thread,
+        // which is the only thread that destroys robots once they've started (see GameEngine.moveCompleted())
+        private boolean isLive()
+        {
+            return robotTable.getGeneration( robot.getSlot() ) == generation;
+        }
+
+        private Direction plannedMove(int index)
+        {
+            return Direction.of( (plannedMoves >>> (index * PLANNED_MOVE_BITS)) & PLANNED_MOVE_MASK );
+        }
+
+        private boolean isDue()
+        {
+            return dueTick <= currentTick;
+        }
+
+        // The X coordinate of the Location this robot currently occupies (or is moving from)
+        private int startX()
+        {
+            return moving ? startX : robot.getX();
+        }
+
+        // The Y coordinate of the Location this robot currently occupies (or is moving from)
+        private int startY()
+        {
+            return moving ? startY : robot.getY();
+        }
+
+        // Starts a move (which has already been approved). The robot isn't touched again until the move ends
+        private void startMove(int startX, int startY, int endX, int endY)
+        {
+            this.moving = true;
+            this.startX = startX;
+            this.startY = startY;
+            this.endX = endX;
+            this.endY = endY;
+
+            robot.setMotion( new RobotMotion(startX, startY, endX, endY, System.nanoTime(), MOVE_LENGTH) );
+            dueTick = currentTick + MOVE_TICKS;
+        }
+
+        private void waitForNextMove()
+        {
+            dueTick = currentTick + toTicks( robot.getMoveDelayMillis() );
+        }
+    }
+}
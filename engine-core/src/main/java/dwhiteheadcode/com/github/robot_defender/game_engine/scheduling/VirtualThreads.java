@@ -0,0 +1,61 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.scheduling;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Provides access to virtual threads, which are only available on Java 21+.
+ * 
+ * The project is compiled for Java 17, so Executors.newVirtualThreadPerTaskExecutor() is looked up
+ * at runtime rather than called directly.
+ */
+public final class VirtualThreads
+{
+    private static final String FACTORY_METHOD_NAME = "newVirtualThreadPerTaskExecutor";
+
+    private VirtualThreads()
+    {
+        // Not instantiable
+    }
+
+    /*
+     * Returns true if the running JVM supports virtual threads.
+     */
+    public static boolean isSupported()
+    {
+        try
+        {
+            Executors.class.getMethod(FACTORY_METHOD_NAME);
+            return true;
+        }
+        catch(NoSuchMethodException e)
+        {
+            return false;
+        }
+    }
+
+    /*
+     * Returns an ExecutorService that starts a new virtual thread for each task.
+     * 
+     * Throws UnsupportedOperationException if the running JVM doesn't support virtual threads.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor()
+    {
+        try
+        {
+            Method factoryMethod = Executors.class.getMethod(FACTORY_METHOD_NAME);
+            return (ExecutorService) factoryMethod.invoke(null);
+        }
+        catch(NoSuchMethodException e)
+        {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later (running " 
+                + System.getProperty("java.version") + ").", e);
+        }
+        catch(IllegalAccessException | InvocationTargetException e)
+        {
+            throw new IllegalStateException("Couldn't create a virtual thread executor.", e);
+        }
+    }
+}
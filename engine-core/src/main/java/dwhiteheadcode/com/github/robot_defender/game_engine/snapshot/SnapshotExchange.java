@@ -0,0 +1,61 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.snapshot;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Passes WorldSnapshots from one writer (the snapshot publisher) to one reader (the UI), without locking,
+ * using three reused snapshots:
+ *     - The writer's snapshot, which it fills
+ *     - The latest published snapshot, held in 'latest'
+ *     - The reader's snapshot, which it draws
+ *
+ * Publishing swaps the writer's snapshot with 'latest'. Reading swaps the reader's snapshot with 'latest',
+ * if 'latest' is newer. Neither side ever waits for the other, and a snapshot is never modified while the
+ * reader holds it.
+ */
+public class SnapshotExchange
+{
+    private final AtomicReference<WorldSnapshot> latest = new AtomicReference<>(new WorldSnapshot());
+    private WorldSnapshot writeSnapshot = new WorldSnapshot(); // Only accessed by the writer
+    private WorldSnapshot readSnapshot = new WorldSnapshot(); // Only accessed by the reader
+    private long nextSequence = 1; // Only accessed by the writer
+
+    /*
+     * Returns the (emptied) snapshot for the writer to fill. Call publish() when it's filled.
+     *
+     * Thread: Writer
+     */
+    public WorldSnapshot beginWrite()
+    {
+        writeSnapshot.clear();
+        return writeSnapshot;
+    }
+
+    /*
+     * Makes the snapshot returned by beginWrite() the latest one.
+     *
+     * Thread: Writer
+     */
+    public void publish()
+    {
+        writeSnapshot.setSequence(nextSequence);
+        nextSequence++;
+
+        writeSnapshot = latest.getAndSet(writeSnapshot);
+    }
+
+    /*
+     * Returns the most recently published snapshot. It remains valid (and unmodified) until the next call.
+     *
+     * Thread: Reader
+     */
+    public WorldSnapshot read()
+    {
+        if(latest.get().getSequence() > readSnapshot.getSequence())
+        {
+            readSnapshot = latest.getAndSet(readSnapshot);
+        }
+
+        return readSnapshot;
+    }
+}
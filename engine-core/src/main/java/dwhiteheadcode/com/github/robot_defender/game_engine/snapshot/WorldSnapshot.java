@@ -0,0 +1,330 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.snapshot;
+
+import java.util.Arrays;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.RobotMotion;
+
+/*
+ * A copy of the robots and walls in the arena at one point in time, for the renderer.
+ *
+ * Snapshots are stored as parallel primitive arrays, and are reused (see SnapshotExchange): the publisher
+ * refills a snapshot in place, and its arrays only grow when there are more entities than ever before. So,
+ * in the steady state, publishing and rendering don't allocate.
+ *
+ * Moving robots are stored as their move (start and end square, start time and duration), so the renderer can
+ * work out their position at the time each frame is drawn (see getRobotX() and getRobotY()).
+ *
+ * Robots and walls are also indexed by tile (a square block of TILE_SIZE x TILE_SIZE grid squares, see
+ * indexTiles()), so the renderer can visit only the entities in the part of the arena it's showing.
+ *
+ * Once a snapshot has been published, it isn't modified until the renderer has swapped it out. The renderer
+ * can treat it as immutable.
+ *
+ * Thread: Filled by the snapshot publisher, read by the UI
+ */
+public class WorldSnapshot
+{
+    public static final int TILE_SIZE = 16; // The width and height of a tile, in grid squares
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private volatile long sequence = 0; // Increases with each publish. 0 means never published
+
+    private int robotCount = 0;
+    private int[] robotIds = new int[INITIAL_CAPACITY];
+    private int[] robotSlots = new int[INITIAL_CAPACITY]; // The robot's slot in the GameEngine's RobotTable
+    private double[] robotStartXs = new double[INITIAL_CAPACITY];
+    private double[] robotStartYs = new double[INITIAL_CAPACITY];
+    private double[] robotEndXs = new double[INITIAL_CAPACITY];
+    private double[] robotEndYs = new double[INITIAL_CAPACITY];
+    private long[] robotMoveStartNanos = new long[INITIAL_CAPACITY];
+    private long[] robotMoveDurationNanos = new long[INITIAL_CAPACITY]; // 0 if the robot isn't moving
+    private long latestMoveEndNanos = Long.MIN_VALUE; // When the last move in this snapshot finishes
+
+    private int wallCount = 0;
+    private int[] wallXs = new int[INITIAL_CAPACITY];
+    private int[] wallYs = new int[INITIAL_CAPACITY];
+    private boolean[] wallsDamaged = new boolean[INITIAL_CAPACITY];
+
+    // Tile index. Tiles are numbered row by row (tileY * tileCols + tileX). The entities in tile t are at
+    // positions tileStarts[t] to tileStarts[t + 1] - 1 of the 'byTile' array
+    private int tileCols = 0; // 0 until indexTiles() is called
+    private int tileRows = 0;
+    private int[] robotTileStarts = new int[1];
+    private int[] robotsByTile = new int[INITIAL_CAPACITY];
+    private int[] wallTileStarts = new int[1];
+    private int[] wallsByTile = new int[INITIAL_CAPACITY];
+    private int[] entityTiles = new int[INITIAL_CAPACITY]; // Scratch space for indexTiles()
+
+    // READING (UI) ----------------------------
+
+    public long getSequence()
+    {
+        return sequence;
+    }
+
+    public int getRobotCount()
+    {
+        return robotCount;
+    }
+
+    public int getRobotId(int i)
+    {
+        return robotIds[i];
+    }
+
+    /*
+     * Returns robot i's slot in the GameEngine's RobotTable. Slots are reused once their robot is destroyed,
+     * but no two robots in one snapshot share a slot, and slots stay below the peak number of robots (so the
+     * renderer can index its own per-robot arrays by slot, rather than by ever-increasing ID).
+     */
+    public int getRobotSlot(int i)
+    {
+        return robotSlots[i];
+    }
+
+    /*
+     * Returns robot i's X coordinate at 'nowNanos' (in System.nanoTime() units)
+     */
+    public double getRobotX(int i, long nowNanos)
+    {
+        double progress = RobotMotion.progress(robotMoveStartNanos[i], robotMoveDurationNanos[i], nowNanos);
+        return robotStartXs[i] + (robotEndXs[i] - robotStartXs[i]) * progress;
+    }
+
+    /*
+     * Returns robot i's Y coordinate at 'nowNanos' (in System.nanoTime() units)
+     */
+    public double getRobotY(int i, long nowNanos)
+    {
+        double progress = RobotMotion.progress(robotMoveStartNanos[i], robotMoveDurationNanos[i], nowNanos);
+        return robotStartYs[i] + (robotEndYs[i] - robotStartYs[i]) * progress;
+    }
+
+    /*
+     * Returns true if any robot in this snapshot is still moving at 'nowNanos' (so the renderer needs to 
+     * keep redrawing, even if no new snapshot is published)
+     */
+    public boolean hasMovingRobots(long nowNanos)
+    {
+        return nowNanos < latestMoveEndNanos;
+    }
+
+    public int getWallCount()
+    {
+        return wallCount;
+    }
+
+    public int getWallX(int i)
+    {
+        return wallXs[i];
+    }
+
+    public int getWallY(int i)
+    {
+        return wallYs[i];
+    }
+
+    public boolean isWallDamaged(int i)
+    {
+        return wallsDamaged[i];
+    }
+
+    /*
+     * Returns the number of columns of tiles (0 if the snapshot hasn't been indexed)
+     */
+    public int getTileCols()
+    {
+        return tileCols;
+    }
+
+    /*
+     * Returns the number of rows of tiles (0 if the snapshot hasn't been indexed)
+     */
+    public int getTileRows()
+    {
+        return tileRows;
+    }
+
+    /*
+     * Returns the position (in tile order) of the first robot in 'tile'. The robots in a run of tiles 
+     * a to b (e.g. part of a row of tiles) are at positions getRobotTileStart(a) to getRobotTileStart(b + 1) - 1.
+     *
+     * Robots are indexed by the square they're moving from, so a moving robot may be drawn up to one square
+     * outside its tile.
+     */
+    public int getRobotTileStart(int tile)
+    {
+        return robotTileStarts[tile];
+    }
+
+    /*
+     * Returns the index (for getRobotX(), etc.) of the robot at 'position' in tile order
+     */
+    public int getRobotByTile(int position)
+    {
+        return robotsByTile[position];
+    }
+
+    /*
+     * Returns the position (in tile order) of the first wall in 'tile' (see getRobotTileStart())
+     */
+    public int getWallTileStart(int tile)
+    {
+        return wallTileStarts[tile];
+    }
+
+    /*
+     * Returns the index (for getWallX(), etc.) of the wall at 'position' in tile order
+     */
+    public int getWallByTile(int position)
+    {
+        return wallsByTile[position];
+    }
+
+    // WRITING (Snapshot publisher) ----------------------------
+
+    /*
+     * Empties this snapshot, so it can be refilled. Keeps the arrays.
+     */
+    public void clear()
+    {
+        robotCount = 0;
+        wallCount = 0;
+        latestMoveEndNanos = Long.MIN_VALUE;
+    }
+
+    /*
+     * Adds a robot that isn't moving
+     */
+    public void addRobot(int slot, int id, double x, double y)
+    {
+        addRobot(slot, id, x, y, x, y, 0, 0);
+    }
+
+    /*
+     * Adds a robot that is making 'motion'
+     */
+    public void addMovingRobot(int slot, int id, RobotMotion motion)
+    {
+        addRobot(slot, id, motion.getStartX(), motion.getStartY(), motion.getEndX(), motion.getEndY(), 
+            motion.getStartNanos(), motion.getDurationNanos());
+
+        latestMoveEndNanos = Math.max(latestMoveEndNanos, motion.getStartNanos() + motion.getDurationNanos());
+    }
+
+    private void addRobot(int slot, int id, double startX, double startY, double endX, double endY, long moveStartNanos, long moveDurationNanos)
+    {
+        if(robotCount == robotIds.length)
+        {
+            int capacity = robotCount * 2;
+            robotIds = Arrays.copyOf(robotIds, capacity);
+            robotSlots = Arrays.copyOf(robotSlots, capacity);
+            robotStartXs = Arrays.copyOf(robotStartXs, capacity);
+            robotStartYs = Arrays.copyOf(robotStartYs, capacity);
+            robotEndXs = Arrays.copyOf(robotEndXs, capacity);
+            robotEndYs = Arrays.copyOf(robotEndYs, capacity);
+            robotMoveStartNanos = Arrays.copyOf(robotMoveStartNanos, capacity);
+            robotMoveDurationNanos = Arrays.copyOf(robotMoveDurationNanos, capacity);
+        }
+
+        robotIds[robotCount] = id;
+        robotSlots[robotCount] = slot;
+        robotStartXs[robotCount] = startX;
+        robotStartYs[robotCount] = startY;
+        robotEndXs[robotCount] = endX;
+        robotEndYs[robotCount] = endY;
+        robotMoveStartNanos[robotCount] = moveStartNanos;
+        robotMoveDurationNanos[robotCount] = moveDurationNanos;
+        robotCount++;
+    }
+
+    public void addWall(int x, int y, boolean damaged)
+    {
+        if(wallCount == wallXs.length)
+        {
+            int capacity = wallCount * 2;
+            wallXs = Arrays.copyOf(wallXs, capacity);
+            wallYs = Arrays.copyOf(wallYs, capacity);
+            wallsDamaged = Arrays.copyOf(wallsDamaged, capacity);
+        }
+
+        wallXs[wallCount] = x;
+        wallYs[wallCount] = y;
+        wallsDamaged[wallCount] = damaged;
+        wallCount++;
+    }
+
+    /*
+     * Indexes the robots and walls by tile, for a grid of 'numCols' x 'numRows' squares. Call this once the
+     * snapshot is filled, before it's published. Takes O(entities + tiles) time, and only allocates if the
+     * index has grown.
+     */
+    public void indexTiles(int numCols, int numRows)
+    {
+        tileCols = (numCols + TILE_SIZE - 1) / TILE_SIZE;
+        tileRows = (numRows + TILE_SIZE - 1) / TILE_SIZE;
+        int numTiles = tileCols * tileRows;
+
+        // Robots
+        entityTiles = ensureCapacity(entityTiles, Math.max(robotCount, wallCount));
+        for(int i = 0; i < robotCount; i++)
+        {
+            entityTiles[i] = tileOf((int)robotStartXs[i], (int)robotStartYs[i]);
+        }
+
+        robotTileStarts = ensureCapacity(robotTileStarts, numTiles + 1);
+        robotsByTile = ensureCapacity(robotsByTile, robotCount);
+        sortByTile(robotCount, numTiles, robotTileStarts, robotsByTile);
+
+        // Walls
+        for(int i = 0; i < wallCount; i++)
+        {
+            entityTiles[i] = tileOf(wallXs[i], wallYs[i]);
+        }
+
+        wallTileStarts = ensureCapacity(wallTileStarts, numTiles + 1);
+        wallsByTile = ensureCapacity(wallsByTile, wallCount);
+        sortByTile(wallCount, numTiles, wallTileStarts, wallsByTile);
+    }
+
+    private int tileOf(int x, int y)
+    {
+        return (y / TILE_SIZE) * tileCols + (x / TILE_SIZE);
+    }
+
+    // Counting sort of entities 0 to 'count' - 1 by their tile (in 'entityTiles')
+    private void sortByTile(int count, int numTiles, int[] tileStarts, int[] byTile)
+    {
+        Arrays.fill(tileStarts, 0, numTiles, 0);
+        tileStarts[numTiles] = count;
+
+        for(int i = 0; i < count; i++)
+        {
+            tileStarts[ entityTiles[i] ]++;
+        }
+
+        for(int t = 1; t < numTiles; t++) // Each tile's start is now the end of its entities
+        {
+            tileStarts[t] += tileStarts[t - 1];
+        }
+
+        // Fill each tile from its end, so tileStarts[t] ends up at the start of tile t
+        for(int i = count - 1; i >= 0; i--)
+        {
+            int tile = entityTiles[i];
+            tileStarts[tile]--;
+            byTile[ tileStarts[tile] ] = i;
+        }
+    }
+
+    private static int[] ensureCapacity(int[] array, int capacity)
+    {
+        return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+    }
+
+    /* default */ void setSequence(long sequence) // Only SnapshotExchange sets the sequence
+    {
+        this.sequence = sequence;
+    }
+}
@@ -0,0 +1,302 @@
+package dwhiteheadcode.com.github.robot_defender.misc;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.HashMap;
+import java.util.Map;
+
+import dwhiteheadcode.com.github.robot_defender.entities.fortress_wall.FortressWall;
+
+/*
+ * The squares of the game board, stored as parallel primitive arrays (indexed by y * numCols + x), rather than
+ * one object per square. A 1000x1000 grid takes about 6 MB.
+ *
+ * For each square, this stores:
+ *     - The ID of the robot that occupies it (or NO_ROBOT)
+ *     - Its wall state (NO_WALL, INTACT_WALL or DAMAGED_WALL)
+ *     - Flags: whether it has the citadel, and which of its 4 neighbours are occupied by robots
+ *
+ * Robot IDs and wall states are accessed atomically (with VarHandles), so robots can claim and free squares
+ * with a single compare-and-set, without any lock. The FortressWall objects themselves are only stored for
+ * squares that have one (in 'walls'). GameEngine is responsible for locking 'walls'.
+ *
+ * Location provides a view of a single square.
+ */
+public class Grid
+{
+    public static final int NO_ROBOT = 0; // Robot IDs start at 1
+
+    public static final byte NO_WALL = 0;
+    public static final byte INTACT_WALL = 1;
+    public static final byte DAMAGED_WALL = 2;
+
+    // Flag bits
+    private static final byte CITADEL = 1;
+    private static final byte ROBOT_ABOVE = 1 << 1; // A robot occupies (x, y - 1)
+    private static final byte ROBOT_BELOW = 1 << 2; // A robot occupies (x, y + 1)
+    private static final byte ROBOT_LEFT = 1 << 3;  // A robot occupies (x - 1, y)
+    private static final byte ROBOT_RIGHT = 1 << 4; // A robot occupies (x + 1, y)
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle BYTES = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final int numRows;
+    private final int numCols;
+
+    private final int[] robotIds;
+    private final byte[] wallStates;
+    private final byte[] flags;
+    private final Map<Integer, FortressWall> walls = new HashMap<>(); // Square index -> wall on that square. Locked by GameEngine
+
+    private OccupancyListener occupancyListener = null; // Optional. Set before any robot occupies a square, so doesn't need to be locked
+
+    public Grid(int numRows, int numCols)
+    {
+        this.numRows = numRows;
+        this.numCols = numCols;
+
+        int numSquares = numRows * numCols;
+        this.robotIds = new int[numSquares];
+        this.wallStates = new byte[numSquares];
+        this.flags = new byte[numSquares];
+    }
+
+    /*
+     * Returns a view of the square (x, y)
+     */
+    public Location location(int x, int y)
+    {
+        return new Location(this, x, y);
+    }
+
+    public int getNumRows()
+    {
+        return numRows;
+    }
+
+    public int getNumCols()
+    {
+        return numCols;
+    }
+
+    /*
+     * Sets a listener to be told whenever a square is occupied or freed (see OccupancyListener). Must be set
+     * before any robot occupies a square.
+     */
+    public void setOccupancyListener(OccupancyListener occupancyListener)
+    {
+        this.occupancyListener = occupancyListener;
+    }
+
+    public boolean inBounds(int x, int y)
+    {
+        return x >= 0 && x < numCols && y >= 0 && y < numRows;
+    }
+
+    // ROBOTS ----------------------------
+
+    /*
+     * Returns the ID of the robot at (x, y), or NO_ROBOT
+     */
+    public int getRobotId(int x, int y)
+    {
+        return (int)INTS.getVolatile(robotIds, index(x, y));
+    }
+
+    /*
+     * Occupies (x, y) with the robot 'robotId' if no robot is there. Returns true if the square was claimed,
+     * or false if it was already occupied.
+     */
+    public boolean tryOccupy(int x, int y, int robotId)
+    {
+        if(robotId == NO_ROBOT)
+        {
+            throw new IllegalArgumentException("Robot ID " + NO_ROBOT + " is reserved for unoccupied squares");
+        }
+
+        if( !INTS.compareAndSet(robotIds, index(x, y), NO_ROBOT, robotId) )
+        {
+            return false;
+        }
+
+        setNeighbourFlags(x, y, true);
+        if(occupancyListener != null)
+        {
+            occupancyListener.squareOccupied(x, y);
+        }
+        return true;
+    }
+
+    /*
+     * Frees (x, y), which must be occupied by the robot 'robotId'.
+     */
+    public void vacate(int x, int y, int robotId)
+    {
+        if( !INTS.compareAndSet(robotIds, index(x, y), robotId, NO_ROBOT) )
+        {
+            throw new IllegalStateException("Can't remove robot '" + robotId + "' from a Location it doesn't occupy");
+        }
+
+        squareVacated(x, y);
+    }
+
+    /*
+     * Frees (x, y), regardless of which robot (if any) occupies it.
+     */
+    public void clearRobot(int x, int y)
+    {
+        int previousId = (int)INTS.getAndSet(robotIds, index(x, y), NO_ROBOT);
+
+        if(previousId != NO_ROBOT)
+        {
+            squareVacated(x, y);
+        }
+    }
+
+    // Updates the neighbours' flags and the listener (if any), after the robot at (x, y) has left
+    private void squareVacated(int x, int y)
+    {
+        setNeighbourFlags(x, y, false);
+        if(occupancyListener != null)
+        {
+            occupancyListener.squareVacated(x, y);
+        }
+    }
+
+    /*
+     * Returns true if the neighbour of (x, y) in the direction (dx, dy) (one of up, down, left or right) is
+     * occupied by a robot.
+     *
+     * This is read from (x, y)'s own flags, so it doesn't touch the neighbour's square at all. It's only a
+     * hint: it's updated just after a square is claimed or freed, so it may briefly be out of date.
+     */
+    public boolean isNeighbourOccupied(int x, int y, int dx, int dy)
+    {
+        byte bit = neighbourBit(dx, dy);
+        return ((byte)BYTES.getOpaque(flags, index(x, y)) & bit) != 0;
+    }
+
+    /*
+     * Sets (or clears) the flag of each of (x, y)'s neighbours that says (x, y) is occupied
+     */
+    private void setNeighbourFlags(int x, int y, boolean occupied)
+    {
+        updateNeighbourFlag(x, y - 1, ROBOT_BELOW, occupied); // (x, y) is below the square above it
+        updateNeighbourFlag(x, y + 1, ROBOT_ABOVE, occupied);
+        updateNeighbourFlag(x - 1, y, ROBOT_RIGHT, occupied);
+        updateNeighbourFlag(x + 1, y, ROBOT_LEFT, occupied);
+    }
+
+    private void updateNeighbourFlag(int x, int y, byte bit, boolean set)
+    {
+        if(!inBounds(x, y))
+        {
+            return;
+        }
+
+        if(set)
+        {
+            BYTES.getAndBitwiseOr(flags, index(x, y), bit);
+        }
+        else
+        {
+            BYTES.getAndBitwiseAnd(flags, index(x, y), (byte)~bit);
+        }
+    }
+
+    private static byte neighbourBit(int dx, int dy)
+    {
+        if(dx == 0 && dy == -1)
+        {
+            return ROBOT_ABOVE;
+        }
+        if(dx == 0 && dy == 1)
+        {
+            return ROBOT_BELOW;
+        }
+        if(dx == -1 && dy == 0)
+        {
+            return ROBOT_LEFT;
+        }
+        if(dx == 1 && dy == 0)
+        {
+            return ROBOT_RIGHT;
+        }
+
+        throw new IllegalArgumentException("(" + dx + ", " + dy + ") isn't a move to a neighbouring square");
+    }
+
+    // WALLS ----------------------------
+
+    /*
+     * Returns the wall state of (x, y). This doesn't need a lock.
+     */
+    public byte getWallState(int x, int y)
+    {
+        return (byte)BYTES.getVolatile(wallStates, index(x, y));
+    }
+
+    public void setWallState(int x, int y, byte wallState)
+    {
+        BYTES.setVolatile(wallStates, index(x, y), wallState);
+    }
+
+    /*
+     * Returns the wall at (x, y), or null. Must be locked by GameEngine.
+     */
+    public FortressWall getWall(int x, int y)
+    {
+        return walls.get( index(x, y) );
+    }
+
+    /*
+     * Puts 'wall' at (x, y) (or removes the wall, if null), and updates the wall state. Returns the previous
+     * wall. Must be locked by GameEngine.
+     */
+    public FortressWall putWall(int x, int y, FortressWall wall)
+    {
+        FortressWall previousWall;
+
+        if(wall == null)
+        {
+            previousWall = walls.remove( index(x, y) );
+            setWallState(x, y, NO_WALL);
+        }
+        else
+        {
+            previousWall = walls.put( index(x, y), wall );
+            setWallState(x, y, wall.isDamaged() ? DAMAGED_WALL : INTACT_WALL);
+        }
+
+        return previousWall;
+    }
+
+    // CITADEL ----------------------------
+
+    public boolean hasCitadel(int x, int y)
+    {
+        return ((byte)BYTES.getOpaque(flags, index(x, y)) & CITADEL) != 0;
+    }
+
+    public void setCitadel(int x, int y, boolean citadel)
+    {
+        if(citadel)
+        {
+            BYTES.getAndBitwiseOr(flags, index(x, y), CITADEL);
+        }
+        else
+        {
+            BYTES.getAndBitwiseAnd(flags, index(x, y), (byte)~CITADEL);
+        }
+    }
+
+    private int index(int x, int y)
+    {
+        if(!inBounds(x, y))
+        {
+            throw new IllegalArgumentException("(" + x + ", " + y + ") is outside of the grid");
+        }
+
+        return y * numCols + x;
+    }
+}
@@ -0,0 +1,166 @@
+package dwhiteheadcode.com.github.robot_defender.misc;
+
+import java.util.Arrays;
+
+/*
+ * A map from int keys to int values, without boxing either (unlike HashMap<Integer, Integer>).
+ *
+ * Uses open addressing with linear probing, in two parallel arrays, so each entry costs 8 bytes (at up to
+ * 50% load), rather than a node object and boxed key per entry. Removal shifts later entries back into the
+ * gap, so no "deleted" markers build up.
+ *
+ * Integer.MIN_VALUE marks empty slots, so it can't be used as a key.
+ *
+ * Thread: Not thread-safe. Callers must lock it themselves.
+ */
+public class IntIntMap
+{
+    public static final int MISSING = -1; // Returned by get() if the key isn't in the map
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size = 0;
+
+    public IntIntMap()
+    {
+        this(MIN_CAPACITY);
+    }
+
+    /*
+     * Creates a map that can hold 'expectedSize' entries without growing.
+     */
+    public IntIntMap(int expectedSize)
+    {
+        int capacity = MIN_CAPACITY;
+        while(capacity < expectedSize * 2)
+        {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /*
+     * Returns the value for 'key', or MISSING if the map doesn't contain it.
+     */
+    public int get(int key)
+    {
+        for(int i = indexOf(key); ; i = (i + 1) & mask)
+        {
+            if(keys[i] == key)
+            {
+                return values[i];
+            }
+
+            if(keys[i] == EMPTY)
+            {
+                return MISSING;
+            }
+        }
+    }
+
+    /*
+     * Sets the value for 'key', replacing any existing value.
+     */
+    public void put(int key, int value)
+    {
+        if(key == EMPTY)
+        {
+            throw new IllegalArgumentException("IntIntMap can't store the key " + EMPTY);
+        }
+
+        int i = indexOf(key);
+        while(keys[i] != EMPTY && keys[i] != key)
+        {
+            i = (i + 1) & mask;
+        }
+
+        if(keys[i] == EMPTY)
+        {
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+
+        if(size * 2 > keys.length)
+        {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /*
+     * Removes 'key' (if present). Returns its value, or MISSING if the map didn't contain it.
+     */
+    public int remove(int key)
+    {
+        int i = indexOf(key);
+        while(keys[i] != key)
+        {
+            if(keys[i] == EMPTY)
+            {
+                return MISSING;
+            }
+            i = (i + 1) & mask;
+        }
+
+        int removed = values[i];
+        size--;
+
+        // Shift back any later entries in the probe sequence that could be stored nearer their home slot
+        int gap = i;
+        for(int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask)
+        {
+            int home = indexOf(keys[j]);
+
+            // Move the entry into the gap if the gap is between its home slot and its slot (cyclically)
+            if(((j - home) & mask) >= ((j - gap) & mask))
+            {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = EMPTY;
+
+        return removed;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    private int indexOf(int key)
+    {
+        int hash = key * 0x9E3779B9; // Fibonacci hashing, so sequential keys spread out
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private void rehash(int capacity)
+    {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+
+        allocate(capacity);
+        size = 0;
+
+        for(int i = 0; i < oldKeys.length; i++)
+        {
+            if(oldKeys[i] != EMPTY)
+            {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
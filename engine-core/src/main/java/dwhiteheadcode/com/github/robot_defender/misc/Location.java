@@ -0,0 +1,151 @@
+package dwhiteheadcode.com.github.robot_defender.misc;
+
+import dwhiteheadcode.com.github.robot_defender.entities.fortress_wall.FortressWall;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+
+/*
+ * Represents a location on the game board (i.e. a square in the grid)
+ *
+ * This is a view of a single square of a Grid, which stores the actual state. Locations are cheap to
+ * create (see Grid.location()), and don't need to be kept.
+ *
+ * GameEngine is responsible for locking mutex(es) related to walls, and preventing misuse
+ */
+public class Location
+{
+    private final Grid grid;
+    private final int x;
+    private final int y;
+
+    public Location(Grid grid, int x, int y)
+    {
+        if(!grid.inBounds(x, y))
+        {
+            throw new IllegalArgumentException("(" + x + ", " + y + ") is outside of the grid");
+        }
+
+        this.grid = grid;
+        this.x = x;
+        this.y = y;
+    }
+
+    // ACCESSORS ----------------------------
+
+    // Returns the ID of the robot that occupies the location (Grid.NO_ROBOT if no robot is here)
+    public int getRobotId()
+    {
+        return grid.getRobotId(x, y);
+    }
+
+    public boolean hasRobot()
+    {
+        return grid.getRobotId(x, y) != Grid.NO_ROBOT;
+    }
+
+    // Returns the wall that occupies the location (could be null if no wall is here)
+    public FortressWall getWall()
+    {
+        return grid.getWall(x, y);
+    }
+
+    // Returns true if there is a wall here. Unlike getWall(), this doesn't need a lock
+    public boolean hasWall()
+    {
+        return grid.getWallState(x, y) != Grid.NO_WALL;
+    }
+
+    public boolean hasCitadel()
+    {
+        return grid.hasCitadel(x, y);
+    }
+
+    // MUTATORS ----------------------------------
+    public void setRobot(Robot newRobot)
+    {
+        // setRobot(null) can be used to clear the robot from this Location.
+        if(newRobot == null)
+        {
+            grid.clearRobot(x, y);
+        }
+        // If a robot occupies this location, a new robot can't be placed here.
+        else if( !grid.tryOccupy(x, y, newRobot.getId()) )
+        {
+            throw new IllegalStateException("Can't set robot on an already occupied Location");
+        }
+    }
+
+    /*
+     * Occupies this Location with 'robot' if no robot is here. Returns false if it was already occupied.
+     */
+    public boolean tryOccupy(Robot robot)
+    {
+        return grid.tryOccupy(x, y, robot.getId());
+    }
+
+    /*
+     * Removes 'robot' from this Location. Throws IllegalStateException if 'robot' isn't here.
+     */
+    public void vacate(Robot robot)
+    {
+        grid.vacate(x, y, robot.getId());
+    }
+
+    public void setWall(FortressWall newWall)
+    {
+        // If a wall occupies this location, a new wall can't be placed here.
+        //      NOTE: GameEngine manages requests for new walls at Locations with existing walls.
+        //            See GameEngine for details on how these are handled.
+        // setWall(null) can be used to clear the wall from this Location.
+        if(hasWall() && newWall != null)
+        {
+            throw new IllegalStateException("Can't set wall on an already occupied Location");
+        }
+
+        grid.putWall(x, y, newWall);
+    }
+
+    /*
+     * Replaces the wall at this Location (if any) with 'newWall' in a single write, and returns the
+     * previous wall. Unlike setWall(null) followed by setWall(newWall), a robot reading this Location
+     * never sees it without a wall in between.
+     */
+    public FortressWall replaceWall(FortressWall newWall)
+    {
+        return grid.putWall(x, y, newWall);
+    }
+
+    /*
+     * Updates the wall state after the wall here has been damaged (see FortressWall.damage())
+     */
+    public void wallDamaged()
+    {
+        if(hasWall())
+        {
+            grid.setWallState(x, y, Grid.DAMAGED_WALL);
+        }
+    }
+
+    public void setCitadel(boolean citadel)
+    {
+        grid.setCitadel(x, y, citadel);
+    }
+
+    //Return a copy of this location's coordinates
+    public Vector2d getCoordinates()
+    {
+        return new Vector2d(x, y);
+    }
+
+    public int getX()
+    {
+        return x;
+    }
+
+    public int getY()
+    {
+        return y;
+    }
+
+
+
+}
@@ -0,0 +1,22 @@
+package dwhiteheadcode.com.github.robot_defender.misc;
+
+/*
+ * Told by a Grid whenever one of its squares is occupied or freed by a robot (see Grid.setOccupancyListener()).
+ * Lets a component keep its own summary of the grid's occupancy (e.g. SpawnZones' full corners) up to date,
+ * rather than rescanning the squares.
+ *
+ * Thread: Called by whichever thread claims or frees the square (robots' threads, without any lock), so
+ * implementations must be thread-safe. They're called on every move, so must be fast, and must not block.
+ */
+public interface OccupancyListener
+{
+    /*
+     * Called after (x, y) has been occupied by a robot.
+     */
+    void squareOccupied(int x, int y);
+
+    /*
+     * Called after the robot occupying (x, y) has left (or been removed from) it.
+     */
+    void squareVacated(int x, int y);
+}
@@ -0,0 +1,195 @@
+package dwhiteheadcode.com.github.robot_defender.entities.robot.moves;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngineFactory;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.HeadlessGameOutput;
+import dwhiteheadcode.com.github.robot_defender.game_engine.scheduling.RobotScheduler;
+
+/*
+ * Tests that DistanceFieldStrategy's incrementally updated field always matches a breadth-first search of the
+ * whole grid, as walls are placed and removed.
+ */
+public class DistanceFieldStrategyTest
+{
+    @Test
+    public void matchesAFullSearchAfterEachRandomWallChange()
+    {
+        // Small grids, with many walls, so regions are often cut off from the citadel and then opened again
+        for(long seed = 1; seed <= 20; seed++)
+        {
+            checkRandomWallChanges(new Random(seed), 11, 13, 500);
+        }
+    }
+
+    @Test
+    public void matchesAFullSearchOnALargerGrid()
+    {
+        checkRandomWallChanges(new Random(99), 40, 40, 3000);
+    }
+
+    @Test
+    public void reachesAnEnclosedRegionOnceItsWallIsRemoved()
+    {
+        Field field = new Field(9, 9); // Citadel at (4, 4)
+
+        // Wall off the top left 3x3 corner, then open it again
+        for(int i = 0; i <= 3; i++)
+        {
+            field.wallPlaced(i, 3);
+            field.wallPlaced(3, i);
+            field.check();
+        }
+        assertEquals(-1, field.strategy.getDistance(0, 0));
+
+        field.wallRemoved(3, 1);
+        field.check();
+        assertEquals(8, field.strategy.getDistance(0, 0)); // Via (3, 1): 3 moves across, then 5 to the citadel
+    }
+
+
+    private static void checkRandomWallChanges(Random random, int numRows, int numCols, int numChanges)
+    {
+        Field field = new Field(numRows, numCols);
+        field.check();
+
+        for(int i = 0; i < numChanges; i++)
+        {
+            int x = random.nextInt(numCols);
+            int y = random.nextInt(numRows);
+
+            if(field.walls[y * numCols + x])
+            {
+                field.wallRemoved(x, y);
+            }
+            else if(random.nextInt(10) < 6) // Keep the grid well under half walls
+            {
+                field.wallPlaced(x, y);
+            }
+            field.check();
+        }
+    }
+
+    /*
+     * A DistanceFieldStrategy, and the walls it has been told about.
+     */
+    private static final class Field
+    {
+        private final int numRows;
+        private final int numCols;
+        private final int citadelX;
+        private final int citadelY;
+        private final boolean[] walls;
+        private final DistanceFieldStrategy strategy = new DistanceFieldStrategy();
+
+        private Field(int numRows, int numCols)
+        {
+            GameEngine engine = GameEngineFactory.instance(new HeadlessGameOutput(), new UnusedRobotScheduler(),
+                MovementMode.DISTANCE_FIELD, numRows, numCols, GameEngineFactory.MAX_WALLS_DEFAULT);
+
+            this.numRows = numRows;
+            this.numCols = numCols;
+            this.citadelX = (int)engine.getCitadel().x();
+            this.citadelY = (int)engine.getCitadel().y();
+            this.walls = new boolean[numRows * numCols];
+            strategy.setGameEngine(engine);
+        }
+
+        private void wallPlaced(int x, int y)
+        {
+            if(x != citadelX || y != citadelY) // The citadel can't have a wall
+            {
+                walls[y * numCols + x] = true;
+            }
+            strategy.wallPlaced(x, y);
+        }
+
+        private void wallRemoved(int x, int y)
+        {
+            walls[y * numCols + x] = false;
+            strategy.wallRemoved(x, y);
+        }
+
+        // Checks every square's distance against a breadth-first search from the citadel
+        private void check()
+        {
+            int[] expected = search();
+
+            for(int y = 0; y < numRows; y++)
+            {
+                for(int x = 0; x < numCols; x++)
+                {
+                    assertEquals(expected[y * numCols + x], strategy.getDistance(x, y), "Distance of (" + x + ", " + y + ")");
+                }
+            }
+        }
+
+        private int[] search()
+        {
+            int[] distances = new int[numRows * numCols];
+            Arrays.fill(distances, -1);
+
+            Queue<Integer> queue = new ArrayDeque<>();
+            distances[citadelY * numCols + citadelX] = 0;
+            queue.add(citadelY * numCols + citadelX);
+
+            while(!queue.isEmpty())
+            {
+                int square = queue.remove();
+                int x = square % numCols;
+                int y = square / numCols;
+
+                for(Direction direction : Direction.values())
+                {
+                    int nextX = x + direction.dx();
+                    int nextY = y + direction.dy();
+                    if(nextX < 0 || nextX >= numCols || nextY < 0 || nextY >= numRows)
+                    {
+                        continue;
+                    }
+
+                    int next = nextY * numCols + nextX;
+                    if(!walls[next] && distances[next] == -1)
+                    {
+                        distances[next] = distances[square] + 1;
+                        queue.add(next);
+                    }
+                }
+            }
+            return distances;
+        }
+    }
+
+    /*
+     * The engine is only used for its grid size and citadel, so robots are never run.
+     */
+    private static final class UnusedRobotScheduler implements RobotScheduler
+    {
+        @Override
+        public void start(Robot robot)
+        {
+            // Robots are never run
+        }
+
+        @Override
+        public void cancel(Robot robot)
+        {
+            // Robots are never run
+        }
+
+        @Override
+        public void shutdown()
+        {
+            // Nothing to stop
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.moves.MovementMode;
+import dwhiteheadcode.com.github.robot_defender.game_engine.scheduling.RobotExecutionMode;
+
+/*
+ * Tests GameConfig's parsing of --key=value arguments and --config files, and its validation of settings.
+ */
+public class GameConfigTest
+{
+    @TempDir
+    /* default */ Path tempDir;
+
+    @Test
+    public void keepsTheDefaultsWithNoArguments() throws IOException
+    {
+        GameConfig config = GameConfig.fromArgs( List.of() );
+
+        assertEquals(GameEngineFactory.NUM_ROWS_DEFAULT, config.getNumRows());
+        assertEquals(GameEngineFactory.NUM_COLS_DEFAULT, config.getNumCols());
+        assertEquals(GameEngineFactory.MAX_WALLS_DEFAULT, config.getMaxWalls());
+        assertEquals(GameEngineFactory.EXECUTION_MODE_DEFAULT, config.getExecutionMode());
+        assertEquals(GameEngineFactory.MOVEMENT_MODE_DEFAULT, config.getMovementMode());
+        assertEquals(GameEngineFactory.WAVE_SIZE_DEFAULT, config.getWaveSize());
+        assertEquals(GameEngineFactory.SPAWN_DELAY_MILLIS_DEFAULT, config.getSpawnDelayMillis());
+    }
+
+    @Test
+    public void readsEverySettingFromArguments() throws IOException
+    {
+        GameConfig config = GameConfig.fromArgs( List.of("--rows=500", "--cols=400", "--maxWalls=200",
+            "--executionMode=PARALLEL_TICK", "--movementMode=distance_field", "--waveSize=50", "--spawnDelay=250") );
+
+        assertEquals(500, config.getNumRows());
+        assertEquals(400, config.getNumCols());
+        assertEquals(200, config.getMaxWalls());
+        assertEquals(RobotExecutionMode.PARALLEL_TICK, config.getExecutionMode());
+        assertEquals(MovementMode.DISTANCE_FIELD, config.getMovementMode()); // Modes aren't case sensitive
+        assertEquals(50, config.getWaveSize());
+        assertEquals(250, config.getSpawnDelayMillis());
+    }
+
+    @Test
+    public void readsSettingsFromAConfigFile() throws IOException
+    {
+        Path file = writeFile("rows=60", "cols = 70", "# A comment", "executionMode=DISCRETE_EVENT");
+
+        GameConfig config = GameConfig.fromArgs( List.of("--config=" + file) );
+
+        assertEquals(60, config.getNumRows());
+        assertEquals(70, config.getNumCols());
+        assertEquals(RobotExecutionMode.DISCRETE_EVENT, config.getExecutionMode());
+        assertEquals(GameEngineFactory.MAX_WALLS_DEFAULT, config.getMaxWalls());
+    }
+
+    @Test
+    public void argumentsOverrideTheConfigFile() throws IOException
+    {
+        Path file = writeFile("rows=60", "cols=70");
+
+        // The file is read first, wherever --config is given
+        GameConfig config = GameConfig.fromArgs( List.of("--rows=80", "--config=" + file) );
+
+        assertEquals(80, config.getNumRows());
+        assertEquals(70, config.getNumCols());
+    }
+
+    @Test
+    public void withOnlyReplacesTheGivenSettings()
+    {
+        GameConfig config = GameConfig.defaults().with( Map.of(GameConfig.WAVE_SIZE, " 20 ") );
+
+        assertEquals(20, config.getWaveSize());
+        assertEquals(GameEngineFactory.NUM_ROWS_DEFAULT, config.getNumRows());
+    }
+
+    @Test
+    public void rejectsArgumentsThatArentSettings()
+    {
+        assertThrows(IllegalArgumentException.class, () -> GameConfig.fromArgs( List.of("rows=10") ));
+        assertThrows(IllegalArgumentException.class, () -> GameConfig.fromArgs( List.of("--rows") ));
+        assertThrows(IllegalArgumentException.class, () -> GameConfig.fromArgs( List.of("--=10") ));
+        assertThrows(IllegalArgumentException.class, () -> GameConfig.fromArgs( List.of("--height=10") ));
+    }
+
+    @Test
+    public void rejectsInvalidValues()
+    {
+        assertInvalid(GameConfig.ROWS, "ten");
+        assertInvalid(GameConfig.ROWS, String.valueOf(GameConfig.MIN_GRID_SIZE - 1));
+        assertInvalid(GameConfig.COLS, String.valueOf(GameConfig.MAX_GRID_SIZE + 1));
+        assertInvalid(GameConfig.MAX_WALLS, "0");
+        assertInvalid(GameConfig.EXECUTION_MODE, "FAST");
+        assertInvalid(GameConfig.MOVEMENT_MODE, "");
+        assertInvalid(GameConfig.WAVE_SIZE, String.valueOf(GameConfig.MAX_WAVE_SIZE + 1));
+        assertInvalid(GameConfig.SPAWN_DELAY, "-5");
+    }
+
+    @Test
+    public void acceptsTheLimitsOfEachRange()
+    {
+        GameConfig config = GameConfig.defaults().with( Map.of(GameConfig.ROWS, String.valueOf(GameConfig.MIN_GRID_SIZE),
+            GameConfig.COLS, String.valueOf(GameConfig.MAX_GRID_SIZE), GameConfig.WAVE_SIZE, String.valueOf(GameConfig.MAX_WAVE_SIZE)) );
+
+        assertEquals(GameConfig.MIN_GRID_SIZE, config.getNumRows());
+        assertEquals(GameConfig.MAX_GRID_SIZE, config.getNumCols());
+        assertEquals(GameConfig.MAX_WAVE_SIZE, config.getWaveSize());
+    }
+
+    @Test
+    public void rejectsInvalidValuesInAConfigFile() throws IOException
+    {
+        Path file = writeFile("rows=2");
+        assertThrows(IllegalArgumentException.class, () -> GameConfig.fromArgs( List.of("--config=" + file) ));
+    }
+
+    @Test
+    public void failsIfTheConfigFileIsMissing()
+    {
+        Path file = tempDir.resolve("missing.properties");
+        assertThrows(IOException.class, () -> GameConfig.fromArgs( List.of("--config=" + file) ));
+    }
+
+
+    private static void assertInvalid(String key, String value)
+    {
+        assertThrows(IllegalArgumentException.class, () -> GameConfig.defaults().with( Map.of(key, value) ),
+            key + "=" + value);
+    }
+
+    private Path writeFile(String... lines) throws IOException
+    {
+        Path file = tempDir.resolve("arena.properties");
+        Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,139 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.components;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+
+/*
+ * Tests for RobotTable's slot allocation: slots are handed out densely, freed slots are reused (and their
+ * generation advanced), and the table refuses to grow past its capacity.
+ */
+public class RobotTableTest
+{
+    @Test
+    public void addsRobotsToDenseSlots()
+    {
+        RobotTable table = new RobotTable(8);
+
+        for(int id = 1; id <= 3; id++)
+        {
+            int slot = table.add(robot(id), id, 2 * id);
+
+            assertEquals(id - 1, slot);
+            assertEquals(slot, table.slotOf(id));
+            assertEquals(id, table.getId(slot));
+            assertEquals(id, table.getX(slot));
+            assertEquals(2 * id, table.getY(slot));
+            assertEquals(RobotTable.IDLE, table.getState(slot));
+        }
+
+        assertEquals(3, table.size());
+        assertEquals(3, table.getSlotLimit());
+    }
+
+    @Test
+    public void removingFreesTheSlotAndAdvancesItsGeneration()
+    {
+        RobotTable table = new RobotTable(8);
+        int slot = table.add(robot(1), 0, 0);
+        int generation = table.getGeneration(slot);
+
+        table.remove(slot);
+
+        assertEquals(generation + 1, table.getGeneration(slot));
+        assertEquals(RobotTable.FREE, table.getState(slot));
+        assertEquals(RobotTable.NO_SLOT, table.slotOf(1));
+        assertNull(table.getRobot(slot));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void reusesTheMostRecentlyFreedSlot()
+    {
+        RobotTable table = new RobotTable(8);
+        for(int id = 1; id <= 4; id++)
+        {
+            table.add(robot(id), id, 0);
+        }
+
+        table.remove(table.slotOf(2));
+        table.remove(table.slotOf(3));
+        int generation = table.getGeneration(2);
+
+        Robot robot = robot(5);
+        int slot = table.add(robot, 5, 5);
+
+        assertEquals(2, slot); // Robot 3's slot
+        assertSame(robot, table.getRobot(slot));
+        assertEquals(slot, table.slotOf(5));
+        assertEquals(generation, table.getGeneration(slot)); // Only removing advances the generation
+        assertEquals(4, table.getSlotLimit()); // No new slot was used
+
+        assertEquals(1, table.add(robot(6), 6, 6)); // Then robot 2's slot
+        assertEquals(4, table.add(robot(7), 7, 7)); // Then a new slot
+    }
+
+    @Test
+    public void refusesToAddPastItsCapacity()
+    {
+        RobotTable table = new RobotTable(2);
+        table.add(robot(1), 0, 0);
+        table.add(robot(2), 1, 0);
+
+        assertThrows(IllegalStateException.class, () -> table.add(robot(3), 0, 1));
+        assertEquals(2, table.size());
+
+        table.remove(table.slotOf(1));
+        assertEquals(0, table.add(robot(3), 0, 1));
+    }
+
+    @Test
+    public void refusesDuplicateIds()
+    {
+        RobotTable table = new RobotTable(4);
+        table.add(robot(1), 0, 0);
+
+        assertThrows(IllegalStateException.class, () -> table.add(robot(1), 1, 1));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void refusesToRemoveAFreeSlot()
+    {
+        RobotTable table = new RobotTable(4);
+        int slot = table.add(robot(1), 0, 0);
+        table.remove(slot);
+
+        assertThrows(IllegalStateException.class, () -> table.remove(slot));
+        assertThrows(IllegalStateException.class, () -> table.remove(3));
+    }
+
+    @Test
+    public void packsTheLargestCoordinates()
+    {
+        RobotTable table = new RobotTable(1);
+        int slot = table.add(robot(1), 4095, 4094);
+
+        assertEquals(4095, table.getX(slot));
+        assertEquals(4094, table.getY(slot));
+        assertEquals(4095, RobotTable.unpackX( table.getPackedPosition(slot) ));
+        assertEquals(4094, RobotTable.unpackY( table.getPackedPosition(slot) ));
+    }
+
+    @Test
+    public void rejectsAnEmptyTable()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new RobotTable(0));
+    }
+
+
+    private static Robot robot(int id)
+    {
+        return new Robot(id, null); // The table never calls into the robot's GameEngine
+    }
+}
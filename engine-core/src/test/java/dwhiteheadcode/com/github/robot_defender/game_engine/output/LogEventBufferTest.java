@@ -0,0 +1,191 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * Tests for LogEventBuffer's ring: capacity, FIFO order across wraparound, dropping when full, batched
+ * draining, and concurrent writers with one reader. Events are told apart by identity (LogEvent doesn't
+ * override equals()).
+ */
+public class LogEventBufferTest
+{
+    private static final int NUM_WRITERS = 4;
+    private static final int EVENTS_PER_WRITER = 20_000;
+
+    @Test
+    public void roundsTheCapacityUpToAPowerOf2()
+    {
+        assertEquals(1, new LogEventBuffer(1).getCapacity());
+        assertEquals(8, new LogEventBuffer(5).getCapacity());
+        assertEquals(8, new LogEventBuffer(8).getCapacity());
+        assertEquals(1024, new LogEventBuffer(1000).getCapacity());
+    }
+
+    @Test
+    public void drainsInOrderAcrossTheWraparound()
+    {
+        LogEventBuffer buffer = new LogEventBuffer(4);
+        List<LogEvent> drained = new ArrayList<>();
+        List<LogEvent> expected = new ArrayList<>();
+
+        // Offer and drain 3 at a time, so the positions wrap around the 4 slots at a different point each lap
+        for(int lap = 0; lap < 10; lap++)
+        {
+            for(int i = 0; i < 3; i++)
+            {
+                LogEvent event = event(lap * 3 + i);
+                assertTrue(buffer.offer(event));
+                expected.add(event);
+            }
+            assertEquals(3, buffer.drainTo(drained, Integer.MAX_VALUE));
+        }
+
+        assertEquals(expected.size(), drained.size());
+        for(int i = 0; i < expected.size(); i++)
+        {
+            assertSame(expected.get(i), drained.get(i));
+        }
+    }
+
+    @Test
+    public void dropsEventsWhenFullAndCountsThem()
+    {
+        LogEventBuffer buffer = new LogEventBuffer(4);
+        LogEvent first = event(0);
+        assertTrue(buffer.offer(first));
+        for(int i = 1; i < 4; i++)
+        {
+            assertTrue(buffer.offer( event(i) ));
+        }
+
+        assertFalse(buffer.offer( event(4) ));
+        assertFalse(buffer.offer( event(5) ));
+
+        assertEquals(2, buffer.takeDroppedCount());
+        assertEquals(0, buffer.takeDroppedCount()); // Taking the count resets it
+
+        // Draining one event makes room for one more
+        List<LogEvent> drained = new ArrayList<>();
+        assertEquals(1, buffer.drainTo(drained, 1));
+        assertSame(first, drained.get(0));
+        assertTrue(buffer.offer( event(6) ));
+        assertFalse(buffer.offer( event(7) ));
+        assertEquals(1, buffer.takeDroppedCount());
+    }
+
+    @Test
+    public void drainsNoMoreThanMaxEvents()
+    {
+        LogEventBuffer buffer = new LogEventBuffer(16);
+        for(int i = 0; i < 10; i++)
+        {
+            buffer.offer( event(i) );
+        }
+
+        List<LogEvent> drained = new ArrayList<>();
+        assertEquals(4, buffer.drainTo(drained, 4));
+        assertEquals(4, drained.size());
+        assertEquals(6, buffer.drainTo(drained, 100)); // Only the events that are there
+        assertEquals(0, buffer.drainTo(drained, 100));
+        assertEquals(0, buffer.drainTo(drained, 0));
+        assertEquals(10, drained.size());
+    }
+
+    @Test
+    public void racingWritersNeverLoseOrDuplicateEvents() throws InterruptedException
+    {
+        LogEventBuffer buffer = new LogEventBuffer(64); // Small, so writers often find it full, and wrap many times
+        LogEvent[][] events = new LogEvent[NUM_WRITERS][EVENTS_PER_WRITER];
+        Map<LogEvent, Integer> writerOf = new HashMap<>();
+        for(int w = 0; w < NUM_WRITERS; w++)
+        {
+            for(int i = 0; i < EVENTS_PER_WRITER; i++)
+            {
+                events[w][i] = event(i);
+                writerOf.put(events[w][i], w);
+            }
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] writers = new Thread[NUM_WRITERS];
+        for(int w = 0; w < NUM_WRITERS; w++)
+        {
+            LogEvent[] toWrite = events[w];
+            writers[w] = new Thread( () -> {
+                awaitQuietly(start);
+                for(LogEvent event : toWrite)
+                {
+                    while(!buffer.offer(event)) // Retry dropped events, so every event should arrive
+                    {
+                        Thread.yield(); // Let the reader make room (on a single core, spinning would only delay it)
+                    }
+                }
+            });
+            writers[w].start();
+        }
+
+        // Read on this thread, in small batches
+        start.countDown();
+        List<LogEvent> batch = new ArrayList<>();
+        int[] nextFromWriter = new int[NUM_WRITERS];
+        int received = 0;
+        while(received < NUM_WRITERS * EVENTS_PER_WRITER)
+        {
+            batch.clear();
+            int drained = buffer.drainTo(batch, 10);
+            if(drained == 0)
+            {
+                Thread.yield();
+            }
+            received += drained;
+
+            for(LogEvent event : batch)
+            {
+                // Each writer's events must arrive once each, in the order it offered them
+                int w = writerOf.get(event);
+                assertSame(events[w][ nextFromWriter[w] ], event);
+                nextFromWriter[w]++;
+            }
+        }
+
+        for(Thread writer : writers)
+        {
+            writer.join();
+        }
+
+        assertEquals(0, buffer.drainTo(batch, 10)); // Nothing extra
+        for(int w = 0; w < NUM_WRITERS; w++)
+        {
+            assertEquals(EVENTS_PER_WRITER, nextFromWriter[w]);
+        }
+    }
+
+
+    private static LogEvent event(int n)
+    {
+        return LogEvent.robotSpawned(n, 0, 0);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await();
+        }
+        catch(InterruptedException iE)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
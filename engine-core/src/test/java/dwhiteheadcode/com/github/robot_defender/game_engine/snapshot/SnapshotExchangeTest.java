@@ -0,0 +1,91 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * Tests SnapshotExchange's swaps, on one thread: the reader always gets the latest published snapshot, and
+ * keeps it (unmodified) until a newer one is published.
+ */
+public class SnapshotExchangeTest
+{
+    @Test
+    public void readsAnEmptySnapshotBeforeAnyPublish()
+    {
+        SnapshotExchange exchange = new SnapshotExchange();
+        WorldSnapshot snapshot = exchange.read();
+
+        assertEquals(0, snapshot.getSequence());
+        assertEquals(0, snapshot.getRobotCount());
+        assertEquals(0, snapshot.getWallCount());
+    }
+
+    @Test
+    public void readsTheLatestOfSeveralPublishes()
+    {
+        SnapshotExchange exchange = new SnapshotExchange();
+        publishRobot(exchange, 1);
+        publishRobot(exchange, 2);
+
+        WorldSnapshot snapshot = exchange.read();
+
+        assertEquals(2, snapshot.getSequence());
+        assertEquals(1, snapshot.getRobotCount());
+        assertEquals(2, snapshot.getRobotId(0));
+    }
+
+    @Test
+    public void keepsTheSameSnapshotUntilTheNextPublish()
+    {
+        SnapshotExchange exchange = new SnapshotExchange();
+        publishRobot(exchange, 1);
+        publishRobot(exchange, 2);
+
+        WorldSnapshot first = exchange.read();
+        WorldSnapshot second = exchange.read();
+
+        assertSame(first, second);
+        assertEquals(2, second.getSequence());
+        assertEquals(2, second.getRobotId(0));
+
+        publishRobot(exchange, 3);
+        WorldSnapshot third = exchange.read();
+
+        assertNotSame(second, third);
+        assertEquals(3, third.getSequence());
+        assertEquals(3, third.getRobotId(0));
+    }
+
+    @Test
+    public void neverHandsTheWriterTheReadersSnapshot()
+    {
+        SnapshotExchange exchange = new SnapshotExchange();
+
+        for(int id = 1; id <= 10; id++)
+        {
+            WorldSnapshot reading = exchange.read();
+
+            // Publish twice while the reader holds its snapshot, so every snapshot but the reader's is written
+            publishRobot(exchange, id * 2);
+            assertNotSame(reading, exchange.beginWrite());
+            publishRobot(exchange, id * 2 + 1);
+
+            WorldSnapshot latest = exchange.read();
+            assertEquals(id * 2 + 1, latest.getRobotId(0));
+            assertEquals(id * 2L, latest.getSequence());
+        }
+    }
+
+
+    // Publishes a snapshot with one robot, 'id'
+    private static void publishRobot(SnapshotExchange exchange, int id)
+    {
+        WorldSnapshot snapshot = exchange.beginWrite();
+        snapshot.addRobot(0, id, 0.0, 0.0);
+        snapshot.indexTiles(1, 1);
+        exchange.publish();
+    }
+}
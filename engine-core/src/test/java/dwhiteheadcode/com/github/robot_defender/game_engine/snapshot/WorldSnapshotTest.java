@@ -0,0 +1,138 @@
+package dwhiteheadcode.com.github.robot_defender.game_engine.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import dwhiteheadcode.com.github.robot_defender.entities.robot.RobotMotion;
+
+/*
+ * Tests WorldSnapshot's tile index, for tiles with no entities, one entity and many entities.
+ */
+public class WorldSnapshotTest
+{
+    private static final int TILE = WorldSnapshot.TILE_SIZE;
+
+    // A grid of 3 x 2 tiles, the last column and row of tiles only partly filled
+    private static final int NUM_COLS = TILE * 2 + 5;
+    private static final int NUM_ROWS = TILE + 3;
+
+    @Test
+    public void sizesTheIndexToCoverTheGrid()
+    {
+        WorldSnapshot snapshot = new WorldSnapshot();
+        snapshot.indexTiles(NUM_COLS, NUM_ROWS);
+
+        assertEquals(3, snapshot.getTileCols());
+        assertEquals(2, snapshot.getTileRows());
+
+        // With no entities, every tile is empty
+        for(int tile = 0; tile <= 6; tile++)
+        {
+            assertEquals(0, snapshot.getRobotTileStart(tile));
+            assertEquals(0, snapshot.getWallTileStart(tile));
+        }
+    }
+
+    @Test
+    public void indexesRobotsByTile()
+    {
+        WorldSnapshot snapshot = new WorldSnapshot();
+
+        // Tile 0 and 3 stay empty, tile 1 has one robot, tile 4 has many (spread over the tile), tile 5 (in the
+        // last, partial column and row of tiles) has one
+        snapshot.addRobot(0, 1, TILE + 2, 3);
+        for(int i = 0; i < 5; i++)
+        {
+            snapshot.addRobot(i + 1, 10 + i, TILE + i * 3, TILE + (i % 3));
+        }
+        snapshot.addRobot(6, 20, NUM_COLS - 1, NUM_ROWS - 1);
+        snapshot.indexTiles(NUM_COLS, NUM_ROWS);
+
+        assertTileRobots(snapshot, 0);
+        assertTileRobots(snapshot, 1, 1);
+        assertTileRobots(snapshot, 2);
+        assertTileRobots(snapshot, 3);
+        assertTileRobots(snapshot, 4, 10, 11, 12, 13, 14);
+        assertTileRobots(snapshot, 5, 20);
+        assertEquals(7, snapshot.getRobotTileStart(6)); // The end of the last tile
+    }
+
+    @Test
+    public void indexesMovingRobotsByTheSquareTheyreLeaving()
+    {
+        WorldSnapshot snapshot = new WorldSnapshot();
+
+        // Moving right, from the last column of tile 0 into tile 1
+        snapshot.addMovingRobot(0, 1, new RobotMotion(TILE - 1, 0, TILE, 0, 0L, Duration.ofMillis(400)));
+        snapshot.indexTiles(NUM_COLS, NUM_ROWS);
+
+        assertTileRobots(snapshot, 0, 1);
+        assertTileRobots(snapshot, 1);
+    }
+
+    @Test
+    public void indexesWallsByTile()
+    {
+        WorldSnapshot snapshot = new WorldSnapshot();
+        snapshot.addWall(0, 0, false);
+        snapshot.addWall(TILE * 2, TILE, true);
+        snapshot.addWall(TILE * 2 + 1, TILE + 1, false);
+        snapshot.indexTiles(NUM_COLS, NUM_ROWS);
+
+        assertEquals(0, snapshot.getWallTileStart(0));
+        assertEquals(1, snapshot.getWallTileStart(1)); // Tile 0 has one wall
+        assertEquals(1, snapshot.getWallTileStart(5)); // Tiles 1 to 4 have none
+        assertEquals(3, snapshot.getWallTileStart(6)); // Tile 5 has two
+
+        for(int position = 1; position < 3; position++)
+        {
+            int i = snapshot.getWallByTile(position);
+            assertTrue(snapshot.getWallX(i) >= TILE * 2 && snapshot.getWallY(i) >= TILE);
+        }
+        assertTrue(snapshot.isWallDamaged( snapshot.getWallByTile(1) ) ^ snapshot.isWallDamaged( snapshot.getWallByTile(2) ));
+    }
+
+    @Test
+    public void reindexesAfterBeingRefilled()
+    {
+        WorldSnapshot snapshot = new WorldSnapshot();
+        for(int i = 0; i < 40; i++) // More robots than the initial capacity, so the arrays grow
+        {
+            snapshot.addRobot(i, i + 1, i % NUM_COLS, 0);
+        }
+        snapshot.indexTiles(NUM_COLS, NUM_ROWS);
+
+        snapshot.clear();
+        snapshot.addRobot(0, 50, 0, TILE);
+        snapshot.indexTiles(NUM_COLS, NUM_ROWS);
+
+        assertEquals(1, snapshot.getRobotCount());
+        assertTileRobots(snapshot, 0);
+        assertTileRobots(snapshot, 3, 50);
+        assertEquals(1, snapshot.getRobotTileStart(6));
+    }
+
+
+    // Checks 'tile' has exactly the robots with the given IDs (in the order they were added)
+    private static void assertTileRobots(WorldSnapshot snapshot, int tile, int... ids)
+    {
+        int start = snapshot.getRobotTileStart(tile);
+        assertEquals(ids.length, snapshot.getRobotTileStart(tile + 1) - start, "Robots in tile " + tile);
+
+        for(int i = 0; i < ids.length; i++)
+        {
+            int robot = snapshot.getRobotByTile(start + i);
+            assertEquals(ids[i], snapshot.getRobotId(robot));
+            assertEquals(tile, tileOf( (int)snapshot.getRobotX(robot, 0L), (int)snapshot.getRobotY(robot, 0L) ));
+        }
+    }
+
+    private static int tileOf(int x, int y)
+    {
+        return (y / TILE) * 3 + (x / TILE);
+    }
+}
@@ -0,0 +1,273 @@
+package dwhiteheadcode.com.github.robot_defender.misc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import dwhiteheadcode.com.github.robot_defender.entities.fortress_wall.FortressWall;
+
+/*
+ * Tests for Grid's lock-free occupancy: claiming a square is a single compare-and-set, so only one robot can
+ * occupy it, and only the occupying robot can vacate it. Also tests the per-square state kept in Grid's packed
+ * arrays: neighbour flags, the citadel flag and wall states.
+ */
+public class GridTest
+{
+    private static final int NUM_THREADS = 8;
+
+    @Test
+    public void onlyOneOfTwoRacingRobotsOccupiesASquare() throws InterruptedException
+    {
+        Grid grid = new Grid(32, 32);
+
+        // Race two robots for every square, so the claims overlap many times
+        for(int y = 0; y < grid.getNumRows(); y++)
+        {
+            for(int x = 0; x < grid.getNumCols(); x++)
+            {
+                int winner = race(grid, x, y, 2);
+                assertEquals(winner, grid.getRobotId(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void onlyOneOfManyRacingRobotsOccupiesASquare() throws InterruptedException
+    {
+        Grid grid = new Grid(8, 8);
+
+        for(int round = 0; round < 200; round++)
+        {
+            int winner = race(grid, 3, 4, NUM_THREADS);
+            assertEquals(winner, grid.getRobotId(3, 4));
+
+            grid.vacate(3, 4, winner);
+        }
+    }
+
+    @Test
+    public void aVacatedSquareCanBeOccupiedAgain()
+    {
+        Grid grid = new Grid(4, 4);
+
+        assertTrue(grid.tryOccupy(1, 2, 7));
+        assertFalse(grid.tryOccupy(1, 2, 8));
+        assertEquals(7, grid.getRobotId(1, 2));
+
+        grid.vacate(1, 2, 7);
+        assertEquals(Grid.NO_ROBOT, grid.getRobotId(1, 2));
+
+        assertTrue(grid.tryOccupy(1, 2, 8));
+        assertEquals(8, grid.getRobotId(1, 2));
+    }
+
+    @Test
+    public void onlyTheOccupyingRobotCanVacateASquare()
+    {
+        Grid grid = new Grid(4, 4);
+        grid.tryOccupy(1, 2, 7);
+
+        assertThrows(IllegalStateException.class, () -> grid.vacate(1, 2, 8));
+        assertEquals(7, grid.getRobotId(1, 2));
+
+        grid.vacate(1, 2, 7);
+        assertThrows(IllegalStateException.class, () -> grid.vacate(1, 2, 7)); // Already vacated
+    }
+
+    @Test
+    public void clearRobotFreesASquareWhoeverOccupiesIt()
+    {
+        Grid grid = new Grid(4, 4);
+        grid.tryOccupy(0, 0, 7);
+
+        grid.clearRobot(0, 0);
+        grid.clearRobot(0, 0); // Clearing an unoccupied square does nothing
+
+        assertEquals(Grid.NO_ROBOT, grid.getRobotId(0, 0));
+        assertTrue(grid.tryOccupy(0, 0, 8));
+    }
+
+    @Test
+    public void rejectsTheUnoccupiedRobotId()
+    {
+        Grid grid = new Grid(4, 4);
+        assertThrows(IllegalArgumentException.class, () -> grid.tryOccupy(0, 0, Grid.NO_ROBOT));
+    }
+
+    @Test
+    public void rejectsSquaresOutsideTheGrid()
+    {
+        Grid grid = new Grid(4, 5);
+
+        assertThrows(IllegalArgumentException.class, () -> grid.tryOccupy(5, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> grid.getRobotId(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> grid.getRobotId(-1, 0));
+    }
+
+    // NEIGHBOUR FLAGS AND SQUARE STATE (the packed arrays) ----------------------------
+
+    @Test
+    public void occupyingASquareFlagsItsNeighbours()
+    {
+        Grid grid = new Grid(5, 5);
+        grid.tryOccupy(2, 2, 1);
+
+        assertTrue(grid.isNeighbourOccupied(2, 1, 0, 1));  // Below the square above
+        assertTrue(grid.isNeighbourOccupied(2, 3, 0, -1)); // Above the square below
+        assertTrue(grid.isNeighbourOccupied(1, 2, 1, 0));  // Right of the square to the left
+        assertTrue(grid.isNeighbourOccupied(3, 2, -1, 0)); // Left of the square to the right
+
+        // No other flags are set
+        assertFalse(grid.isNeighbourOccupied(2, 1, 0, -1));
+        assertFalse(grid.isNeighbourOccupied(2, 2, 1, 0));
+        assertFalse(grid.isNeighbourOccupied(1, 1, 1, 0));
+    }
+
+    @Test
+    public void vacatingASquareClearsItsNeighboursFlags()
+    {
+        Grid grid = new Grid(5, 5);
+        grid.tryOccupy(2, 2, 1);
+        grid.vacate(2, 2, 1);
+
+        assertNoNeighbourFlags(grid);
+
+        grid.tryOccupy(2, 2, 2);
+        grid.clearRobot(2, 2);
+
+        assertNoNeighbourFlags(grid);
+    }
+
+    @Test
+    public void neighbourFlagsAreKeptPerNeighbour()
+    {
+        Grid grid = new Grid(5, 5);
+        grid.tryOccupy(1, 2, 1); // Left of (2, 2)
+        grid.tryOccupy(3, 2, 2); // Right of (2, 2)
+
+        grid.vacate(1, 2, 1);
+
+        assertFalse(grid.isNeighbourOccupied(2, 2, -1, 0));
+        assertTrue(grid.isNeighbourOccupied(2, 2, 1, 0));
+    }
+
+    @Test
+    public void occupyingACornerOnlyFlagsNeighboursInsideTheGrid()
+    {
+        Grid grid = new Grid(3, 4);
+        grid.tryOccupy(3, 2, 1); // Bottom right corner
+
+        assertTrue(grid.isNeighbourOccupied(2, 2, 1, 0));
+        assertTrue(grid.isNeighbourOccupied(3, 1, 0, 1));
+
+        grid.vacate(3, 2, 1);
+        assertNoNeighbourFlags(grid);
+    }
+
+    @Test
+    public void rejectsNonNeighbouringDirections()
+    {
+        Grid grid = new Grid(3, 3);
+        assertThrows(IllegalArgumentException.class, () -> grid.isNeighbourOccupied(1, 1, 1, 1));
+    }
+
+    @Test
+    public void theCitadelFlagIsKeptApartFromTheNeighbourFlags()
+    {
+        Grid grid = new Grid(3, 3);
+        grid.setCitadel(1, 1, true);
+        grid.tryOccupy(1, 0, 1);
+        grid.vacate(1, 0, 1);
+
+        assertTrue(grid.hasCitadel(1, 1));
+        assertFalse(grid.isNeighbourOccupied(1, 1, 0, -1));
+
+        grid.setCitadel(1, 1, false);
+        assertFalse(grid.hasCitadel(1, 1));
+    }
+
+    @Test
+    public void wallStatesFollowTheWalls()
+    {
+        Grid grid = new Grid(3, 3);
+        assertEquals(Grid.NO_WALL, grid.getWallState(0, 1));
+
+        grid.putWall(0, 1, new FortressWall(null, null, new Vector2d(0, 1)));
+        assertEquals(Grid.INTACT_WALL, grid.getWallState(0, 1));
+
+        grid.setWallState(0, 1, Grid.DAMAGED_WALL);
+        assertEquals(Grid.DAMAGED_WALL, grid.getWallState(0, 1));
+
+        grid.putWall(0, 1, null);
+        assertEquals(Grid.NO_WALL, grid.getWallState(0, 1));
+    }
+
+
+    // Checks no square has any of its neighbour flags set
+    private static void assertNoNeighbourFlags(Grid grid)
+    {
+        for(int y = 0; y < grid.getNumRows(); y++)
+        {
+            for(int x = 0; x < grid.getNumCols(); x++)
+            {
+                assertFalse(grid.isNeighbourOccupied(x, y, 0, -1));
+                assertFalse(grid.isNeighbourOccupied(x, y, 0, 1));
+                assertFalse(grid.isNeighbourOccupied(x, y, -1, 0));
+                assertFalse(grid.isNeighbourOccupied(x, y, 1, 0));
+            }
+        }
+    }
+
+    /*
+     * Has 'numRobots' threads (robots 1 to numRobots) try to occupy (x, y) at the same time. Checks exactly one
+     * succeeds, and returns its ID.
+     */
+    private static int race(Grid grid, int x, int y, int numRobots) throws InterruptedException
+    {
+        CountDownLatch ready = new CountDownLatch(numRobots);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger winner = new AtomicInteger(Grid.NO_ROBOT);
+        AtomicInteger wins = new AtomicInteger(0);
+        Thread[] threads = new Thread[numRobots];
+
+        for(int i = 0; i < numRobots; i++)
+        {
+            int robotId = i + 1;
+            threads[i] = new Thread( () -> {
+                ready.countDown();
+                try
+                {
+                    go.await();
+                }
+                catch(InterruptedException iE)
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                if(grid.tryOccupy(x, y, robotId))
+                {
+                    winner.set(robotId);
+                    wins.incrementAndGet();
+                }
+            });
+            threads[i].start();
+        }
+
+        ready.await();
+        go.countDown();
+        for(Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertEquals(1, wins.get(), "Robots that occupied (" + x + ", " + y + ")");
+        return winner.get();
+    }
+}
@@ -0,0 +1,196 @@
+package dwhiteheadcode.com.github.robot_defender.misc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * Tests for IntIntMap, in particular removal from the middle of a probe chain (which shifts later entries back
+ * into the gap), and probe chains that wrap around the end of the arrays.
+ */
+public class IntIntMapTest
+{
+    private static final int CAPACITY = 16; // The capacity of a new IntIntMap(), before it grows
+
+    @Test
+    public void collidingKeysWrapAroundTheEnd()
+    {
+        IntIntMap map = new IntIntMap();
+        int[] keys = keysWithHome(CAPACITY - 1, 3); // Stored in the last slot, then slots 0 and 1
+
+        for(int i = 0; i < keys.length; i++)
+        {
+            map.put(keys[i], i);
+        }
+
+        assertEquals(3, map.size());
+        for(int i = 0; i < keys.length; i++)
+        {
+            assertEquals(i, map.get(keys[i]));
+        }
+    }
+
+    @Test
+    public void removingTheMiddleOfAChainKeepsTheRestReachable()
+    {
+        IntIntMap map = new IntIntMap();
+        int[] chain = keysWithHome(CAPACITY - 2, 3); // Slots 14, 15 and 0
+        int[] next = keysWithHome(CAPACITY - 1, 1);  // Home 15, pushed along to slot 1
+
+        for(int i = 0; i < chain.length; i++)
+        {
+            map.put(chain[i], i);
+        }
+        map.put(next[0], 100);
+
+        assertEquals(1, map.remove(chain[1]));
+
+        assertEquals(IntIntMap.MISSING, map.get(chain[1]));
+        assertEquals(0, map.get(chain[0]));
+        assertEquals(2, map.get(chain[2]));
+        assertEquals(100, map.get(next[0]));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    public void removedKeysCanBeReinserted()
+    {
+        IntIntMap map = new IntIntMap();
+        int[] keys = keysWithHome(CAPACITY - 1, 4);
+
+        for(int key : keys)
+        {
+            map.put(key, 0);
+        }
+
+        for(int round = 1; round <= 3; round++)
+        {
+            for(int key : keys)
+            {
+                assertEquals(round - 1, map.remove(key));
+                assertEquals(IntIntMap.MISSING, map.get(key));
+
+                map.put(key, round);
+                assertEquals(round, map.get(key));
+            }
+        }
+        assertEquals(keys.length, map.size());
+    }
+
+    @Test
+    public void putReplacesAnExistingValue()
+    {
+        IntIntMap map = new IntIntMap();
+        map.put(7, 1);
+        map.put(7, 2);
+
+        assertEquals(2, map.get(7));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void removingAMissingKeyChangesNothing()
+    {
+        IntIntMap map = new IntIntMap();
+        map.put(7, 1);
+
+        assertEquals(IntIntMap.MISSING, map.remove(8));
+        assertEquals(1, map.get(7));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void growsPastHalfLoad()
+    {
+        IntIntMap map = new IntIntMap();
+        int numKeys = CAPACITY * 64;
+
+        for(int key = 0; key < numKeys; key++)
+        {
+            map.put(key, -key);
+        }
+
+        assertEquals(numKeys, map.size());
+        for(int key = 0; key < numKeys; key++)
+        {
+            assertEquals(-key, map.get(key));
+        }
+
+        for(int key = 0; key < numKeys; key += 2)
+        {
+            assertEquals(-key, map.remove(key));
+        }
+        for(int key = 0; key < numKeys; key++)
+        {
+            assertEquals(key % 2 == 0 ? IntIntMap.MISSING : -key, map.get(key));
+        }
+    }
+
+    @Test
+    public void matchesHashMapOverRandomOperations()
+    {
+        Random random = new Random(42);
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        // Few enough keys that chains often collide, and the map grows and shrinks around its capacity
+        for(int i = 0; i < 100_000; i++)
+        {
+            int key = random.nextInt(64) - 32;
+            if(random.nextBoolean())
+            {
+                map.put(key, i);
+                expected.put(key, i);
+            }
+            else
+            {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? IntIntMap.MISSING : removed, map.remove(key));
+            }
+
+            assertEquals(expected.size(), map.size());
+        }
+
+        for(int key = -32; key < 32; key++)
+        {
+            assertEquals(expected.getOrDefault(key, IntIntMap.MISSING), map.get(key));
+        }
+    }
+
+    @Test
+    public void rejectsTheEmptyMarkerAsAKey()
+    {
+        IntIntMap map = new IntIntMap();
+        assertThrows(IllegalArgumentException.class, () -> map.put(Integer.MIN_VALUE, 0));
+    }
+
+
+    // Returns the first 'count' non-negative keys whose home slot (in a map of CAPACITY slots) is 'home'
+    private static int[] keysWithHome(int home, int count)
+    {
+        int[] keys = new int[count];
+        int found = 0;
+
+        for(int key = 0; found < count; key++)
+        {
+            if(homeSlot(key) == home)
+            {
+                keys[found] = key;
+                found++;
+            }
+        }
+        return keys;
+    }
+
+    // The same hash as IntIntMap.indexOf()
+    private static int homeSlot(int key)
+    {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (CAPACITY - 1);
+    }
+}
@@ -0,0 +1,111 @@
+package dwhiteheadcode.com.github.robot_defender.misc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import dwhiteheadcode.com.github.robot_defender.entities.fortress_wall.FortressWall;
+import dwhiteheadcode.com.github.robot_defender.entities.robot.Robot;
+
+/*
+ * Tests that Location (now a view of a Grid square) keeps its invariants: a robot or wall can't be set on a
+ * Location that already has one.
+ */
+public class LocationTest
+{
+    @Test
+    public void aRobotCantBeSetOnAnOccupiedLocation()
+    {
+        Location location = new Grid(3, 3).location(1, 1);
+        location.setRobot( robot(1) );
+
+        assertThrows(IllegalStateException.class, () -> location.setRobot( robot(2) ));
+        assertEquals(1, location.getRobotId());
+    }
+
+    @Test
+    public void settingNoRobotClearsTheLocation()
+    {
+        Location location = new Grid(3, 3).location(1, 1);
+        location.setRobot( robot(1) );
+
+        location.setRobot(null);
+        assertFalse(location.hasRobot());
+
+        location.setRobot( robot(2) );
+        assertEquals(2, location.getRobotId());
+    }
+
+    @Test
+    public void onlyTheOccupyingRobotCanVacateTheLocation()
+    {
+        Location location = new Grid(3, 3).location(0, 2);
+        Robot robot = robot(1);
+        assertTrue(location.tryOccupy(robot));
+        assertFalse(location.tryOccupy( robot(2) ));
+
+        assertThrows(IllegalStateException.class, () -> location.vacate( robot(2) ));
+
+        location.vacate(robot);
+        assertFalse(location.hasRobot());
+    }
+
+    @Test
+    public void aWallCantBeSetOnALocationWithAWall()
+    {
+        Location location = new Grid(3, 3).location(2, 0);
+        FortressWall wall = wall(2, 0);
+        location.setWall(wall);
+
+        assertThrows(IllegalStateException.class, () -> location.setWall( wall(2, 0) ));
+        assertEquals(wall, location.getWall());
+    }
+
+    @Test
+    public void settingNoWallClearsTheLocation()
+    {
+        Location location = new Grid(3, 3).location(2, 0);
+        location.setWall( wall(2, 0) );
+
+        location.setWall(null);
+        assertFalse(location.hasWall());
+
+        FortressWall wall = wall(2, 0);
+        location.setWall(wall);
+        assertEquals(wall, location.getWall());
+    }
+
+    @Test
+    public void replacingAWallReturnsThePreviousWall()
+    {
+        Location location = new Grid(3, 3).location(2, 0);
+        FortressWall first = wall(2, 0);
+        FortressWall second = wall(2, 0);
+        location.setWall(first);
+
+        assertEquals(first, location.replaceWall(second));
+        assertEquals(second, location.getWall());
+        assertTrue(location.hasWall());
+    }
+
+    @Test
+    public void rejectsSquaresOutsideTheGrid()
+    {
+        Grid grid = new Grid(3, 3);
+        assertThrows(IllegalArgumentException.class, () -> grid.location(3, 0));
+    }
+
+
+    private static Robot robot(int id)
+    {
+        return new Robot(id, null); // Locations only use the robot's ID
+    }
+
+    private static FortressWall wall(int x, int y)
+    {
+        return new FortressWall(null, null, new Vector2d(x, y)); // Never damaged, so never uses its engine or output
+    }
+}
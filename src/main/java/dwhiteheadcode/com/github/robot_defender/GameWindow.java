@@ -1,20 +1,39 @@
 package dwhiteheadcode.com.github.robot_defender;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
 import dwhiteheadcode.com.github.robot_defender.arena.GameArena;
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameConfig;
 import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
 import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngineFactory;
-
-public class GameWindow
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.GameOutput;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.GameSound;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.LogEvent;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.LogEventBuffer;
+
+/*
+ * The JavaFX implementation of GameOutput. Displays the game, and plays its sounds.
+ */
+public class GameWindow implements GameOutput
 {
     private static final int WIDTH = 800;
     private static final int HEIGHT = 600;
     private static final double ARENA_MIN_WIDTH = 300.0d;
 
+    // Log
+    private static final int MAX_LOG_LINES = 500; // Older lines are removed from the on-screen log
+    private static final int LOG_BUFFER_CAPACITY = 4096; // Events waiting to be shown. Any more are dropped
+
+    private static final long NANOS_PER_TENTH_SECOND = 100_000_000L; // The wall cooldown is shown in tenths of a second
+
     // UI Elements
     private ToolBar toolbar = new ToolBar();
     private Label scoreLabel = new Label();
@@ -24,14 +43,39 @@ public class GameWindow
 
     private SplitPane splitPane = new SplitPane(); // Contains game window and game log
     
-    private TextArea logger = new TextArea();
+    // The on-screen log. A ListView only creates cells for (and so only formats) the visible lines
+    private ListView<LogEvent> logView = new ListView<>();
+    private LogEventBuffer logEvents = new LogEventBuffer(LOG_BUFFER_CAPACITY); // Events logged since the last pulse
+    private List<LogEvent> logBatch = new ArrayList<>(); // Reused by drainLog(). Only accessed by the UI thread
+    private AnimationTimer logDrainTimer;
+
+    // Score. Read from the game engine once per pulse
+    private int shownScore = 0; // Only accessed by the UI thread
+    private AnimationTimer scoreTimer;
+
+    // Wall cooldown. Counted down on screen once per pulse, only while a cooldown is running
+    private volatile long wallCooldownDeadline; // The System.nanoTime() at which the next wall can be placed
+    private long shownCooldownTenths = 0; // The remaining cooldown currently on screen. Only accessed by the UI thread
+    private AnimationTimer cooldownTimer;
 
     // Arena
     private GameArena arena;
 
+    // Tasks posted to the UI thread (with runOnUiThread()) that haven't run yet. Read by GameEngineMetrics
+    private final LongAdder pendingUiUpdates = new LongAdder();
+
     // Game Engine   
     private GameEngine gameEngine;
+    private final GameConfig config; // Used to create each game's engine
+
+    // Sounds, shared by every window and game
+    private SoundRegistry sounds;
+
 
+    public GameWindow(GameConfig config)
+    {
+        this.config = config;
+    }
 
     public void start(Stage stage) 
     {
@@ -45,6 +89,11 @@ public class GameWindow
 
         stage.setResizable(false);
 
+        sounds = SoundRegistry.instance();
+        setUpLogger();
+        setUpWallCooldown();
+        setUpScore();
+
         // Start a new game
         startNewGame();
 
@@ -54,35 +103,48 @@ public class GameWindow
 
     public void startNewGame()
     {
+        // Stop redrawing the previous game's arena (if any)
+        if(this.arena != null)
+        {
+            this.arena.stopRedrawing();
+        }
+
         // Create GameEngine
-        this.gameEngine = GameEngineFactory.instance(this);
+        this.gameEngine = GameEngineFactory.instance(this, config);
         int numRows = gameEngine.getNumRows();
         int numCols = gameEngine.getNumCols();
 
         // Create JFXArena
         this.arena = new GameArena(gameEngine, numRows, numCols);
-        this.gameEngine.setArena(arena);
-        this.arena.addListener(gameEngine);
+        this.arena.addListener( (x, y) -> gameEngine.squareClicked(x, y) );
         this.arena.setMinWidth(ARENA_MIN_WIDTH);
 
         // Set up/Reset UI
         this.scoreLabel.setText("Score: 0");
+        this.shownScore = 0;
         this.queuedWallsLabel.setText("Queued Walls: 0");
         this.availableWallsLabel.setText("Available Walls: " + gameEngine.getMaxWalls());
         this.wallCooldownLabel.setText("Wall Placement Cooldown: READY");
+        this.cooldownTimer.stop();
+        this.shownCooldownTenths = 0;
         
         if(this.toolbar.getItems().isEmpty()) // If this is the first game, add the elements to the toolbar
         {
             this.toolbar.getItems().addAll(scoreLabel, queuedWallsLabel, availableWallsLabel, wallCooldownLabel);
         }        
 
-        this.logger.clear();
+        this.logBatch.clear();
+        this.logEvents.drainTo(logBatch, Integer.MAX_VALUE); // Discard events left over from the previous game
+        this.logEvents.takeDroppedCount();
+        this.logBatch.clear();
+        this.logView.getItems().clear();
 
         this.splitPane.getItems().clear();
-        this.splitPane.getItems().addAll(arena, logger); 
+        this.splitPane.getItems().addAll(arena, logView); 
 
         // Start Game 
         gameEngine.start();
+        this.scoreTimer.start();
     }
 
     /*
@@ -91,35 +153,115 @@ public class GameWindow
     public void stop() 
     {
         gameEngine.stop();
+        arena.stopRedrawing();
+        logDrainTimer.stop();
+        cooldownTimer.stop();
+        scoreTimer.stop();
     }
 
     /*
-     * Display a message in the on-screen log.
+     * Display an event in the on-screen log. Doesn't post anything to the UI thread's queue: events are
+     * buffered, and shown in batches once per pulse (see drainLog()).
      */
-    public void log(String message)
+    @Override
+    public void log(LogEvent event)
     {
-        Platform.runLater( ()-> {
-            logger.appendText(message);
-        });        
+        logEvents.offer(event);
     }
 
     /*
-     * Update the score on screen.
+     * Sets up the on-screen log, and starts showing buffered log events once per pulse.
      */
-    public void setScore(int score)
+    private void setUpLogger()
     {
-        Platform.runLater( ()-> {
-            this.scoreLabel.setText("Score: " + score);
-        });        
+        logView.setCellFactory( list -> new ListCell<LogEvent>()
+        {
+            @Override
+            protected void updateItem(LogEvent event, boolean empty)
+            {
+                super.updateItem(event, empty);
+                setText(empty || event == null ? null : event.format()); // Only visible lines are formatted
+            }
+        });
+
+        logDrainTimer = new AnimationTimer()
+        {
+            @Override
+            public void handle(long now)
+            {
+                drainLog();
+            }
+        };
+        logDrainTimer.start();
+    }
+
+    /*
+     * Moves the events logged since the last pulse into the on-screen log, in one batch, and trims the 
+     * log to its last MAX_LOG_LINES lines.
+     *
+     * Thread: UI thread only
+     */
+    private void drainLog()
+    {
+        logEvents.drainTo(logBatch, LOG_BUFFER_CAPACITY);
+
+        long dropped = logEvents.takeDroppedCount();
+        if(dropped > 0)
+        {
+            logBatch.add( LogEvent.message(dropped + " log messages were dropped") );
+        }
+
+        if(logBatch.isEmpty())
+        {
+            return;
+        }
+
+        List<LogEvent> lines = logView.getItems();
+        lines.addAll(logBatch);
+        logBatch.clear();
+
+        int excess = lines.size() - MAX_LOG_LINES;
+        if(excess > 0)
+        {
+            lines.subList(0, excess).clear();
+        }
+
+        logView.scrollTo(lines.size() - 1);
+    }
+
+    /*
+     * Sets up the timer that shows the score. The score isn't pushed to the window: it's read from the
+     * game engine once per pulse, and the label is only changed when the score has changed.
+     */
+    private void setUpScore()
+    {
+        scoreTimer = new AnimationTimer()
+        {
+            @Override
+            public void handle(long now)
+            {
+                int score = gameEngine.getScore();
+                if(score != shownScore)
+                {
+                    scoreLabel.setText("Score: " + score);
+                    shownScore = score;
+                }
+            }
+        };
     }
 
     /*
      * Trigger end-of-game logic.
      */
+    @Override
     public void gameOver(int finalScore)
     {
-        Platform.runLater( ()-> {
+        runOnUiThread( ()-> {
             gameEngine.stop();
+            LogEvent renderStats = LogEvent.message("Rendered " + arena.getRenderedFrames() + " frames (" 
+                + arena.getCoalescedFrames() + " arena updates coalesced into earlier frames), repainting " 
+                + arena.getRepaintedSquares() + " robot squares");
+            log(renderStats);
             new GameOverWindow().display(finalScore, this);
         });        
     }
@@ -127,60 +269,121 @@ public class GameWindow
     /*
      * Update the on-screen text displaying the number of queue walls.
      */
+    @Override
     public void setQueuedWalls(int numWalls)
     {
-        Platform.runLater( ()-> {
+        runOnUiThread( ()-> {
             this.queuedWallsLabel.setText("Queued Walls: " + numWalls);
         });
     }
         
 
     /*
-     * Update the on-screen text displaying the cooldown before the next wall can/will be placed
+     * Start counting down the cooldown before the next wall can/will be placed. Posts one task to the UI
+     * thread per wall released; the label is then updated by cooldownTimer (see showWallCooldown()).
      */
-    public void setWallCooldownText(long cooldownMillis)
+    @Override
+    public void setWallCooldownDeadline(long deadlineNanos)
     {
-        if(cooldownMillis < 0)
-        {
-            throw new IllegalArgumentException("Can't set wall cooldown text for value " + cooldownMillis + " as it is less than 0");
-        }
+        this.wallCooldownDeadline = deadlineNanos;
+        runOnUiThread(cooldownTimer::start);
+    }
 
+    /*
+     * Sets up the timer that counts down the wall cooldown on screen. It's only started while a cooldown
+     * is running, and stops itself once the cooldown is over.
+     */
+    private void setUpWallCooldown()
+    {
+        cooldownTimer = new AnimationTimer()
+        {
+            @Override
+            public void handle(long now)
+            {
+                showWallCooldown();
+            }
+        };
+    }
 
-        if(cooldownMillis == 0l)
+    /*
+     * Shows the time left until wallCooldownDeadline, rounded up to a tenth of a second. Only changes the
+     * label's text when the shown value changes (about 10 times per second, rather than every pulse).
+     *
+     * Thread: UI thread only
+     */
+    private void showWallCooldown()
+    {
+        long remainingNanos = wallCooldownDeadline - System.nanoTime();
+        if(remainingNanos <= 0)
         {
-            Platform.runLater( ()-> {
-                this.wallCooldownLabel.setText("Wall Cooldown: READY");
-            } );            
+            this.wallCooldownLabel.setText("Wall Cooldown: READY");
+            this.shownCooldownTenths = 0;
+            cooldownTimer.stop();
+            return;
         }
-        else
-        {
-            double cooldownSeconds = (double)cooldownMillis / 1000;
 
-            Platform.runLater( ()-> {
-                this.wallCooldownLabel.setText("Wall Cooldown: " + cooldownSeconds + "s");
-            });            
+        long remainingTenths = (remainingNanos + NANOS_PER_TENTH_SECOND - 1) / NANOS_PER_TENTH_SECOND;
+        if(remainingTenths != shownCooldownTenths)
+        {
+            this.wallCooldownLabel.setText("Wall Cooldown: " + (remainingTenths / 10) + "." + (remainingTenths % 10) + "s");
+            this.shownCooldownTenths = remainingTenths;
         }
-        
-
     }
 
     /*
      * Update the on-screen text displaying the number of walls that can still be placed.
      * Does not count queued walls.
      */
+    @Override
     public void setAvailableWallsText(int availableWalls)
     {
-        Platform.runLater( ()-> {
+        runOnUiThread( ()-> {
             this.availableWallsLabel.setText("Available Walls: " + availableWalls);
         });        
     }
 
+    /*
+     * Redraw the arena at the next pulse. Doesn't post anything to the UI thread's queue: updates are 
+     * coalesced by the arena (see GameArena.requestRedraw()).
+     */
+    @Override
     public void updateArenaUi()
     {
-        Platform.runLater( () -> {
-            arena.requestLayout();
-        });
+        arena.requestRedraw();
+    }
+
+    /*
+     * Play a sound effect. 
+     * 
+     * The sound's AudioClip is shared, and can play over itself (e.g. if two walls are hit at the same
+     * time), so nothing is created per play, and nothing is posted to the UI thread.
+     */
+    @Override
+    public void playSound(GameSound sound)
+    {
+        sounds.play(sound);
     }
 
+    /*
+     * Returns the number of tasks posted to the UI thread that haven't run yet (see runOnUiThread()).
+     */
+    @Override
+    public int getPendingUiUpdates()
+    {
+        return pendingUiUpdates.intValue();
+    }
 
+    /*
+     * Posts 'update' to the UI thread (with Platform.runLater()), counting it as pending until it runs.
+     *
+     * Thread: Any
+     */
+    private void runOnUiThread(Runnable update)
+    {
+        pendingUiUpdates.increment();
+        Platform.runLater( ()-> {
+            pendingUiUpdates.decrement();
+            update.run();
+        });
+    }
 }
@@ -1,7 +1,9 @@
 package dwhiteheadcode.com.github.robot_defender;
 
+import java.io.IOException;
 import java.util.Optional;
 
+import dwhiteheadcode.com.github.robot_defender.game_engine.GameConfig;
 import dwhiteheadcode.com.github.robot_defender.misc.HighScoreAccessor;
 import javafx.application.Application;
 import javafx.geometry.Pos;
@@ -12,16 +14,30 @@ import javafx.stage.Stage;
 
 /*
  * The entrypoint for the program. 
+ *
+ * The game's settings (see GameConfig) can be given on the command line as --key=value, e.g. 
+ * --rows=500 --cols=500. --config=<file> reads settings from a properties file first (the other 
+ * command line settings override it). See GameConfig.fromArgs().
  */
 public class Main extends Application
 {
     private GameWindow game;
+    private GameConfig config;
 
     public static void main(String[] args) 
     {
         launch(args);        
     }
 
+    /*
+     * Reads the game's settings. Throws IllegalArgumentException (so the program exits) if they aren't valid.
+     */
+    @Override
+    public void init() throws IOException
+    {
+        this.config = GameConfig.fromArgs( getParameters().getRaw() );
+    }
+
     @Override
     public void start(Stage stage) throws Exception 
     {
@@ -30,7 +46,7 @@ public class Main extends Application
         Button startButton = new Button("Start");
         startButton.setOnAction(
             e -> {
-                this.game = new GameWindow();
+                this.game = new GameWindow(config);
                 this.game.start(stage);
             }
         );
@@ -0,0 +1,73 @@
+package dwhiteheadcode.com.github.robot_defender;
+
+import java.net.URL;
+import java.util.EnumMap;
+import java.util.Map;
+
+import javafx.scene.media.AudioClip;
+import dwhiteheadcode.com.github.robot_defender.game_engine.output.GameSound;
+
+/*
+ * The game's sound effects, each loaded and decoded once per process (as an AudioClip), and played by
+ * handle (GameSound).
+ *
+ * An AudioClip can be played any number of times, including overlapping itself (e.g. if two walls are hit
+ * at the same time), without creating a new player for each play. So memory and native resource use stay
+ * the same however many sounds are played.
+ *
+ * Thread: play() may be called from any thread (AudioClip playback is thread-safe).
+ */
+public class SoundRegistry
+{
+    // Sounds
+    public static final String PLACEMENT_SOUND_FILE = "sounds/wall_placement.wav";
+    public static final String COLLISION_SOUND_FILE = "sounds/wall_collision.wav";
+    public static final String DESTRUCTION_SOUND_FILE = "sounds/wall_destruction.wav";
+    public static final String GAME_OVER_SOUND_FILE = "sounds/game_over.wav";
+
+    private final Map<GameSound, AudioClip> clips = new EnumMap<>(GameSound.class);
+
+    // Loaded on first use, by the JVM's class initialisation (which is thread-safe)
+    private static class Holder
+    {
+        private static final SoundRegistry INSTANCE = new SoundRegistry();
+    }
+
+    private SoundRegistry()
+    {
+        clips.put( GameSound.WALL_PLACEMENT, loadClip(PLACEMENT_SOUND_FILE, 0.3) );
+        clips.put( GameSound.WALL_COLLISION, loadClip(COLLISION_SOUND_FILE, 0.5) );
+        clips.put( GameSound.WALL_DESTRUCTION, loadClip(DESTRUCTION_SOUND_FILE, 0.1) );
+        clips.put( GameSound.GAME_OVER, loadClip(GAME_OVER_SOUND_FILE, 0.1) );
+    }
+
+    /*
+     * Returns the process-wide registry, loading the sounds the first time it's called.
+     */
+    public static SoundRegistry instance()
+    {
+        return Holder.INSTANCE;
+    }
+
+    /*
+     * Plays 'sound' at its volume.
+     */
+    public void play(GameSound sound)
+    {
+        clips.get(sound).play();
+    }
+
+    // Return an AudioClip from a resource filename, with its volume set
+    private AudioClip loadClip(String path, double volume)
+    {
+        URL soundUrl = getClass().getClassLoader().getResource(path);
+        if(soundUrl == null)
+        {
+            throw new AssertionError("Cannot find sound file " + path);
+        }
+
+        AudioClip clip = new AudioClip(soundUrl.toString());
+        clip.setVolume(volume);
+        return clip;
+    }
+}
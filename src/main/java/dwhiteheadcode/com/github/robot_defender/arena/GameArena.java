@@ -1,28 +1,72 @@
 package dwhiteheadcode.com.github.robot_defender.arena;
 
+import javafx.animation.AnimationTimer;
 import javafx.scene.canvas.*;
 import javafx.geometry.VPos;
 import javafx.scene.image.Image;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.text.TextAlignment;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 import dwhiteheadcode.com.github.robot_defender.entities.robot.*;
 import dwhiteheadcode.com.github.robot_defender.game_engine.GameEngine;
+import dwhiteheadcode.com.github.robot_defender.game_engine.snapshot.WorldSnapshot;
 import dwhiteheadcode.com.github.robot_defender.misc.Vector2d;
 import dwhiteheadcode.com.github.robot_defender.entities.fortress_wall.*;
 
 
 /**
  * A JavaFX GUI element that displays a grid on which images, text and lines can be drawn.
+ *
+ * The arena is drawn on three stacked canvases (layers), so that each frame only redraws what has changed:
+ *     - Background: the grid lines and citadel. Only redrawn when the arena is resized.
+ *     - Walls: only checked when a new snapshot is published, and then only the squares whose wall changed
+ *       are redrawn.
+ *     - Robots: only the squares covered by robots that moved, appeared or disappeared are cleared and
+ *       repainted (clipped to those squares).
+ * So, a frame takes O(changed squares) draw calls, rather than O(squares + entities).
+ *
+ * The arena shows a viewport onto the grid, which can be zoomed (with the scroll wheel, around the mouse
+ * cursor) and panned (by dragging). If the whole grid fits in the window at a reasonable size, it's shown
+ * whole (as before). Only the squares, walls and robots inside the viewport are visited and drawn (robots and
+ * walls are found from the snapshot's tile index), so the cost of a frame depends on the viewport's size, not
+ * the grid's. Panning or zooming redraws the viewport from scratch.
  */
 public class GameArena extends Pane
 {
     private static final String CITADEL_IMAGE_FILE = "images/citadel.png";
 
+    // Wall states, as drawn on the wall layer
+    private static final byte NO_WALL = 0;
+    private static final byte INTACT_WALL = 1;
+    private static final byte DAMAGED_WALL = 2;
+    private static final byte SEEN = 1 << 6; // Marks squares whose wall is in the snapshot being drawn
+
+    // Sprite indexes in the sprite atlas (in the order the images are passed to SpriteAtlas)
+    private static final int ROBOT_SPRITE = 0;
+    private static final int UNDAMAGED_WALL_SPRITE = 1;
+    private static final int DAMAGED_WALL_SPRITE = 2;
+    private static final int CITADEL_SPRITE = 3;
+
+    // Conservative bounds (in pixels) of a robot's label, which is drawn below the robot's square
+    private static final double LABEL_HEIGHT = 18.0;
+    private static final double LABEL_CHAR_WIDTH = 10.0;
+    private static final int MAX_LABEL_DIGITS = 10; // Robot IDs are ints
+
+    // Viewport (sizes are pixels per grid square)
+    private static final double MIN_SQUARE_SIZE = 2.0; // Large grids can't be zoomed out further than this
+    private static final double MAX_SQUARE_SIZE = 128.0; // Unless the whole grid fits the window at a bigger size
+    private static final double INITIAL_SQUARE_SIZE = 24.0; // Unless the whole grid fits the window at a bigger size
+    private static final double ZOOM_STEP = 1.25; // Per scroll wheel notch
+    private static final double MIN_LABEL_SQUARE_SIZE = 16.0; // Robot labels are hidden when zoomed out further
+
     private GameEngine gameEngine;
 
     // Game entity images/sprites that can be drawn to the Pane.
@@ -30,15 +74,71 @@ public class GameArena extends Pane
     private Image undamagedFortressWallImage;
     private Image damagedFortressWallImage;
     private Image citadelImage;
+    private SpriteAtlas sprites; // The images above, pre-scaled to gridSquareSize. Rebuilt when it changes
     
     // The size of the grid that will be drawn.
     private final int gridCols;
     private final int gridRows;
 
-    private double gridSquareSize; // Auto-calculated
-    private Canvas canvas; // Used to provide a 'drawing surface'.
+    private double gridSquareSize; // Auto-calculated, from the window size and zoom
+
+    // The viewport. Only accessed by the UI thread
+    private double requestedSquareSize = INITIAL_SQUARE_SIZE; // Set by zooming, and limited to the window (see updateViewport())
+    private double viewX = Double.NaN; // The grid position of the viewport's top-left corner. Centred on the citadel when first shown
+    private double viewY = Double.NaN;
+    private double offsetX; // The viewport's top-left corner, in pixels from the grid's top-left corner
+    private double offsetY;
+    private int visibleMinX; // The squares that are (at least partly) inside the viewport
+    private int visibleMinY;
+    private int visibleMaxX;
+    private int visibleMaxY;
+    private boolean labelsShown;
+    private double dragX; // Where the mouse was at the last press/drag event
+    private double dragY;
+
+    // Drawing surfaces (layers), from bottom to top
+    private final Canvas backgroundCanvas;
+    private final Canvas wallCanvas;
+    private final Canvas robotCanvas;
+
+    // What is currently drawn on the layers. Only accessed by the UI thread
+    private double drawnWidth = -1.0;
+    private double drawnHeight = -1.0;
+    private double drawnSquareSize = -1.0;
+    private double drawnOffsetX = -1.0;
+    private double drawnOffsetY = -1.0;
+    private long drawnSnapshotSequence = -1;
+
+    private final byte[] drawnWallStates; // The wall state drawn at each square (indexed by y * gridCols + x)
+    private int[] drawnWallSquares = new int[16]; // The squares that have walls drawn
+    private int[] nextWallSquares = new int[16];
+    private int drawnWallCount = 0;
+
+    // Indexed by the robot's RobotTable slot (see WorldSnapshot.getRobotSlot()), so these only grow to the peak
+    // number of robots, however many robots have come and gone
+    private double[] drawnRobotXs = new double[16]; // Where each robot is drawn
+    private double[] drawnRobotYs = new double[16];
+    private int[] drawnRobotIds = new int[16]; // The ID of the robot drawn in each slot (slots are reused)
+    private long[] drawnRobotPasses = new long[16]; // The last robot pass each slot's robot was drawn in
+    private long robotPass = 1;
+    private int[] drawnRobotSlots = new int[16]; // The slots of the robots drawn in the last robot pass
+    private int[] nextRobotSlots = new int[16];
+    private int drawnRobotCount = 0;
+
+    private final boolean[] dirtySquares; // Squares of the robot layer to be repainted this frame
+    private int[] dirtySquareList = new int[16];
+    private int dirtySquareCount = 0;
+    private final int[] footprint = new int[4]; // Squares covered by a robot: min X, min Y, max X, max Y
+    private long repaintedSquares = 0; // Total squares repainted on the robot layer
 
     private List<ArenaListener> listeners = null;
+
+    // Redrawing. Any number of requestRedraw() calls between two pulses result in one redraw
+    private final AtomicBoolean redrawNeeded = new AtomicBoolean(false);
+    private final LongAdder redrawRequests = new LongAdder(); // Total calls to requestRedraw()
+    private long renderedFrames = 0; // Total redraws caused by requestRedraw(). Only accessed by the UI thread
+    private final AnimationTimer redrawTimer;
+    private long frameNanos = System.nanoTime(); // The time of the current pulse, for interpolating moving robots
     
     /**
      * Creates a new arena object, loading the entity images and initialising a drawing surface.
@@ -58,10 +158,93 @@ public class GameArena extends Pane
         this.gameEngine = gameEngine;
         
         // Draw UI        
-        canvas = new Canvas();
-        canvas.widthProperty().bind(widthProperty());
-        canvas.heightProperty().bind(heightProperty());
-        getChildren().add(canvas);
+        this.backgroundCanvas = createLayer();
+        this.wallCanvas = createLayer();
+        this.robotCanvas = createLayer();
+
+        this.drawnWallStates = new byte[numRows * numCols];
+        this.dirtySquares = new boolean[numRows * numCols];
+
+        // Zoom and pan
+        setOnScroll(this::zoom);
+        setOnMousePressed(this::startDrag);
+        setOnMouseDragged(this::pan);
+
+        // Check for a pending redraw once per pulse (i.e. once per frame)
+        redrawTimer = new AnimationTimer()
+        {
+            @Override
+            public void handle(long now)
+            {
+                frameNanos = now;
+
+                if(redrawNeeded.getAndSet(false))
+                {
+                    renderedFrames++;
+                    requestLayout();
+                }
+                // Robots move between snapshots, so keep redrawing until their moves are finished
+                else if(gameEngine.getSnapshot().hasMovingRobots(now))
+                {
+                    requestLayout();
+                }
+            }
+        };
+        redrawTimer.start();
+    }
+
+    /**
+     * Requests that the arena be redrawn at the next pulse. Can be called from any thread, any number of 
+     * times: requests are coalesced, so the arena is redrawn at most once per pulse.
+     */
+    public void requestRedraw()
+    {
+        redrawRequests.increment();
+        redrawNeeded.set(true);
+    }
+
+    /**
+     * Stops checking for redraw requests. Called when this arena is no longer displayed.
+     */
+    public void stopRedrawing()
+    {
+        redrawTimer.stop();
+    }
+
+    /**
+     * Returns the number of frames rendered because of requestRedraw(). Must be called from the UI thread.
+     */
+    public long getRenderedFrames()
+    {
+        return renderedFrames;
+    }
+
+    /**
+     * Returns the number of requestRedraw() calls that didn't need their own frame (as another request was 
+     * already pending). Must be called from the UI thread.
+     */
+    public long getCoalescedFrames()
+    {
+        return redrawRequests.sum() - renderedFrames;
+    }
+
+    /**
+     * Returns the number of squares repainted on the robot layer (over all frames). Must be called from the 
+     * UI thread.
+     */
+    public long getRepaintedSquares()
+    {
+        return repaintedSquares;
+    }
+
+    // Adds a canvas the size of the arena, on top of the existing ones
+    private Canvas createLayer()
+    {
+        Canvas layer = new Canvas();
+        layer.widthProperty().bind(widthProperty());
+        layer.heightProperty().bind(heightProperty());
+        getChildren().add(layer);
+        return layer;
     }
    
 
@@ -95,10 +278,15 @@ public class GameArena extends Pane
             listeners = new LinkedList<>();
             setOnMouseClicked(event ->
             {
-                int gridX = (int)(event.getX() / gridSquareSize);
-                int gridY = (int)(event.getY() / gridSquareSize);
+                if(!event.isStillSincePress()) // The end of a drag (i.e. a pan), rather than a click
+                {
+                    return;
+                }
+
+                int gridX = (int)Math.floor((event.getX() + offsetX) / gridSquareSize);
+                int gridY = (int)Math.floor((event.getY() + offsetY) / gridSquareSize);
                 
-                if(gridX < gridCols && gridY < gridRows)
+                if(gridX >= 0 && gridX < gridCols && gridY >= 0 && gridY < gridRows)
                 {
                     for(ArenaListener listener : listeners)
                     {   
@@ -112,122 +300,511 @@ public class GameArena extends Pane
         
         
     /**
-     * This method is called in order to redraw the screen, either because the user is manipulating 
+     * This method is called in order to redraw the screen, either because the user is manipulating
      * the window, OR because you've called 'requestLayout()'.
+     *
+     * Each layer only redraws what has changed since it was last drawn (see the class comment).
      */
     @Override
     public void layoutChildren()
     {
-        super.layoutChildren(); 
-        GraphicsContext gfx = canvas.getGraphicsContext2D();
-        gfx.clearRect(0.0, 0.0, canvas.getWidth(), canvas.getHeight());
-        
-        // First, calculate how big each grid cell should be, in pixels. (We do need to do this
-        // every time we repaint the arena, because the size can change.)
-        gridSquareSize = Math.min(
-            getWidth() / (double) gridCols,
-            getHeight() / (double) gridRows);
-            
+        super.layoutChildren();
+
+        if(getWidth() < 1.0 || getHeight() < 1.0) // Nothing to draw on (e.g. before the arena is first shown)
+        {
+            return;
+        }
+
+        // First, work out which part of the grid is shown, and how big each grid cell should be, in pixels. 
+        // (We do need to do this every time we repaint the arena, because the size can change.)
+        updateViewport();
+
+        // Resizing, zooming or panning changes where everything is drawn, so all layers are redrawn from scratch
+        if(getWidth() != drawnWidth || getHeight() != drawnHeight || gridSquareSize != drawnSquareSize
+            || offsetX != drawnOffsetX || offsetY != drawnOffsetY)
+        {
+            if(sprites == null || sprites.getSquareSize() != gridSquareSize)
+            {
+                sprites = new SpriteAtlas(gridSquareSize, 
+                    robotImage, undamagedFortressWallImage, damagedFortressWallImage, citadelImage);
+            }
+
+            drawBackground();
+            clearWalls();
+            clearRobots();
+
+            drawnWidth = getWidth();
+            drawnHeight = getHeight();
+            drawnSquareSize = gridSquareSize;
+            drawnOffsetX = offsetX;
+            drawnOffsetY = offsetY;
+        }
+
+        // The snapshot is read without locking, so this never waits for the game engine.
+        WorldSnapshot snapshot = gameEngine.getSnapshot();
+
+        // Walls only change when a new snapshot is published
+        if(snapshot.getSequence() != drawnSnapshotSequence)
+        {
+            updateWalls(snapshot);
+            drawnSnapshotSequence = snapshot.getSequence();
+        }
+
+        // Robots also move between snapshots, so are checked every frame
+        updateRobots(snapshot);
+    }
+
+    // VIEWPORT ----------------------------
+
+    // Sets the square size and viewport position (keeping them within the grid), and finds the visible squares
+    private void updateViewport()
+    {
+        gridSquareSize = limitSquareSize(requestedSquareSize);
+
+        double viewWidth = getWidth() / gridSquareSize; // In grid squares
+        double viewHeight = getHeight() / gridSquareSize;
+
+        if(Double.isNaN(viewX)) // First shown: centre the viewport on the citadel
+        {
+            Vector2d citadelPos = gameEngine.getCitadel();
+            viewX = citadelPos.x() + 0.5 - viewWidth / 2.0;
+            viewY = citadelPos.y() + 0.5 - viewHeight / 2.0;
+        }
+
+        // If the grid is smaller than the viewport, it's drawn in the top-left corner
+        viewX = Math.max(0.0, Math.min(viewX, gridCols - viewWidth));
+        viewY = Math.max(0.0, Math.min(viewY, gridRows - viewHeight));
+
+        // Whole pixels, so the grid lines and sprites don't shimmer while panning
+        offsetX = Math.rint(viewX * gridSquareSize);
+        offsetY = Math.rint(viewY * gridSquareSize);
+
+        visibleMinX = (int)(offsetX / gridSquareSize);
+        visibleMinY = (int)(offsetY / gridSquareSize);
+        visibleMaxX = Math.min(gridCols - 1, (int)((offsetX + getWidth()) / gridSquareSize));
+        visibleMaxY = Math.min(gridRows - 1, (int)((offsetY + getHeight()) / gridSquareSize));
+
+        labelsShown = gridSquareSize >= MIN_LABEL_SQUARE_SIZE;
+    }
+
+    // Limits a square size so that the grid fills the window (or is shown whole), and sprites aren't too big
+    private double limitSquareSize(double squareSize)
+    {
+        double fitSquareSize = Math.min(getWidth() / gridCols, getHeight() / gridRows); // The whole grid fits
+        double minSquareSize = Math.max(fitSquareSize, MIN_SQUARE_SIZE);
+        double maxSquareSize = Math.max(minSquareSize, MAX_SQUARE_SIZE);
+
+        return Math.max(minSquareSize, Math.min(squareSize, maxSquareSize));
+    }
+
+    // Zooms in or out one step, keeping the grid position under the mouse cursor still
+    private void zoom(ScrollEvent event)
+    {
+        if(event.getDeltaY() == 0.0 || gridSquareSize <= 0.0) // Horizontal scrolling, or not shown yet
+        {
+            return;
+        }
+
+        double cursorGridX = (offsetX + event.getX()) / gridSquareSize;
+        double cursorGridY = (offsetY + event.getY()) / gridSquareSize;
+
+        double step = event.getDeltaY() > 0.0 ? ZOOM_STEP : 1.0 / ZOOM_STEP;
+        requestedSquareSize = limitSquareSize(gridSquareSize * step);
+
+        viewX = cursorGridX - event.getX() / requestedSquareSize;
+        viewY = cursorGridY - event.getY() / requestedSquareSize;
+        requestLayout();
+        event.consume();
+    }
+
+    private void startDrag(MouseEvent event)
+    {
+        dragX = event.getX();
+        dragY = event.getY();
+    }
+
+    // Moves the viewport with the mouse, so the grid follows the cursor
+    private void pan(MouseEvent event)
+    {
+        if(gridSquareSize <= 0.0)
+        {
+            return;
+        }
+
+        viewX += (dragX - event.getX()) / gridSquareSize;
+        viewY += (dragY - event.getY()) / gridSquareSize;
+        dragX = event.getX();
+        dragY = event.getY();
+        requestLayout();
+    }
+
+    // Clears a layer, and offsets its drawing by the viewport. Everything is then drawn at its position in
+    // the whole grid (in pixels), and the canvas clips anything outside the viewport.
+    private GraphicsContext resetLayer(Canvas layer)
+    {
+        GraphicsContext gfx = layer.getGraphicsContext2D();
+        gfx.setTransform(1.0, 0.0, 0.0, 1.0, 0.0, 0.0);
+        gfx.clearRect(0.0, 0.0, layer.getWidth(), layer.getHeight());
+        gfx.setTransform(1.0, 0.0, 0.0, 1.0, -offsetX, -offsetY);
+        return gfx;
+    }
+
+    // BACKGROUND LAYER ----------------------------
+
+    private void drawBackground()
+    {
+        GraphicsContext gfx = resetLayer(backgroundCanvas);
+
         double arenaPixelWidth = gridCols * gridSquareSize;
         double arenaPixelHeight = gridRows * gridSquareSize;
-            
-            
+
+        // The part of the grid lines that's inside the viewport
+        double top = visibleMinY * gridSquareSize;
+        double bottom = Math.min(arenaPixelHeight, (visibleMaxY + 1.0) * gridSquareSize);
+        double left = visibleMinX * gridSquareSize;
+        double right = Math.min(arenaPixelWidth, (visibleMaxX + 1.0) * gridSquareSize);
+
         // Draw the arena grid lines. This may help for debugging purposes, and just generally
         // to see what's going on.
         gfx.setStroke(Color.DARKGREY);
         gfx.strokeRect(0.0, 0.0, arenaPixelWidth - 1.0, arenaPixelHeight - 1.0); // Outer edge
 
-        for(int gridX = 1; gridX < gridCols; gridX++) // Internal vertical grid lines
+        for(int gridX = Math.max(1, visibleMinX); gridX <= visibleMaxX; gridX++) // Internal vertical grid lines
         {
             double x = (double) gridX * gridSquareSize;
-            gfx.strokeLine(x, 0.0, x, arenaPixelHeight);
+            gfx.strokeLine(x, top, x, bottom);
         }
-        
-        for(int gridY = 1; gridY < gridRows; gridY++) // Internal horizontal grid lines
+
+        for(int gridY = Math.max(1, visibleMinY); gridY <= visibleMaxY; gridY++) // Internal horizontal grid lines
         {
             double y = (double) gridY * gridSquareSize;
-            gfx.strokeLine(0.0, y, arenaPixelWidth, y);
+            gfx.strokeLine(left, y, right, y);
         }
 
-        // Invoke helper methods to draw things at the current location.
-        List<ReadOnlyRobot> robots = gameEngine.getRobots();
-        List<ReadOnlyFortressWall> walls = gameEngine.getPlacedWalls();
+        // Draw Citadel
         Vector2d citadelPos = gameEngine.getCitadel();
+        sprites.draw( gfx, CITADEL_SPRITE, citadelPos.x(), citadelPos.y() );
+    }
 
-        // Draw Citadel
-        drawImage( gfx, citadelImage, citadelPos.x(), citadelPos.y() );
+    // WALL LAYER ----------------------------
 
-        //Draw all walls
-        for(ReadOnlyFortressWall w : walls)
+    // Clears the wall layer, so every wall is redrawn by the next updateWalls()
+    private void clearWalls()
+    {
+        resetLayer(wallCanvas);
+
+        for(int i = 0; i < drawnWallCount; i++)
         {
-            if(w.isDamaged())
+            drawnWallStates[ drawnWallSquares[i] ] = NO_WALL;
+        }
+        drawnWallCount = 0;
+        drawnSnapshotSequence = -1;
+    }
+
+    // Redraws the visible squares whose wall has been placed, damaged or destroyed since the last snapshot
+    private void updateWalls(WorldSnapshot snapshot)
+    {
+        GraphicsContext gfx = wallCanvas.getGraphicsContext2D();
+        int wallCount = 0; // Visible walls
+
+        if(nextWallSquares.length < snapshot.getWallCount())
+        {
+            nextWallSquares = new int[ Math.max(snapshot.getWallCount(), nextWallSquares.length * 2) ];
+        }
+
+        // Draw new and changed walls, in the tiles that overlap the viewport
+        int minTileX = visibleMinX / WorldSnapshot.TILE_SIZE;
+        int maxTileX = Math.min(snapshot.getTileCols() - 1, visibleMaxX / WorldSnapshot.TILE_SIZE);
+        int maxTileY = Math.min(snapshot.getTileRows() - 1, visibleMaxY / WorldSnapshot.TILE_SIZE);
+
+        for(int tileY = visibleMinY / WorldSnapshot.TILE_SIZE; tileY <= maxTileY && minTileX <= maxTileX; tileY++)
+        {
+            int rowStart = tileY * snapshot.getTileCols();
+            int end = snapshot.getWallTileStart(rowStart + maxTileX + 1);
+
+            for(int position = snapshot.getWallTileStart(rowStart + minTileX); position < end; position++)
             {
-                drawImage( gfx, damagedFortressWallImage, w.getCoordinates().x(), w.getCoordinates().y() );
+                int i = snapshot.getWallByTile(position);
+                int x = snapshot.getWallX(i);
+                int y = snapshot.getWallY(i);
+
+                if(x < visibleMinX || x > visibleMaxX || y < visibleMinY || y > visibleMaxY)
+                {
+                    continue;
+                }
+
+                int square = y * gridCols + x;
+                byte state = snapshot.isWallDamaged(i) ? DAMAGED_WALL : INTACT_WALL;
+
+                if(drawnWallStates[square] != state)
+                {
+                    clearSquare(gfx, x, y);
+                    sprites.draw( gfx, state == DAMAGED_WALL ? DAMAGED_WALL_SPRITE : UNDAMAGED_WALL_SPRITE, x, y );
+                }
+
+                drawnWallStates[square] = (byte)(state | SEEN);
+                nextWallSquares[wallCount] = square;
+                wallCount++;
             }
-            else
+        }
+
+        // Erase walls that are no longer in the snapshot (i.e. destroyed walls)
+        for(int i = 0; i < drawnWallCount; i++)
+        {
+            int square = drawnWallSquares[i];
+            if((drawnWallStates[square] & SEEN) == 0)
             {
-                drawImage( gfx, undamagedFortressWallImage, w.getCoordinates().x(), w.getCoordinates().y() );
+                clearSquare(gfx, square % gridCols, square / gridCols);
+                drawnWallStates[square] = NO_WALL;
             }
         }
 
-        //Draw all robots
-        for(ReadOnlyRobot r : robots)
+        for(int i = 0; i < wallCount; i++)
         {
-            //Draw the robot icon
-            drawImage( gfx, robotImage, r.getCoordinates().x(), r.getCoordinates().y() );
+            drawnWallStates[ nextWallSquares[i] ] &= ~SEEN;
+        }
+
+        int[] previousWallSquares = drawnWallSquares;
+        drawnWallSquares = nextWallSquares;
+        nextWallSquares = previousWallSquares;
+        drawnWallCount = wallCount;
+    }
+
+    private void clearSquare(GraphicsContext gfx, int gridX, int gridY)
+    {
+        gfx.clearRect(gridX * gridSquareSize, gridY * gridSquareSize, gridSquareSize, gridSquareSize);
+    }
+
+    // ROBOT LAYER ----------------------------
+
+    // Clears the robot layer, so every robot is redrawn by the next updateRobots()
+    private void clearRobots()
+    {
+        resetLayer(robotCanvas);
+
+        robotPass++; // So no robot counts as drawn in the last pass
+        drawnRobotCount = 0;
+    }
 
-            //Draw the label
-            String label = String.valueOf(r.getId());
-            drawLabel( gfx, label, r.getCoordinates().x(), r.getCoordinates().y() );
+    // Finds the robots that have moved, appeared or disappeared since the last frame, and repaints the
+    // squares they cover (and covered). Only robots near the viewport are visited: robots that leave it count
+    // as disappeared, and robots that enter it count as appeared.
+    private void updateRobots(WorldSnapshot snapshot)
+    {
+        long lastPass = robotPass;
+        robotPass++;
+
+        int robotCount = 0; // Robots visited
+        if(nextRobotSlots.length < snapshot.getRobotCount())
+        {
+            nextRobotSlots = new int[ Math.max(snapshot.getRobotCount(), nextRobotSlots.length * 2) ];
+        }
+
+        // Robots outside the viewport may still cover part of it, as they may be moving into the next square,
+        // and their labels overhang their square
+        double overhang = labelsShown ? Math.max(LABEL_HEIGHT, MAX_LABEL_DIGITS * LABEL_CHAR_WIDTH / 2.0) : 0.0;
+        int margin = 1 + (int)Math.ceil(overhang / gridSquareSize);
+
+        int minTileX = Math.max(0, visibleMinX - margin) / WorldSnapshot.TILE_SIZE;
+        int maxTileX = Math.min(snapshot.getTileCols() - 1, (visibleMaxX + margin) / WorldSnapshot.TILE_SIZE);
+        int maxTileY = Math.min(snapshot.getTileRows() - 1, (visibleMaxY + margin) / WorldSnapshot.TILE_SIZE);
+
+        for(int tileY = Math.max(0, visibleMinY - margin) / WorldSnapshot.TILE_SIZE; tileY <= maxTileY && minTileX <= maxTileX; tileY++)
+        {
+            int rowStart = tileY * snapshot.getTileCols();
+            int end = snapshot.getRobotTileStart(rowStart + maxTileX + 1);
+
+            for(int position = snapshot.getRobotTileStart(rowStart + minTileX); position < end; position++)
+            {
+                int i = snapshot.getRobotByTile(position);
+                int slot = snapshot.getRobotSlot(i);
+                int id = snapshot.getRobotId(i);
+                double x = snapshot.getRobotX(i, frameNanos);
+                double y = snapshot.getRobotY(i, frameNanos);
+                ensureRobotCapacity(slot);
+
+                boolean drawnLastPass = drawnRobotPasses[slot] == lastPass;
+                if(drawnLastPass && drawnRobotIds[slot] != id)
+                {
+                    // The robot drawn in this slot has been destroyed, and the slot reused by a new robot
+                    markRobotDirty(drawnRobotXs[slot], drawnRobotYs[slot], drawnRobotIds[slot]);
+                    drawnLastPass = false;
+                }
+
+                if(!drawnLastPass || drawnRobotXs[slot] != x || drawnRobotYs[slot] != y)
+                {
+                    if(drawnLastPass)
+                    {
+                        markRobotDirty(drawnRobotXs[slot], drawnRobotYs[slot], id); // Where it was
+                    }
+                    markRobotDirty(x, y, id); // Where it is now
+
+                    drawnRobotXs[slot] = x;
+                    drawnRobotYs[slot] = y;
+                }
+
+                drawnRobotIds[slot] = id;
+                drawnRobotPasses[slot] = robotPass;
+                nextRobotSlots[robotCount] = slot;
+                robotCount++;
+            }
         }
 
+        // Erase robots that are no longer in the snapshot (i.e. destroyed robots), or are no longer near the viewport
+        for(int i = 0; i < drawnRobotCount; i++)
+        {
+            int slot = drawnRobotSlots[i];
+            if(drawnRobotPasses[slot] == lastPass)
+            {
+                markRobotDirty(drawnRobotXs[slot], drawnRobotYs[slot], drawnRobotIds[slot]);
+            }
+        }
+
+        int[] previousRobotSlots = drawnRobotSlots;
+        drawnRobotSlots = nextRobotSlots;
+        nextRobotSlots = previousRobotSlots;
+        drawnRobotCount = robotCount;
+
+        if(dirtySquareCount > 0)
+        {
+            repaintDirtySquares();
+        }
     }
-    
-    
-    /** 
-     * Draw an image in a specific grid location. *Only* call this from within layoutChildren(). 
-     *
-     * Note that the grid location can be fractional, so that (for instance), you can draw an image 
-     * at location (3.5,4), and it will appear on the boundary between grid cells (3,4) and (4,4).
-     */
-    private void drawImage(GraphicsContext gfx, Image image, double gridX, double gridY)
+
+    // Clears the dirty squares, and redraws every robot that covers any of them. Drawing is clipped to the
+    // dirty squares, so robots that are only partly inside them aren't drawn twice elsewhere.
+    private void repaintDirtySquares()
     {
-        // Get the pixel coordinates representing the centre of where the image is to be drawn. 
-        double x = (gridX + 0.5) * gridSquareSize;
-        double y = (gridY + 0.5) * gridSquareSize;
-        
-        // We also need to know how "big" to make the image. The image file has a natural width 
-        // and height, but that's not necessarily the size we want to draw it on the screen. We 
-        // do, however, want to preserve its aspect ratio.
-        double fullSizePixelWidth = image.getWidth(); 
-        double fullSizePixelHeight = image.getHeight(); 
-        
-        double displayedPixelWidth, displayedPixelHeight;
-        if(fullSizePixelWidth > fullSizePixelHeight)
+        GraphicsContext gfx = robotCanvas.getGraphicsContext2D();
+        gfx.save();
+
+        gfx.beginPath();
+        for(int i = 0; i < dirtySquareCount; i++)
         {
-            // Here, the image is wider than it is high, so we'll display it such that it's as 
-            // wide as a full grid cell, and the height will be set to preserve the aspect 
-            // ratio.
-            displayedPixelWidth = gridSquareSize;
-            displayedPixelHeight = gridSquareSize * fullSizePixelHeight / fullSizePixelWidth;
+            int square = dirtySquareList[i];
+            gfx.rect((square % gridCols) * gridSquareSize, (square / gridCols) * gridSquareSize,
+                gridSquareSize, gridSquareSize);
         }
-        else
+        gfx.clip();
+
+        for(int i = 0; i < dirtySquareCount; i++)
         {
-            // Otherwise, it's the other way around -- full height, and width is set to 
-            // preserve the aspect ratio.
-            displayedPixelHeight = gridSquareSize;
-            displayedPixelWidth = gridSquareSize * fullSizePixelWidth / fullSizePixelHeight;
+            int square = dirtySquareList[i];
+            clearSquare(gfx, square % gridCols, square / gridCols);
         }
 
-        // Actually put the image on the screen.
-        gfx.drawImage(image,
-            x - displayedPixelWidth / 2.0,  // Top-left pixel coordinates.
-            y - displayedPixelHeight / 2.0, 
-            displayedPixelWidth,              // Size of displayed image.
-            displayedPixelHeight);
+        for(int i = 0; i < drawnRobotCount; i++)
+        {
+            int slot = drawnRobotSlots[i];
+            int id = drawnRobotIds[slot];
+            double x = drawnRobotXs[slot];
+            double y = drawnRobotYs[slot];
+
+            if(coversDirtySquare(x, y, id))
+            {
+                //Draw the robot icon
+                sprites.draw( gfx, ROBOT_SPRITE, x, y );
+
+                //Draw the label
+                if(labelsShown)
+                {
+                    drawLabel( gfx, String.valueOf(id), x, y );
+                }
+            }
+        }
+
+        gfx.restore();
+
+        for(int i = 0; i < dirtySquareCount; i++)
+        {
+            dirtySquares[ dirtySquareList[i] ] = false;
+        }
+        repaintedSquares += dirtySquareCount;
+        dirtySquareCount = 0;
     }
-    
-    
+
+    private void markRobotDirty(double x, double y, int id)
+    {
+        findFootprint(x, y, id);
+
+        for(int gridY = footprint[1]; gridY <= footprint[3]; gridY++)
+        {
+            for(int gridX = footprint[0]; gridX <= footprint[2]; gridX++)
+            {
+                int square = gridY * gridCols + gridX;
+                if(!dirtySquares[square])
+                {
+                    dirtySquares[square] = true;
+
+                    if(dirtySquareCount == dirtySquareList.length)
+                    {
+                        dirtySquareList = Arrays.copyOf(dirtySquareList, dirtySquareCount * 2);
+                    }
+                    dirtySquareList[dirtySquareCount] = square;
+                    dirtySquareCount++;
+                }
+            }
+        }
+    }
+
+    private boolean coversDirtySquare(double x, double y, int id)
+    {
+        findFootprint(x, y, id);
+
+        for(int gridY = footprint[1]; gridY <= footprint[3]; gridY++)
+        {
+            for(int gridX = footprint[0]; gridX <= footprint[2]; gridX++)
+            {
+                if(dirtySquares[gridY * gridCols + gridX])
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Sets 'footprint' to the visible squares covered by the image and label of robot 'id' at (x, y). The
+    // footprint is empty (min > max) if the robot is outside the viewport.
+    private void findFootprint(double x, double y, int id)
+    {
+        double labelHalfWidth = labelsShown ? numDigits(id) * LABEL_CHAR_WIDTH / 2.0 : 0.0;
+        double centreX = (x + 0.5) * gridSquareSize;
+
+        double left = Math.min(x * gridSquareSize, centreX - labelHalfWidth);
+        double right = Math.max((x + 1.0) * gridSquareSize, centreX + labelHalfWidth);
+        double top = y * gridSquareSize;
+        double bottom = (y + 1.0) * gridSquareSize + (labelsShown ? LABEL_HEIGHT : 0.0);
+
+        footprint[0] = Math.max(visibleMinX, (int)Math.floor(left / gridSquareSize));
+        footprint[1] = Math.max(visibleMinY, (int)Math.floor(top / gridSquareSize));
+        footprint[2] = Math.min(visibleMaxX, (int)Math.floor(right / gridSquareSize));
+        footprint[3] = Math.min(visibleMaxY, (int)Math.floor(bottom / gridSquareSize));
+    }
+
+    private static int numDigits(int id)
+    {
+        int digits = 1;
+        for(int n = id; n >= 10; n /= 10)
+        {
+            digits++;
+        }
+        return digits;
+    }
+
+    private void ensureRobotCapacity(int slot)
+    {
+        if(slot >= drawnRobotPasses.length)
+        {
+            int capacity = Math.max(slot + 1, drawnRobotPasses.length * 2);
+            drawnRobotXs = Arrays.copyOf(drawnRobotXs, capacity);
+            drawnRobotYs = Arrays.copyOf(drawnRobotYs, capacity);
+            drawnRobotIds = Arrays.copyOf(drawnRobotIds, capacity);
+            drawnRobotPasses = Arrays.copyOf(drawnRobotPasses, capacity);
+        }
+    }
+
+
     /**
      * Displays a string of text underneath a specific grid location. *Only* call this from within 
      * layoutChildren(). 
@@ -0,0 +1,109 @@
+package dwhiteheadcode.com.github.robot_defender.arena;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+
+/**
+ * The arena's sprites, pre-scaled to one grid square size, and rendered side by side into a single image
+ * (the atlas). Each sprite takes a square slot in the atlas, with the sprite scaled to fit (preserving its
+ * aspect ratio) and centred.
+ *
+ * Drawing a sprite is then a 1:1 copy from the atlas, so JavaFX doesn't rescale the full-size image on
+ * every draw. An atlas is only valid for the square size it was built for: GameArena builds a new one
+ * whenever the arena is resized.
+ *
+ * Thread: UI thread only (rendering the atlas requires it)
+ */
+public class SpriteAtlas
+{
+    private final Image atlas;
+    private final double squareSize; // The grid square size the sprites are scaled for
+    private final int slotSize;      // The width and height (in pixels) of each sprite's slot in the atlas
+
+    /**
+     * Renders 'sprites' into a new atlas, scaled for squares of 'squareSize' pixels. Sprite i can then be
+     * drawn with draw(gfx, i, ...).
+     */
+    public SpriteAtlas(double squareSize, Image... sprites)
+    {
+        if(squareSize < 1.0)
+        {
+            throw new IllegalArgumentException("Can't build a sprite atlas for squares smaller than 1 pixel.");
+        }
+
+        this.squareSize = squareSize;
+        this.slotSize = (int)Math.ceil(squareSize);
+
+        Canvas canvas = new Canvas((double)slotSize * sprites.length, slotSize);
+        GraphicsContext gfx = canvas.getGraphicsContext2D();
+        for(int i = 0; i < sprites.length; i++)
+        {
+            renderSprite(gfx, sprites[i], i);
+        }
+
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        WritableImage image = new WritableImage(slotSize * sprites.length, slotSize);
+        this.atlas = canvas.snapshot(parameters, image);
+    }
+
+    public double getSquareSize()
+    {
+        return squareSize;
+    }
+
+    /**
+     * Draws sprite 'sprite' in a specific grid location, as a 1:1 copy from the atlas.
+     *
+     * Note that the grid location can be fractional, so that (for instance), you can draw a sprite
+     * at location (3.5,4), and it will appear on the boundary between grid cells (3,4) and (4,4).
+     */
+    public void draw(GraphicsContext gfx, int sprite, double gridX, double gridY)
+    {
+        // The slot is centred on the centre of the grid square
+        double x = (gridX + 0.5) * squareSize - slotSize / 2.0;
+        double y = (gridY + 0.5) * squareSize - slotSize / 2.0;
+
+        gfx.drawImage(atlas,
+            (double)sprite * slotSize, 0.0, slotSize, slotSize, // Slot in the atlas
+            x, y, slotSize, slotSize);                           // Same size on the screen
+    }
+
+    // Draws 'image' into slot 'slot', scaled to fit a grid square, and centred
+    private void renderSprite(GraphicsContext gfx, Image image, int slot)
+    {
+        // We need to know how "big" to make the image. The image file has a natural width and height, but
+        // that's not necessarily the size we want to draw it on the screen. We do, however, want to preserve
+        // its aspect ratio.
+        double fullSizePixelWidth = image.getWidth();
+        double fullSizePixelHeight = image.getHeight();
+
+        double displayedPixelWidth, displayedPixelHeight;
+        if(fullSizePixelWidth > fullSizePixelHeight)
+        {
+            // Wider than it is high: as wide as a grid square, with the height set to preserve the aspect ratio.
+            displayedPixelWidth = squareSize;
+            displayedPixelHeight = squareSize * fullSizePixelHeight / fullSizePixelWidth;
+        }
+        else
+        {
+            // Otherwise, it's the other way around -- full height, and width set to preserve the aspect ratio.
+            displayedPixelHeight = squareSize;
+            displayedPixelWidth = squareSize * fullSizePixelWidth / fullSizePixelHeight;
+        }
+
+        double centreX = ((double)slot + 0.5) * slotSize;
+        double centreY = slotSize / 2.0;
+
+        gfx.drawImage(image,
+            centreX - displayedPixelWidth / 2.0,  // Top-left pixel coordinates.
+            centreY - displayedPixelHeight / 2.0,
+            displayedPixelWidth,                  // Size of displayed image.
+            displayedPixelHeight);
+    }
+}
@@ -1,6 +0,0 @@
-package dwhiteheadcode.com.github.robot_defender.entities.robot.moves;
-
-public interface RobotMoveCallback
-{
-    void moveComplete();
-}